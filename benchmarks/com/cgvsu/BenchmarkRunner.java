@@ -0,0 +1,29 @@
+package com.cgvsu;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Запуск бенчмарков с профилировщиком gc (выделение памяти на операцию) и записью результатов в JSON.
+// Запускать из корня проекта, чтобы находились модели из 3DModels:
+//   BenchmarkRunner [регулярное выражение для имен бенчмарков] [файл результатов]
+// Например, "ObjReader" и "benchmarks/baseline.json" - записать базовые результаты чтения, с которыми потом
+// сравниваются изменения разбора
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        final String include = args.length > 0 ? args[0] : ".*";
+        final String resultFile = args.length > 1 ? args[1] : "jmh-result.json";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,173 @@
+package com.cgvsu.math;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Преобразование всех вершин модели одной матрицей, как при отрисовке кадра.
+// Вершины хранятся так же, как в Model, - списком Vector3f. Для сравнения раскладок есть вариант
+// с координатами подряд в одном float[] и матрицей, развернутой в локальные переменные, и VertexTransform -
+// то же самое одним вызовом, в том числе на нескольких потоках
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BulkTransformBenchmark {
+
+    @Param({"1000000"})
+    public int verticesCount;
+
+    private Matrix4f matrix;
+    private Vector3f offset = new Vector3f(0.5f, -0.25f, 0.125f);
+    private ArrayList<Vector3f> vertices;
+    private ArrayList<Vector3f> transformed;
+    private ArrayList<Vector3f> destination;
+    private Matrix4f rotation;
+    private ArrayList<Vector3f> rotated;
+    private float[] coordinates;
+    private float[] transformedCoordinates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        matrix = new Matrix4f(new float[][]{
+                {1.5f, 0.1f, 0.2f, 3},
+                {0.3f, 1.2f, 0.4f, -2},
+                {0.5f, 0.6f, 0.9f, 1},
+                {0.01f, 0.02f, 0.03f, 1}});
+        Random random = new Random(1);
+        vertices = new ArrayList<>(verticesCount);
+        coordinates = new float[verticesCount * 3];
+        for (int i = 0; i < verticesCount; i++) {
+            Vector3f vertex = new Vector3f(random.nextFloat(), random.nextFloat(), random.nextFloat());
+            vertices.add(vertex);
+            coordinates[i * 3] = vertex.getX();
+            coordinates[i * 3 + 1] = vertex.getY();
+            coordinates[i * 3 + 2] = vertex.getZ();
+        }
+        transformed = new ArrayList<>(verticesCount);
+        destination = new ArrayList<>(verticesCount);
+        rotated = new ArrayList<>(verticesCount);
+        for (Vector3f vertex : vertices) {
+            destination.add(new Vector3f());
+            rotated.add(new Vector3f(vertex.getX(), vertex.getY(), vertex.getZ()));
+        }
+        final float cos = (float) Math.cos(0.01);
+        final float sin = (float) Math.sin(0.01);
+        rotation = new Matrix4f(new float[][]{
+                {cos, -sin, 0, 0},
+                {sin, cos, 0, 0},
+                {0, 0, 1, 0},
+                {0, 0, 0, 1}});
+        transformedCoordinates = new float[verticesCount * 3];
+    }
+
+    @Benchmark
+    public ArrayList<Vector3f> multiplyVectorDivW() {
+        transformed.clear();
+        for (Vector3f vertex : vertices) {
+            transformed.add(matrix.multiplyVectorDivW(vertex));
+        }
+        return transformed;
+    }
+
+    // Результат пишется в заранее созданные векторы
+    @Benchmark
+    public ArrayList<Vector3f> transformInto() {
+        for (int i = 0; i < verticesCount; i++) {
+            matrix.transform(vertices.get(i), destination.get(i));
+        }
+        return destination;
+    }
+
+    @Benchmark
+    public ArrayList<Vector3f> multiplyMatrix4ByVector3() {
+        transformed.clear();
+        for (Vector3f vertex : vertices) {
+            transformed.add(Vector3f.multiplyMatrix4ByVector3(matrix, vertex));
+        }
+        return transformed;
+    }
+
+    @Benchmark
+    public ArrayList<Vector3f> multiplyVector() {
+        transformed.clear();
+        for (Vector3f vertex : vertices) {
+            transformed.add(matrix.multiplyVector(vertex.translationToVector4f()).translationVector3f());
+        }
+        return transformed;
+    }
+
+    // Сдвиг всех вершин: новый вектор на каждую вершину против изменения вершины на месте
+    @Benchmark
+    public ArrayList<Vector3f> vector3fAdd() {
+        transformed.clear();
+        for (Vector3f vertex : vertices) {
+            transformed.add(vertex.add(offset));
+        }
+        return transformed;
+    }
+
+    @Benchmark
+    public ArrayList<Vector3f> vector3fAddVectorThis() {
+        for (Vector3f vertex : vertices) {
+            vertex.addVectorThis(offset);
+        }
+        // сдвиг туда и обратно, чтобы координаты не уплывали от итерации к итерации
+        offset = offset.multiplyScalar(-1);
+        return vertices;
+    }
+
+    @Benchmark
+    public float[] vertexTransform() {
+        VertexTransform.transform(matrix, coordinates, transformedCoordinates, true);
+        return transformedCoordinates;
+    }
+
+    @Benchmark
+    public float[] vertexTransformParallel() {
+        VertexTransform.transform(matrix, coordinates, transformedCoordinates, true, ForkJoinPool.commonPool());
+        return transformedCoordinates;
+    }
+
+    // Вершины изменяются на месте, поэтому матрица - поворот: от итерации к итерации координаты не растут
+    @Benchmark
+    public ArrayList<Vector3f> vertexTransformList() {
+        VertexTransform.transform(rotation, rotated, true);
+        return rotated;
+    }
+
+    @Benchmark
+    public float[] flatArray() {
+        final float[] cells = matrix.getCells();
+        final float m00 = cells[0], m01 = cells[1], m02 = cells[2], m03 = cells[3];
+        final float m10 = cells[4], m11 = cells[5], m12 = cells[6], m13 = cells[7];
+        final float m20 = cells[8], m21 = cells[9], m22 = cells[10], m23 = cells[11];
+        final float m30 = cells[12], m31 = cells[13], m32 = cells[14], m33 = cells[15];
+        for (int i = 0; i < coordinates.length; i += 3) {
+            final float x = coordinates[i];
+            final float y = coordinates[i + 1];
+            final float z = coordinates[i + 2];
+            final float w = m30 * x + m31 * y + m32 * z + m33;
+            transformedCoordinates[i] = (m00 * x + m01 * y + m02 * z + m03) / w;
+            transformedCoordinates[i + 1] = (m10 * x + m11 * y + m12 * z + m13) / w;
+            transformedCoordinates[i + 2] = (m20 * x + m21 * y + m22 * z + m23) / w;
+        }
+        return transformedCoordinates;
+    }
+}
@@ -0,0 +1,153 @@
+package com.cgvsu.math;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Время одной операции над матрицами и векторами.
+// Операнды - поля состояния, а не константы, чтобы JIT не вычислил результат заранее.
+// Выделение памяти на операцию меряется профилировщиком gc (-prof gc или BenchmarkRunner)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MathOperationBenchmark {
+
+    private Matrix4f matrix4f;
+    private Matrix4f otherMatrix4f;
+    private Matrix3f matrix3f;
+    private Matrix3f otherMatrix3f;
+    private Vector4f vector4f;
+    private Vector3f vector3f;
+    private Vector3f otherVector3f;
+    private final Matrix4f destMatrix4f = new Matrix4f();
+    private final Matrix3f destMatrix3f = new Matrix3f();
+    private final Vector4f destVector4f = new Vector4f(0, 0, 0, 0);
+    private final Vector3f destVector3f = new Vector3f();
+
+    @Setup
+    public void setUp() {
+        matrix4f = new Matrix4f(new float[][]{
+                {1.5f, 0.1f, 0.2f, 3},
+                {0.3f, 1.2f, 0.4f, -2},
+                {0.5f, 0.6f, 0.9f, 1},
+                {0.01f, 0.02f, 0.03f, 1}});
+        otherMatrix4f = new Matrix4f(new float[][]{
+                {0.9f, -0.1f, 0, 1},
+                {0.1f, 0.9f, 0, 2},
+                {0, 0, 1, 3},
+                {0, 0, 0, 1}});
+        matrix3f = new Matrix3f(new float[][]{{1.5f, 0.1f, 0.2f}, {0.3f, 1.2f, 0.4f}, {0.5f, 0.6f, 0.9f}});
+        otherMatrix3f = new Matrix3f(new float[][]{{0.9f, -0.1f, 0}, {0.1f, 0.9f, 0}, {0, 0, 1}});
+        vector4f = new Vector4f(1.1f, 2.2f, 3.3f, 1);
+        vector3f = new Vector3f(1.1f, 2.2f, 3.3f);
+        otherVector3f = new Vector3f(-0.4f, 0.5f, 0.6f);
+    }
+
+    @Benchmark
+    public Matrix4f matrix4fMultiplyMatrix() {
+        return matrix4f.multiplyMatrix(otherMatrix4f);
+    }
+
+    // Варианты с результатом в заранее созданном объекте - без выделения памяти
+    @Benchmark
+    public Matrix4f matrix4fMul() {
+        return Matrix4f.mul(matrix4f, otherMatrix4f, destMatrix4f);
+    }
+
+    @Benchmark
+    public Vector4f matrix4fTransformVector4f() {
+        return matrix4f.transform(vector4f, destVector4f);
+    }
+
+    @Benchmark
+    public Vector3f matrix4fTransformVector3f() {
+        return matrix4f.transform(vector3f, destVector3f);
+    }
+
+    @Benchmark
+    public Vector4f matrix4fMultiplyVector() {
+        return matrix4f.multiplyVector(vector4f);
+    }
+
+    @Benchmark
+    public Vector3f matrix4fMultiplyVectorDivW() {
+        return matrix4f.multiplyVectorDivW(vector3f);
+    }
+
+    @Benchmark
+    public Vector3f vector3fMultiplyMatrix4ByVector3() {
+        return Vector3f.multiplyMatrix4ByVector3(matrix4f, vector3f);
+    }
+
+    @Benchmark
+    public float matrix4fDeterminant() {
+        return matrix4f.determinant();
+    }
+
+    @Benchmark
+    public Matrix4f matrix4fTranspose() {
+        return matrix4f.transpose();
+    }
+
+    @Benchmark
+    public Matrix3f matrix3fMultiplyMatrix() {
+        return matrix3f.multiplyMatrix(otherMatrix3f);
+    }
+
+    @Benchmark
+    public Matrix3f matrix3fMul() {
+        return Matrix3f.mul(matrix3f, otherMatrix3f, destMatrix3f);
+    }
+
+    @Benchmark
+    public Vector3f matrix3fMultiplyVector() {
+        return matrix3f.multiplyVector(vector3f);
+    }
+
+    @Benchmark
+    public float matrix3fDeterminate() {
+        return matrix3f.determinate();
+    }
+
+    @Benchmark
+    public Vector3f vector3fAdd() {
+        return vector3f.add(otherVector3f);
+    }
+
+    @Benchmark
+    public Vector3f vector3fSub() {
+        return vector3f.sub(otherVector3f);
+    }
+
+    @Benchmark
+    public Vector3f vector3fMultiplyScalar() {
+        return vector3f.multiplyScalar(1.5f);
+    }
+
+    @Benchmark
+    public Vector3f vector3fNormalize() {
+        return vector3f.normalize();
+    }
+
+    @Benchmark
+    public float vector3fDotProduct() {
+        return vector3f.dotProduct(otherVector3f);
+    }
+
+    @Benchmark
+    public Vector3f vector3fVectorMultiply() {
+        return vector3f.vectorMultiply(otherVector3f);
+    }
+}
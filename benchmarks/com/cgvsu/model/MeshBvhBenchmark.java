@@ -0,0 +1,131 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+import com.cgvsu.objreader.ObjReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Время одного запроса луча к модели: MeshBvh против перебора всех треугольников
+// (координаты треугольников для перебора заранее разложены в один float[], как в листьях BVH).
+// Лучи идут снаружи модели в случайные точки ее габаритов, каждый вызов берет следующий луч.
+// Отдельно - время построения BVH на одном потоке и на пуле
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MeshBvhBenchmark {
+
+    private static final int RAYS_COUNT = 1024;
+
+    @Param({"3DModels/Faceform/WrapBody.obj"})
+    public String model;
+
+    private Model mesh;
+    private TriangleMesh triangleMesh;
+    private MeshBvh bvh;
+    private float[] triangles;
+    private Vector3f[] origins;
+    private Vector3f[] directions;
+    private final RayHit hit = new RayHit();
+    private final float[] bruteForceHit = new float[3];
+    private int ray;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mesh = ObjReader.read(Path.of(model));
+        triangleMesh = Triangulator.triangulate(mesh);
+        bvh = MeshBvh.build(mesh, triangleMesh, null, Integer.MAX_VALUE);
+
+        final int[] vertexIndices = triangleMesh.getVertexIndices();
+        triangles = new float[vertexIndices.length * 3];
+        float[] min = {Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY};
+        float[] max = {Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+        for (int i = 0; i < vertexIndices.length; i++) {
+            triangles[i * 3] = mesh.getVertexX(vertexIndices[i]);
+            triangles[i * 3 + 1] = mesh.getVertexY(vertexIndices[i]);
+            triangles[i * 3 + 2] = mesh.getVertexZ(vertexIndices[i]);
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], triangles[i * 3 + axis]);
+                max[axis] = Math.max(max[axis], triangles[i * 3 + axis]);
+            }
+        }
+
+        Random random = new Random(1);
+        origins = new Vector3f[RAYS_COUNT];
+        directions = new Vector3f[RAYS_COUNT];
+        for (int i = 0; i < RAYS_COUNT; i++) {
+            float[] origin = new float[3];
+            float[] direction = new float[3];
+            for (int axis = 0; axis < 3; axis++) {
+                final float extent = max[axis] - min[axis];
+                origin[axis] = min[axis] - extent + random.nextFloat() * extent * 3;
+                direction[axis] = min[axis] + random.nextFloat() * extent - origin[axis];
+            }
+            origins[i] = new Vector3f(origin[0], origin[1], origin[2]);
+            directions[i] = new Vector3f(direction[0], direction[1], direction[2]);
+        }
+    }
+
+    private int nextRay() {
+        ray = (ray + 1) & (RAYS_COUNT - 1);
+        return ray;
+    }
+
+    @Benchmark
+    public boolean nearestHit() {
+        final int i = nextRay();
+        return bvh.intersect(origins[i], directions[i], Float.POSITIVE_INFINITY, hit);
+    }
+
+    @Benchmark
+    public boolean anyHit() {
+        final int i = nextRay();
+        return bvh.intersectsAny(origins[i], directions[i], Float.POSITIVE_INFINITY);
+    }
+
+    @Benchmark
+    public float nearestHitBruteForce() {
+        final int i = nextRay();
+        final Vector3f origin = origins[i];
+        final Vector3f direction = directions[i];
+        float nearest = Float.POSITIVE_INFINITY;
+        final int trianglesCount = triangles.length / 9;
+        for (int triangle = 0; triangle < trianglesCount; triangle++) {
+            if (MeshBvh.intersectTriangle(triangles, triangle, origin.getX(), origin.getY(), origin.getZ(),
+                    direction.getX(), direction.getY(), direction.getZ(), nearest, bruteForceHit)) {
+                nearest = bruteForceHit[0];
+            }
+        }
+        return nearest;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MeshBvh build() {
+        return MeshBvh.build(mesh, triangleMesh, null, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MeshBvh buildParallel() {
+        return MeshBvh.build(mesh, triangleMesh, ForkJoinPool.commonPool(), 32 * 1024);
+    }
+}
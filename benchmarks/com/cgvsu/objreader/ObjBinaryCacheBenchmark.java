@@ -0,0 +1,72 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Mesh;
+import com.cgvsu.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Загрузка модели: разбор текста OBJ против отображения готового двоичного кэша.
+// coldText - обычное чтение, coldCache - чтение с кэшем, когда его еще нет (разбор и запись кэша),
+// warmCache - чтение из свежего кэша.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ObjBinaryCacheBenchmark {
+
+    @Param({"3DModels/Faceform/WrapBody.obj", "3DModels/SimpleModelsForReaderTests/TeapotWithUniqueUVs.obj"})
+    public String model;
+
+    private Path directory;
+    private Path source;
+    private Path cacheFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("objbin");
+        source = directory.resolve(Path.of(model).getFileName());
+        Files.copy(Path.of(model), source);
+        cacheFile = ObjBinaryCache.getCachePath(source);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(cacheFile);
+        Files.delete(source);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Model coldText() throws IOException {
+        return ObjReader.read(source);
+    }
+
+    @Benchmark
+    public Mesh coldCache() throws IOException {
+        Files.deleteIfExists(cacheFile);
+        return ObjReader.readCached(source, cacheFile);
+    }
+
+    @Benchmark
+    public Mesh warmCache() throws IOException {
+        return ObjReader.readCached(source, cacheFile);
+    }
+}
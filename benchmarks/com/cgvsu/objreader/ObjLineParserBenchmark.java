@@ -0,0 +1,90 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.math.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Разбор отдельных элементов: parseVertex для строк "v" и parseFaceWord для слов строк "f".
+// Строки и слова берутся из модели по очереди, чтобы разбирались настоящие данные, а не одно и то же значение
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ObjLineParserBenchmark {
+
+    @Param({
+            "3DModels/SimpleModelsForReaderTests/Teapot.obj",
+            "3DModels/SimpleModelsForReaderTests/TeapotWithUniqueUVs.obj",
+            "3DModels/Faceform/WrapBody.obj"})
+    public String model;
+
+    private List<ArrayList<String>> vertexWords;
+    private String[] faceWords;
+    private int verticesCount;
+    private int vertexLine;
+    private int faceWord;
+
+    private final ArrayList<Integer> vertexIndices = new ArrayList<>();
+    private final ArrayList<Integer> textureVertexIndices = new ArrayList<>();
+    private final ArrayList<Integer> normalIndices = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        vertexWords = new ArrayList<>();
+        List<String> faces = new ArrayList<>();
+        for (String line : Files.readAllLines(Path.of(model))) {
+            ArrayList<String> words = new ArrayList<>(Arrays.asList(line.split("\\s+")));
+            if (words.isEmpty()) {
+                continue;
+            }
+            final String token = words.remove(0);
+            if (token.equals("v")) {
+                vertexWords.add(words);
+            } else if (token.equals("f")) {
+                faces.addAll(words);
+            }
+        }
+        faceWords = faces.toArray(new String[0]);
+        verticesCount = vertexWords.size();
+    }
+
+    @Benchmark
+    public Vector3f parseVertex() {
+        if (++vertexLine == vertexWords.size()) {
+            vertexLine = 0;
+        }
+        return ObjReader.parseVertex(vertexWords.get(vertexLine), vertexLine);
+    }
+
+    @Benchmark
+    public int parseFaceWord() {
+        if (++faceWord == faceWords.length) {
+            faceWord = 0;
+        }
+        vertexIndices.clear();
+        textureVertexIndices.clear();
+        normalIndices.clear();
+        ObjReader.parseFaceWord(faceWords[faceWord], vertexIndices, textureVertexIndices, normalIndices, faceWord, verticesCount);
+        return vertexIndices.get(0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Model;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Чтение моделей целиком: из файла, из строки (построчный разбор) и отдельно проверка уже прочитанной модели.
+// Кроме операций в секунду, для чтения выводится счетчик bytes - скорость разбора в байтах в секунду.
+// Выделение памяти меряется профилировщиком gc (-prof gc или BenchmarkRunner)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ObjReaderBenchmark {
+
+    @Param({
+            "3DModels/SimpleModelsForReaderTests/Teapot.obj",
+            "3DModels/SimpleModelsForReaderTests/Torus.obj",
+            "3DModels/SimpleModelsForReaderTests/TeapotWithUniqueUVs.obj",
+            "3DModels/Faceform/WrapBody.obj",
+            "3DModels/Faceform/WrapFemaleBody.obj"})
+    public String model;
+
+    private Path path;
+    private String fileContent;
+    private long fileSize;
+    private Model loadedModel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = Path.of(model);
+        fileContent = Files.readString(path);
+        fileSize = Files.size(path);
+        loadedModel = ObjReader.read(path);
+    }
+
+    // Счетчики JMH выводит как скорость: bytes - разобранные байты в секунду
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ParsedBytes {
+        public long bytes;
+    }
+
+    @Benchmark
+    public Model readPath(ParsedBytes parsedBytes) throws IOException {
+        parsedBytes.bytes += fileSize;
+        return ObjReader.read(path);
+    }
+
+    @Benchmark
+    public Model readString(ParsedBytes parsedBytes) {
+        parsedBytes.bytes += fileSize;
+        return ObjReader.read(fileContent);
+    }
+
+    @Benchmark
+    public Model checkModelAfterReading() {
+        ObjReader.checkModelAfterReading(loadedModel);
+        return loadedModel;
+    }
+}
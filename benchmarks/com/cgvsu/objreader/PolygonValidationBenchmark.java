@@ -0,0 +1,86 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.math.Vector3f;
+import com.cgvsu.model.Model;
+import com.cgvsu.model.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Проверка всех полигонов уже прочитанной модели: прежний перебор троек вершин против MeshValidator.
+// legacy - копия прежней проверки вершин полигона (без текстурных вершин и нормалей, они проверяются одинаково).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PolygonValidationBenchmark {
+
+    @Param({"3DModels/Faceform/WrapBody.obj", "3DModels/SimpleModelsForReaderTests/Teapot.obj"})
+    public String model;
+
+    private Model loadedModel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        loadedModel = ObjReader.read(Path.of(model));
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (int i = 0; i < loadedModel.polygons.size(); i++) {
+            legacyCheckPolygonVertices(loadedModel.polygons.get(i), i, loadedModel.vertices, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void meshValidator(Blackhole blackhole) {
+        MeshValidator validator = new MeshValidator(loadedModel);
+        for (int i = 0; i < loadedModel.getPolygonCount(); i++) {
+            blackhole.consume(validator.checkPolygon(i, i));
+        }
+    }
+
+    private static void legacyCheckPolygonVertices(Polygon polygon, int polygonIndex, ArrayList<Vector3f> modelVertices, Blackhole blackhole) {
+        float[][] matrix3f = new float[3][3];
+        matrix3f[0][0] = 1; matrix3f[0][1] = 1; matrix3f[0][2] = 1;
+        ArrayList<Integer> polygonVertices = polygon.getVertexIndices();
+
+        for (int j = 0; j < polygonVertices.size() - 2; j++) {
+            for (int k = j + 1; k < polygonVertices.size() - 1; k++) {
+                Vector3f firstPoint3D = modelVertices.get(polygonVertices.get(k));
+                Vector3f firstVector3f = new Vector3f(firstPoint3D.getX() - modelVertices.get(polygonVertices.get(0)).getX(), firstPoint3D.getY() - modelVertices.get(polygonVertices.get(0)).getY(), firstPoint3D.getZ() - modelVertices.get(polygonVertices.get(0)).getZ());
+                matrix3f[1][0] = firstVector3f.getX(); matrix3f[1][1] = firstVector3f.getY(); matrix3f[1][2] = firstVector3f.getZ();
+
+                for (int l = k + 1; l < polygonVertices.size(); l++) {
+                    Vector3f secondPoint3D = modelVertices.get(polygonVertices.get(l));
+                    Vector3f secondVector3f = new Vector3f(secondPoint3D.getX() - modelVertices.get(polygonVertices.get(0)).getX(), secondPoint3D.getY() - modelVertices.get(polygonVertices.get(0)).getY(), secondPoint3D.getZ() - modelVertices.get(polygonVertices.get(0)).getZ());
+                    matrix3f[2][0] = secondVector3f.getX(); matrix3f[2][1] = secondVector3f.getY(); matrix3f[2][2] = secondVector3f.getZ();
+                    Vector3f vectorProduct = new Vector3f(matrix3f[1][1] * matrix3f[2][2] - matrix3f[1][2] * matrix3f[2][1],
+                            matrix3f[1][2] * matrix3f[2][0] - matrix3f[1][0] * matrix3f[2][2],
+                            matrix3f[1][0] * matrix3f[2][1] - matrix3f[1][1] * matrix3f[2][0]);
+                    if (vectorProduct.getX() == 0 && vectorProduct.getY() == 0 && vectorProduct.getZ() == 0) {
+                        throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": some of its points lie on the same line or are identical.");
+                    }
+                    blackhole.consume(vectorProduct);
+                }
+            }
+        }
+    }
+}
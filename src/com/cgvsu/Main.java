@@ -1,18 +1,24 @@
 package com.cgvsu;
 
 import com.cgvsu.model.Model;
+import com.cgvsu.objreader.ModelBatchLoader;
 import com.cgvsu.objreader.ObjReader;
 
 import java.io.IOException;
 import java.nio.charset.MalformedInputException;
-import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.Arrays;
 
 public class Main {
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // папки с моделями в аргументах загружаются целиком, например 3DModels/Faceform
+        if (args.length > 0) {
+            loadDirectories(args);
+            return;
+        }
+
         Path fileName = Path.of("3DModels/SimpleModelsForReaderTests/GGGG.obj");
         Path fileName2 = Path.of("3DModels/SimpleModelsForReaderTests/Test02.obj");
         Path fileName3 = Path.of("3DModels/SimpleModelsForReaderTests/Test03.obj");
@@ -24,9 +30,11 @@ public class Main {
         Path teapot = Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj");
         Path body = Path.of("3DModels/Faceform/WrapBody.obj");
         Path caracal_cube = Path.of("3DModels/CaracalCube/caracal_cube.obj");
-        String fileContent = null;
+
+        System.out.println("Loading model ...");
+        Model model = null;
         try {
-            fileContent = Files.readString(teapot);
+            model = ObjReader.read(teapot);
         } catch (MalformedInputException exception) {
             System.out.println("Ошибка: в названии файла использована кириллица.");
             System.exit(1);
@@ -35,12 +43,26 @@ public class Main {
             System.exit(1);
         }
 
-        System.out.println("Loading model ...");
-        Model model = ObjReader.read(fileContent);
-
         System.out.println("Vertices: " + /*model.vertices.size() +*/ model.vertices);
         System.out.println("Texture vertices: " + /*model.textureVertices.size() +*/ model.textureVertices);
         System.out.println("Normals: " + /*model.normals.size() +*/ model.normals);
         System.out.println("Polygons: " + /*model.polygons.size() +*/ model.polygons);
     }
+
+    private static void loadDirectories(String[] directories) throws IOException, InterruptedException {
+        ModelBatchLoader loader = new ModelBatchLoader(Runtime.getRuntime().availableProcessors());
+        for (String directory : directories) {
+            ModelBatchLoader.BatchResult batch = loader.load(Path.of(directory));
+            for (ModelBatchLoader.FileResult result : batch.getResults()) {
+                if (result.isLoaded()) {
+                    System.out.println(result.getPath() + ": " + result.getModel().vertices.size() + " vertices, "
+                            + result.getModel().polygons.size() + " polygons, " + result.getLoadTimeNanos() / 1_000_000 + " ms");
+                } else {
+                    System.out.println(result.getPath() + ": ошибка: " + result.getError().getMessage());
+                }
+            }
+            System.out.printf("%s: loaded %d, failed %d, %.1f MB/s, %.1f files/s%n", directory,
+                    batch.getLoadedCount(), batch.getFailedCount(), batch.getBytesPerSecond() / (1024 * 1024), batch.getFilesPerSecond());
+        }
+    }
 }
@@ -2,139 +2,180 @@ package com.cgvsu.math;
 
 import com.cgvsu.math.Vector3f;
 
+// Ячейки хранятся подряд в одном массиве по строкам: ячейка (row, col) - cells[row * 3 + col].
+// Как и у Matrix4f, методы ...InPlace, mul и transform записывают результат в существующий объект
 public class Matrix3f {
 	private static final float esp = 1e-4f;
-	private float[][] matrix;
+	private final float[] cells;
 
 	public Matrix3f() {
-		this.matrix = new float[3][3];
+		this.cells = new float[9];
 	}
 
 	public Matrix3f(boolean isUnitMatrix) {
+		this.cells = new float[9];
 		if (isUnitMatrix) {
-			this.matrix = new float[][] { { 1, 0, 0 }, { 0, 1, 0 }, { 0, 0, 1 } };
-		} else {
-			this.matrix = new float[3][3];
+			setIdentity();
 		}
 	}
 
 	public Matrix3f(float[][] matrix) {
-		if (matrix.length != 3 || matrix[0].length != 3) {
+		if (matrix.length != 3) {
 			throw new IllegalArgumentException("Matrix should have 3 rows and 3 columns");
 		}
-		this.matrix = matrix;
+		this.cells = new float[9];
+		for (int i = 0; i < 3; i++) {
+			if (matrix[i].length != 3) {
+				throw new IllegalArgumentException("Matrix should have 3 rows and 3 columns");
+			}
+			System.arraycopy(matrix[i], 0, cells, i * 3, 3);
+		}
 	}
 
+	public Matrix3f(Matrix3f matrix3f) {
+		this.cells = matrix3f.cells.clone();
+	}
+
+	// Копия ячеек: изменение возвращенного массива матрицу не меняет, для этого есть setCell
 	public float[][] getMatrix() {
-		return matrix;
+		float[][] result = new float[3][3];
+		for (int i = 0; i < 3; i++) {
+			System.arraycopy(cells, i * 3, result[i], 0, 3);
+		}
+		return result;
+	}
+
+	// Массив самой матрицы по строкам, без копирования
+	public float[] getCells() {
+		return cells;
 	}
 
 	public float getCell(int row, int col) {
-		return matrix[row][col];
+		return cells[row * 3 + col];
 	}
 
 	public void setCell(int row, int col, float f) {
-		this.matrix[row][col] = f;
+		this.cells[row * 3 + col] = f;
+	}
+
+	public Matrix3f set(Matrix3f matrix3f) {
+		System.arraycopy(matrix3f.cells, 0, cells, 0, 9);
+		return this;
+	}
+
+	public Matrix3f setIdentity() {
+		for (int i = 0; i < 9; i++) {
+			cells[i] = i % 4 == 0 ? 1 : 0;
+		}
+		return this;
 	}
 
 	public void printMatrix() {
 		System.out.println("Matrix:");
-		for (float[] floats : matrix) {
-			for (int j = 0; j < matrix[0].length; j++) {
-				System.out.print(floats[j] + " ");
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				System.out.print(cells[i * 3 + j] + " ");
 			}
 			System.out.println();
 		}
 	}
 
 	public Matrix3f add(Matrix3f matrix3f) {
-		if (matrix3f.getMatrix().length != 3 || matrix3f.getMatrix()[0].length != 3) {
-			throw new IllegalArgumentException("Matrix should have 3 rows and 3 columns");
-		}
-		float[][] values = new float[matrix.length][matrix[0].length];
-		for (int i = 0; i < matrix.length; i++) {
-			for (int j = 0; j < matrix[0].length; j++) {
-				values[i][j] = matrix[i][j] + matrix3f.getCell(i, j);
-			}
+		return new Matrix3f(this).addInPlace(matrix3f);
+	}
+
+	public Matrix3f addInPlace(Matrix3f matrix3f) {
+		for (int i = 0; i < 9; i++) {
+			cells[i] += matrix3f.cells[i];
 		}
-		return new Matrix3f(values);
+		return this;
 	}
 
 	public Matrix3f sub(Matrix3f matrix3f) {
-		if (matrix3f.getMatrix().length != 3 || matrix3f.getMatrix()[0].length != 3) {
-			throw new IllegalArgumentException("Matrix should have 3 rows and 3 columns");
-		}
-		float[][] values = new float[matrix.length][matrix[0].length];
-		for (int i = 0; i < matrix.length; i++) {
-			for (int j = 0; j < matrix[0].length; j++) {
-				values[i][j] = matrix[i][j] - matrix3f.getCell(i, j);
-			}
+		return new Matrix3f(this).subInPlace(matrix3f);
+	}
+
+	public Matrix3f subInPlace(Matrix3f matrix3f) {
+		for (int i = 0; i < 9; i++) {
+			cells[i] -= matrix3f.cells[i];
 		}
-		return new Matrix3f(values);
+		return this;
 	}
 
 	public Vector3f multiplyVector(Vector3f vectorCol) {
 		if (vectorCol == null) {
 			throw new IllegalArgumentException("Vector should not be null");
 		}
-		float[] values = new float[3];
-		for (int i = 0; i < matrix.length; i++) {
-			values[0] = 0;
-			for (int j = 0; j < matrix[0].length; j++) {
-				values[i] += matrix[i][j] * vectorCol.get(j);
-			}
-		}
-		return new Vector3f(values[0], values[1], values[2]);
+		return transform(vectorCol, new Vector3f());
+	}
+
+	// dest = this * src; dest может быть тем же вектором, что и src
+	public Vector3f transform(Vector3f src, Vector3f dest) {
+		final float x = src.getX();
+		final float y = src.getY();
+		final float z = src.getZ();
+		final float[] m = cells;
+		dest.set(m[0] * x + m[1] * y + m[2] * z,
+				m[3] * x + m[4] * y + m[5] * z,
+				m[6] * x + m[7] * y + m[8] * z);
+		return dest;
 	}
 
 	public Matrix3f multiplyMatrix(Matrix3f matrix3f) {
-		if (matrix3f.getMatrix().length != 3 || matrix3f.getMatrix()[0].length != 3) {
-			throw new IllegalArgumentException("Matrix should have 3 rows and 3 columns");
-		}
-		float[][] values = new float[3][3];
-		for (int i = 0; i < matrix.length; i++) {
-			for (int j = 0; j < matrix[0].length; j++) {
-				values[i][j] = 0;
-				for (int k = 0; k < 3; k++) {
-					values[i][j] += matrix[i][k] * matrix3f.getCell(k, j);
-				}
-			}
+		return mul(this, matrix3f, new Matrix3f());
+	}
+
+	// this = this * matrix3f
+	public Matrix3f mulInPlace(Matrix3f matrix3f) {
+		return mul(this, matrix3f, this);
+	}
+
+	// dest = a * b; dest может совпадать с a или b
+	public static Matrix3f mul(Matrix3f a, Matrix3f b, Matrix3f dest) {
+		final float[] l = a.cells;
+		final float[] r = b.cells;
+		final float[] result = dest.cells;
+		// b читается целиком, а строка a - до записи той же строки результата, поэтому dest может быть a или b
+		final float r00 = r[0], r01 = r[1], r02 = r[2];
+		final float r10 = r[3], r11 = r[4], r12 = r[5];
+		final float r20 = r[6], r21 = r[7], r22 = r[8];
+		for (int i = 0; i < 9; i += 3) {
+			final float l0 = l[i], l1 = l[i + 1], l2 = l[i + 2];
+			result[i] = l0 * r00 + l1 * r10 + l2 * r20;
+			result[i + 1] = l0 * r01 + l1 * r11 + l2 * r21;
+			result[i + 2] = l0 * r02 + l1 * r12 + l2 * r22;
 		}
-		return new Matrix3f(values);
+		return dest;
 	}
 
 	public Matrix3f transpose() {
-		if (matrix.length != 3 || matrix[0].length != 3) {
-			throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 3 на 3.");
-		}
-		float[][] transposed = new float[3][3];
-		for (int i = 0; i < matrix.length; i++) {
-			for (int j = 0; j < matrix[0].length; j++) {
-				transposed[j][i] = matrix[i][j];
+		return new Matrix3f(this).transposeInPlace();
+	}
+
+	public Matrix3f transposeInPlace() {
+		for (int i = 0; i < 3; i++) {
+			for (int j = i + 1; j < 3; j++) {
+				final float value = cells[i * 3 + j];
+				cells[i * 3 + j] = cells[j * 3 + i];
+				cells[j * 3 + i] = value;
 			}
 		}
-		return new Matrix3f(transposed);
+		return this;
 	}
 
 	public float determinate() {
-		if (matrix.length != 3 || matrix[0].length != 3) {
-			throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 3 на 3.");
-		}
-		return (matrix[0][0] * matrix[1][1] * matrix[2][2] - (matrix[0][2] * matrix[1][1] * matrix[2][0])
-				+ matrix[0][1] * matrix[1][2] * matrix[2][0] - (matrix[0][1] * matrix[1][0] * matrix[2][2])
-				+ matrix[0][2] * matrix[1][0] * matrix[2][1] - (matrix[0][0] * matrix[1][2] * matrix[2][1]));
+		final float[] m = cells;
+		return (m[0] * m[4] * m[8] - (m[2] * m[4] * m[6])
+				+ m[1] * m[5] * m[6] - (m[1] * m[3] * m[8])
+				+ m[2] * m[3] * m[7] - (m[0] * m[5] * m[7]));
 	}
 
 	public boolean equalsAns(Matrix3f matrix3f) {
-		boolean flag = false;
-		for (int i = 0; i < matrix.length; i++) {
-			for (int j = 0; j < matrix[0].length; j++) {
-				if (matrix[i][j] == matrix3f.getCell(i, j)) {
-					flag = true;
-				} else
-					return false;
+		for (int i = 0; i < 9; i++) {
+			if (cells[i] != matrix3f.cells[i]) {
+				return false;
 			}
 		}
-		return flag;
+		return true;
 	}
-}
\ No newline at end of file
+}
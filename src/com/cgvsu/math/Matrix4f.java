@@ -3,166 +3,215 @@ package com.cgvsu.math;
 import com.cgvsu.math.Vector3f;
 import com.cgvsu.math.Vector4f;
 
+// Ячейки хранятся подряд в одном массиве по строкам: ячейка (row, col) - cells[row * 4 + col].
+// Методы sum, sub, multiplyMatrix и т.п. возвращают новую матрицу или вектор, а методы ...InPlace, mul и transform
+// записывают результат в уже существующий объект и ничего не создают - для вычислений на каждом кадре
 public class Matrix4f {
     private static final float esp = 1e-4f;
-    private float[][] matrix;
+    private final float[] cells;
 
     public Matrix4f() {
-        this.matrix = new float[4][4];
+        this.cells = new float[16];
     }
 
     public Matrix4f(boolean isUnitMatrix) {
+        this.cells = new float[16];
         if (isUnitMatrix) {
-            this.matrix = new float[][]{
-                    {1, 0, 0, 0},
-                    {0, 1, 0, 0},
-                    {0, 0, 1, 0},
-                    {0, 0, 0, 1}
-            };
-        } else {
-            this.matrix = new float[4][4];
+            setIdentity();
         }
     }
 
     public Matrix4f(float[][] matrix) {
-        if (matrix.length != 4 || matrix[0].length != 4) {
+        if (matrix.length != 4) {
             throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 4 на 4");
         }
-        this.matrix = matrix;
+        this.cells = new float[16];
+        for (int i = 0; i < 4; i++) {
+            if (matrix[i].length != 4) {
+                throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 4 на 4");
+            }
+            System.arraycopy(matrix[i], 0, cells, i * 4, 4);
+        }
     }
 
+    public Matrix4f(Matrix4f matrix4f) {
+        this.cells = matrix4f.cells.clone();
+    }
+
+    // Копия ячеек: изменение возвращенного массива матрицу не меняет, для этого есть setCell
     public float[][] getMatrix() {
-        return matrix;
+        float[][] result = new float[4][4];
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(cells, i * 4, result[i], 0, 4);
+        }
+        return result;
+    }
+
+    // Массив самой матрицы по строкам, без копирования
+    public float[] getCells() {
+        return cells;
     }
 
     public float getCell(int row, int col) {
-        return matrix[row][col];
+        return cells[row * 4 + col];
+    }
+
+    public void setCell(int row, int col, float value) {
+        cells[row * 4 + col] = value;
+    }
+
+    public Matrix4f set(Matrix4f matrix4f) {
+        System.arraycopy(matrix4f.cells, 0, cells, 0, 16);
+        return this;
+    }
+
+    public Matrix4f setIdentity() {
+        for (int i = 0; i < 16; i++) {
+            cells[i] = i % 5 == 0 ? 1 : 0;
+        }
+        return this;
     }
 
     public void printMatrix() {
         System.out.println("Matrix: ");
-        for (float[] floats : matrix) {
-            for (int j = 0; j < matrix[0].length; j++) {
-                System.out.print(floats[j] + " ");
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                System.out.print(cells[i * 4 + j] + " ");
             }
             System.out.println();
         }
     }
 
     public Matrix4f sum(Matrix4f matrix4f) {
-        if (matrix4f.getMatrix().length != 4 || matrix4f.getMatrix()[0].length != 4) {
-            throw new IllegalArgumentException();
-        }
-        float[][] values = new float[matrix.length][matrix[0].length];
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[0].length; j++) {
-                values[i][j] = matrix[i][j] + matrix4f.getCell(i, j);
-            }
+        return new Matrix4f(this).sumInPlace(matrix4f);
+    }
+
+    public Matrix4f sumInPlace(Matrix4f matrix4f) {
+        for (int i = 0; i < 16; i++) {
+            cells[i] += matrix4f.cells[i];
         }
-        return new Matrix4f(values);
+        return this;
     }
 
     public Matrix4f sub(Matrix4f matrix4f) {
-        if (matrix4f.getMatrix().length != 4 || matrix4f.getMatrix()[0].length != 4) {
-            throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 4 на 4.");
-        }
-        float[][] values = new float[matrix.length][matrix[0].length];
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[0].length; j++) {
-                values[i][j] = matrix[i][j] - matrix4f.getCell(i, j);
-            }
+        return new Matrix4f(this).subInPlace(matrix4f);
+    }
+
+    public Matrix4f subInPlace(Matrix4f matrix4f) {
+        for (int i = 0; i < 16; i++) {
+            cells[i] -= matrix4f.cells[i];
         }
-        return new Matrix4f(values);
+        return this;
     }
 
     public Vector4f multiplyVector(Vector4f vectorCol) {
         if (vectorCol == null) {
             throw new NullPointerException("Предоставленный вектор не может быть нулевым");
         }
+        return transform(vectorCol, new Vector4f(0, 0, 0, 0));
+    }
 
-        float[] values = new float[4];
-        for (int i = 0; i < matrix.length; i++) {
-            values[i] = 0;
-            for (int j = 0; j < matrix[0].length; j++) {
-                values[i] += matrix[i][j] * vectorCol.get(j);
-            }
-        }
-        return new Vector4f(values[0], values[1], values[2], values[3]);
+    // dest = this * src; dest может быть тем же вектором, что и src
+    public Vector4f transform(Vector4f src, Vector4f dest) {
+        final float x = src.x;
+        final float y = src.y;
+        final float z = src.z;
+        final float w = src.w;
+        final float[] m = cells;
+        dest.x = m[0] * x + m[1] * y + m[2] * z + m[3] * w;
+        dest.y = m[4] * x + m[5] * y + m[6] * z + m[7] * w;
+        dest.z = m[8] * x + m[9] * y + m[10] * z + m[11] * w;
+        dest.w = m[12] * x + m[13] * y + m[14] * z + m[15] * w;
+        return dest;
     }
 
     public Vector3f multiplyVectorDivW(Vector3f vectorCol3f) {
         if (vectorCol3f == null) {
             throw new NullPointerException("Предоставленный вектор не может быть нулевым");
         }
-        Vector4f vector4fCol = vectorCol3f.translationToVector4f();
+        return transform(vectorCol3f, new Vector3f());
+    }
 
-        float[] values = new float[4];
-        for (int i = 0; i < matrix.length; i++) {
-            values[i] = 0;
-            for (int j = 0; j < matrix[0].length; j++) {
-                values[i] += matrix[i][j] * vector4fCol.get(j);
-            }
-        }
-        return new Vector3f(values[0] / values[3], values[1] / values[3], values[2] / values[3]);
+    // Точка src (w = 1) умножается на матрицу, и результат делится на w, как в multiplyVectorDivW.
+    // dest может быть тем же вектором, что и src
+    public Vector3f transform(Vector3f src, Vector3f dest) {
+        final float x = src.getX();
+        final float y = src.getY();
+        final float z = src.getZ();
+        final float[] m = cells;
+        final float w = m[12] * x + m[13] * y + m[14] * z + m[15];
+        dest.set((m[0] * x + m[1] * y + m[2] * z + m[3]) / w,
+                (m[4] * x + m[5] * y + m[6] * z + m[7]) / w,
+                (m[8] * x + m[9] * y + m[10] * z + m[11]) / w);
+        return dest;
     }
 
     public Matrix4f multiplyMatrix(Matrix4f matrix4f) {
-        if (matrix4f.getMatrix().length != 4 || matrix4f.getMatrix()[0].length != 4) {
-            throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 4 на 4.");
-        }
-        float[][] values = new float[4][4];
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[0].length; j++) {
-                values[i][j] = 0;
-                for (int k = 0; k < 4; k++) {
-                    values[i][j] += matrix[i][k] * matrix4f.getCell(k, j);
-                }
-            }
-        }
-        return new Matrix4f(values);
+        return mul(this, matrix4f, new Matrix4f());
+    }
+
+    // this = this * matrix4f
+    public Matrix4f mulInPlace(Matrix4f matrix4f) {
+        return mul(this, matrix4f, this);
+    }
+
+    // dest = a * b; dest может совпадать с a или b
+    public static Matrix4f mul(Matrix4f a, Matrix4f b, Matrix4f dest) {
+        final float[] l = a.cells;
+        final float[] r = b.cells;
+        final float[] result = dest.cells;
+        // b читается целиком, а строка a - до записи той же строки результата, поэтому dest может быть a или b
+        final float r00 = r[0], r01 = r[1], r02 = r[2], r03 = r[3];
+        final float r10 = r[4], r11 = r[5], r12 = r[6], r13 = r[7];
+        final float r20 = r[8], r21 = r[9], r22 = r[10], r23 = r[11];
+        final float r30 = r[12], r31 = r[13], r32 = r[14], r33 = r[15];
+        for (int i = 0; i < 16; i += 4) {
+            final float l0 = l[i], l1 = l[i + 1], l2 = l[i + 2], l3 = l[i + 3];
+            result[i] = l0 * r00 + l1 * r10 + l2 * r20 + l3 * r30;
+            result[i + 1] = l0 * r01 + l1 * r11 + l2 * r21 + l3 * r31;
+            result[i + 2] = l0 * r02 + l1 * r12 + l2 * r22 + l3 * r32;
+            result[i + 3] = l0 * r03 + l1 * r13 + l2 * r23 + l3 * r33;
+        }
+        return dest;
     }
 
     public Matrix4f transpose() {
-        if (matrix.length != 4 || matrix[0].length != 4) {
-            throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 4 на 4.");
-        }
-        float[][] transposed = new float[4][4];
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[0].length; j++) {
-                transposed[j][i] = matrix[i][j];
+        return new Matrix4f(this).transposeInPlace();
+    }
+
+    public Matrix4f transposeInPlace() {
+        for (int i = 0; i < 4; i++) {
+            for (int j = i + 1; j < 4; j++) {
+                final float value = cells[i * 4 + j];
+                cells[i * 4 + j] = cells[j * 4 + i];
+                cells[j * 4 + i] = value;
             }
         }
-        return new Matrix4f(transposed);
+        return this;
     }
 
     public float determinant() {
-        if (matrix.length != 4 || matrix[0].length != 4) {
-            throw new IllegalArgumentException("Предоставленная матрица должна быть матрицей 4 на 4.");
-        }
-
-        return matrix[0][0] * (matrix[1][1] * (matrix[2][2] * matrix[3][3] - matrix[2][3] * matrix[3][2])
-                - matrix[1][2] * (matrix[2][1] * matrix[3][3] - matrix[2][3] * matrix[3][1])
-                + matrix[1][3] * (matrix[2][1] * matrix[3][2] - matrix[2][2] * matrix[3][1]))
-                - matrix[0][1] * (matrix[1][0] * (matrix[2][2] * matrix[3][3] - matrix[2][3] * matrix[3][2])
-                - matrix[1][2] * (matrix[2][0] * matrix[3][3] - matrix[2][3] * matrix[3][0])
-                + matrix[1][3] * (matrix[2][0] * matrix[3][2] - matrix[2][2] * matrix[3][0]))
-                + matrix[0][2] * (matrix[1][0] * (matrix[2][1] * matrix[3][3] - matrix[2][3] * matrix[3][1])
-                - matrix[1][1] * (matrix[2][0] * matrix[3][3] - matrix[2][3] * matrix[3][0])
-                + matrix[1][3] * (matrix[2][0] * matrix[3][1] - matrix[2][1] * matrix[3][0]))
-                - matrix[0][3] * (matrix[1][0] * (matrix[2][1] * matrix[3][2] - matrix[2][2] * matrix[3][1])
-                - matrix[1][1] * (matrix[2][0] * matrix[3][2] - matrix[2][2] * matrix[3][0])
-                + matrix[1][2] * (matrix[2][0] * matrix[3][1] - matrix[2][1] * matrix[3][0]));
+        final float[] m = cells;
+        return m[0] * (m[5] * (m[10] * m[15] - m[11] * m[14])
+                - m[6] * (m[9] * m[15] - m[11] * m[13])
+                + m[7] * (m[9] * m[14] - m[10] * m[13]))
+                - m[1] * (m[4] * (m[10] * m[15] - m[11] * m[14])
+                - m[6] * (m[8] * m[15] - m[11] * m[12])
+                + m[7] * (m[8] * m[14] - m[10] * m[12]))
+                + m[2] * (m[4] * (m[9] * m[15] - m[11] * m[13])
+                - m[5] * (m[8] * m[15] - m[11] * m[12])
+                + m[7] * (m[8] * m[13] - m[9] * m[12]))
+                - m[3] * (m[4] * (m[9] * m[14] - m[10] * m[13])
+                - m[5] * (m[8] * m[14] - m[10] * m[12])
+                + m[6] * (m[8] * m[13] - m[9] * m[12]));
     }
 
     public boolean equalsAns(Matrix4f matrix4f) {
-        boolean flag = false;
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[0].length; j++) {
-                if (matrix[i][j] == matrix4f.getCell(i, j)) {
-                    flag = true;
-                } else return false;
+        for (int i = 0; i < 16; i++) {
+            if (cells[i] != matrix4f.cells[i]) {
+                return false;
             }
         }
-        return flag;
+        return true;
     }
-}
\ No newline at end of file
+}
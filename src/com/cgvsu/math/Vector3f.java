@@ -45,6 +45,12 @@ public class Vector3f {
 		return new Vector3f(x + v.getX(), y + v.getY(), z + v.getZ());
 	}
 
+	public void set(float x, float y, float z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
 	public void addVectorThis(Vector3f v) {
 		this.x += v.getX();
 		this.y += v.getY();
@@ -111,16 +117,7 @@ public class Vector3f {
 	}
 
 	public static Vector3f multiplyMatrix4ByVector3(Matrix4f matrix, Vector3f vertex) {
-		float x = matrix.getCell(0, 0) * vertex.getX() + matrix.getCell(0, 1) * vertex.getY()
-				+ matrix.getCell(0, 2) * vertex.getZ() + matrix.getCell(0, 3);
-		float y = matrix.getCell(1, 0) * vertex.getX() + matrix.getCell(1, 1) * vertex.getY()
-				+ matrix.getCell(1, 2) * vertex.getZ() + matrix.getCell(1, 3);
-		float z = matrix.getCell(2, 0) * vertex.getX() + matrix.getCell(2, 1) * vertex.getY()
-				+ matrix.getCell(2, 2) * vertex.getZ() + matrix.getCell(2, 3);
-		float w = matrix.getCell(3, 0) * vertex.getX() + matrix.getCell(3, 1) * vertex.getY()
-				+ matrix.getCell(3, 2) * vertex.getZ() + matrix.getCell(3, 3);
-
 		// Деление на W для преобразования в нормализованное устройство
-		return new Vector3f(x / w, y / w, z / w);
+		return matrix.transform(vertex, new Vector3f());
 	}
 }
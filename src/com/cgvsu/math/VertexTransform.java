@@ -0,0 +1,114 @@
+package com.cgvsu.math;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Преобразование всех вершин модели одной матрицей без создания объектов на каждую вершину.
+// Координаты лежат в массиве подряд (x, y, z, x, y, z, ...), как в PackedModel.getVertices().
+// С divideByW результат тот же, что у Matrix4f.multiplyVectorDivW для каждой вершины, без него - только первые три
+// строки матрицы (для аффинных матриц, у которых w всегда 1).
+// Цикл простой и без ветвлений внутри, чтобы JIT мог развернуть его и держать ячейки матрицы в регистрах
+public final class VertexTransform {
+
+    private static final int MIN_RANGE_SIZE = 64 * 1024;
+    private static final int RANGES_PER_THREAD = 4;
+
+    private VertexTransform() {
+    }
+
+    // dest может быть тем же массивом, что и src
+    public static void transform(Matrix4f matrix, float[] src, float[] dest, boolean divideByW) {
+        transform(matrix, src, 0, dest, 0, src.length / 3, divideByW);
+    }
+
+    // count вершин начиная с вершины srcOffset в src записываются начиная с вершины destOffset в dest.
+    // Смещения в вершинах, а не в числах. Если src и dest - один массив, смещения должны совпадать
+    public static void transform(Matrix4f matrix, float[] src, int srcOffset, float[] dest, int destOffset, int count, boolean divideByW) {
+        Objects.checkFromIndexSize(srcOffset * 3, count * 3, src.length);
+        Objects.checkFromIndexSize(destOffset * 3, count * 3, dest.length);
+        if (divideByW) {
+            transformDivW(matrix.getCells(), src, srcOffset * 3, dest, destOffset * 3, count * 3);
+        } else {
+            transformAffine(matrix.getCells(), src, srcOffset * 3, dest, destOffset * 3, count * 3);
+        }
+    }
+
+    // То же на потоках pool. Маленькие массивы преобразуются на текущем потоке: раздача задач обошлась бы дороже
+    public static void transform(Matrix4f matrix, float[] src, float[] dest, boolean divideByW, ForkJoinPool pool) {
+        transform(matrix, src, dest, divideByW, pool, MIN_RANGE_SIZE);
+    }
+
+    static void transform(Matrix4f matrix, float[] src, float[] dest, boolean divideByW, ForkJoinPool pool, int minRangeSize) {
+        final int verticesCount = src.length / 3;
+        Objects.checkFromIndexSize(0, verticesCount * 3, dest.length);
+        final int rangeSize = Math.max(minRangeSize, verticesCount / (pool.getParallelism() * RANGES_PER_THREAD));
+        if (rangeSize >= verticesCount) {
+            transform(matrix, src, 0, dest, 0, verticesCount, divideByW);
+            return;
+        }
+        // матрица копируется, чтобы ее изменение другим потоком не задело только часть вершин
+        final Matrix4f copy = new Matrix4f(matrix);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int from = 0; from < verticesCount; from += rangeSize) {
+            final int rangeFrom = from;
+            final int rangeCount = Math.min(verticesCount - from, rangeSize);
+            tasks.add(pool.submit(() -> transform(copy, src, rangeFrom, dest, rangeFrom, rangeCount, divideByW)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    // Вершины списка изменяются на месте, например Model.vertices
+    public static void transform(Matrix4f matrix, List<Vector3f> vertices, boolean divideByW) {
+        final float[] m = matrix.getCells();
+        for (Vector3f vertex : vertices) {
+            final float x = vertex.getX();
+            final float y = vertex.getY();
+            final float z = vertex.getZ();
+            if (divideByW) {
+                final float w = m[12] * x + m[13] * y + m[14] * z + m[15];
+                vertex.set((m[0] * x + m[1] * y + m[2] * z + m[3]) / w,
+                        (m[4] * x + m[5] * y + m[6] * z + m[7]) / w,
+                        (m[8] * x + m[9] * y + m[10] * z + m[11]) / w);
+            } else {
+                vertex.set(m[0] * x + m[1] * y + m[2] * z + m[3],
+                        m[4] * x + m[5] * y + m[6] * z + m[7],
+                        m[8] * x + m[9] * y + m[10] * z + m[11]);
+            }
+        }
+    }
+
+    private static void transformDivW(float[] m, float[] src, int srcFrom, float[] dest, int destFrom, int length) {
+        final float m00 = m[0], m01 = m[1], m02 = m[2], m03 = m[3];
+        final float m10 = m[4], m11 = m[5], m12 = m[6], m13 = m[7];
+        final float m20 = m[8], m21 = m[9], m22 = m[10], m23 = m[11];
+        final float m30 = m[12], m31 = m[13], m32 = m[14], m33 = m[15];
+        for (int i = 0; i < length; i += 3) {
+            final float x = src[srcFrom + i];
+            final float y = src[srcFrom + i + 1];
+            final float z = src[srcFrom + i + 2];
+            final float w = m30 * x + m31 * y + m32 * z + m33;
+            dest[destFrom + i] = (m00 * x + m01 * y + m02 * z + m03) / w;
+            dest[destFrom + i + 1] = (m10 * x + m11 * y + m12 * z + m13) / w;
+            dest[destFrom + i + 2] = (m20 * x + m21 * y + m22 * z + m23) / w;
+        }
+    }
+
+    private static void transformAffine(float[] m, float[] src, int srcFrom, float[] dest, int destFrom, int length) {
+        final float m00 = m[0], m01 = m[1], m02 = m[2], m03 = m[3];
+        final float m10 = m[4], m11 = m[5], m12 = m[6], m13 = m[7];
+        final float m20 = m[8], m21 = m[9], m22 = m[10], m23 = m[11];
+        for (int i = 0; i < length; i += 3) {
+            final float x = src[srcFrom + i];
+            final float y = src[srcFrom + i + 1];
+            final float z = src[srcFrom + i + 2];
+            dest[destFrom + i] = m00 * x + m01 * y + m02 * z + m03;
+            dest[destFrom + i + 1] = m10 * x + m11 * y + m12 * z + m13;
+            dest[destFrom + i + 2] = m20 * x + m21 * y + m22 * z + m23;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Matrix4f;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Габариты модели: выровненный по осям параллелепипед (AABB) и описанная сфера.
+// Для модели без вершин isEmpty() == true, минимум - +бесконечность, максимум - -бесконечность, радиус -1.
+//
+// of считает сферу с центром в центре AABB и радиусом до самой дальней вершины.
+// include и transform только расширяют имеющиеся габариты, поэтому после них сфера и AABB остаются
+// описанными, но могут быть больше минимальных; точные габариты снова дает of.
+// Объект не изменяется, поэтому его можно отдавать наружу из кэша модели (см. Model.getBounds)
+public final class Bounds {
+
+    public static final Bounds EMPTY = new Bounds(
+            Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+            Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+            0, 0, 0, -1);
+
+    private static final int MIN_RANGE_SIZE = 64 * 1024;
+    // запас радиуса после transform на ошибки округления
+    private static final double RADIUS_TOLERANCE = 1e-6;
+
+    private final float minX;
+    private final float minY;
+    private final float minZ;
+    private final float maxX;
+    private final float maxY;
+    private final float maxZ;
+    private final float centerX;
+    private final float centerY;
+    private final float centerZ;
+    private final float radius;
+
+    public Bounds(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                  float centerX, float centerY, float centerZ, float radius) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.radius = radius;
+    }
+
+    public static Bounds of(Mesh mesh) {
+        return of(mesh, 0, mesh.getVertexCount());
+    }
+
+    // Вершины с from по to (не включая)
+    public static Bounds of(Mesh mesh, int from, int to) {
+        if (from >= to) {
+            return EMPTY;
+        }
+        float[] box = newBox();
+        includeRange(box, mesh, from, to);
+        final float centerX = (box[0] + box[3]) / 2;
+        final float centerY = (box[1] + box[4]) / 2;
+        final float centerZ = (box[2] + box[5]) / 2;
+        final double radiusSquared = maxDistanceSquared(mesh, from, to, centerX, centerY, centerZ);
+        return new Bounds(box[0], box[1], box[2], box[3], box[4], box[5], centerX, centerY, centerZ, (float) Math.sqrt(radiusSquared));
+    }
+
+    // То же на потоках pool: AABB и радиус - два прохода по вершинам, каждый делится на диапазоны.
+    // Результат тот же, что и у последовательного of: минимум, максимум и наибольшее расстояние не зависят от порядка
+    public static Bounds of(Mesh mesh, ForkJoinPool pool) {
+        return of(mesh, pool, MIN_RANGE_SIZE);
+    }
+
+    static Bounds of(Mesh mesh, ForkJoinPool pool, int minRangeSize) {
+        final int verticesCount = mesh.getVertexCount();
+        if (ParallelRanges.rangeSize(pool, verticesCount, minRangeSize) >= verticesCount) {
+            return of(mesh);
+        }
+
+        List<float[]> boxes = ParallelRanges.map(pool, verticesCount, minRangeSize, (from, to) -> {
+            float[] box = newBox();
+            includeRange(box, mesh, from, to);
+            return box;
+        });
+        float[] box = newBox();
+        for (float[] rangeBox : boxes) {
+            includeBox(box, rangeBox);
+        }
+
+        final float centerX = (box[0] + box[3]) / 2;
+        final float centerY = (box[1] + box[4]) / 2;
+        final float centerZ = (box[2] + box[5]) / 2;
+        List<Double> distances = ParallelRanges.map(pool, verticesCount, minRangeSize,
+                (from, to) -> maxDistanceSquared(mesh, from, to, centerX, centerY, centerZ));
+        double radiusSquared = 0;
+        for (double distance : distances) {
+            radiusSquared = Math.max(radiusSquared, distance);
+        }
+        return new Bounds(box[0], box[1], box[2], box[3], box[4], box[5], centerX, centerY, centerZ, (float) Math.sqrt(radiusSquared));
+    }
+
+    public boolean isEmpty() {
+        return radius < 0;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMinZ() {
+        return minZ;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    public float getMaxZ() {
+        return maxZ;
+    }
+
+    public float getCenterX() {
+        return centerX;
+    }
+
+    public float getCenterY() {
+        return centerY;
+    }
+
+    public float getCenterZ() {
+        return centerZ;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    // Габариты, в которые добавлены вершины mesh с from по to (не включая), без прохода по остальным вершинам.
+    // Сфера расширяется на каждую вершину вне ее так, чтобы задеть эту вершину и не потерять старую сферу
+    public Bounds include(Mesh mesh, int from, int to) {
+        if (isEmpty()) {
+            return of(mesh, from, to);
+        }
+        float[] box = {minX, minY, minZ, maxX, maxY, maxZ};
+        includeRange(box, mesh, from, to);
+        double x = centerX;
+        double y = centerY;
+        double z = centerZ;
+        double r = radius;
+        for (int i = from; i < to; i++) {
+            final double dx = mesh.getVertexX(i) - x;
+            final double dy = mesh.getVertexY(i) - y;
+            final double dz = mesh.getVertexZ(i) - z;
+            final double distanceSquared = dx * dx + dy * dy + dz * dz;
+            if (distanceSquared > r * r) {
+                final double distance = Math.sqrt(distanceSquared);
+                final double newRadius = (r + distance) / 2;
+                final double shift = (newRadius - r) / distance;
+                x += dx * shift;
+                y += dy * shift;
+                z += dz * shift;
+                r = newRadius;
+            }
+        }
+        // центр, округленный до float, может сдвинуться - запас на это
+        return new Bounds(box[0], box[1], box[2], box[3], box[4], box[5],
+                (float) x, (float) y, (float) z, (float) (r * (1 + RADIUS_TOLERANCE)));
+    }
+
+    // Габариты после аффинного преобразования matrix (последняя строка 0 0 0 1), без прохода по вершинам.
+    // AABB - по преобразованным границам (метод Арво), радиус сферы умножается на наибольшее растяжение матрицы
+    public Bounds transform(Matrix4f matrix) {
+        final float[] m = matrix.getCells();
+        if (m[12] != 0 || m[13] != 0 || m[14] != 0 || m[15] != 1) {
+            throw new IllegalArgumentException("Bounds can only be transformed by an affine matrix.");
+        }
+        if (isEmpty()) {
+            return this;
+        }
+        final float[] min = {minX, minY, minZ};
+        final float[] max = {maxX, maxY, maxZ};
+        float[] box = new float[6];
+        for (int row = 0; row < 3; row++) {
+            float low = m[row * 4 + 3];
+            float high = low;
+            for (int col = 0; col < 3; col++) {
+                final float a = m[row * 4 + col] * min[col];
+                final float b = m[row * 4 + col] * max[col];
+                low += Math.min(a, b);
+                high += Math.max(a, b);
+            }
+            box[row] = low;
+            box[row + 3] = high;
+        }
+        final float x = centerX;
+        final float y = centerY;
+        final float z = centerZ;
+        return new Bounds(box[0], box[1], box[2], box[3], box[4], box[5],
+                m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11],
+                (float) (radius * maxStretch(m) * (1 + RADIUS_TOLERANCE)));
+    }
+
+    @Override
+    public String toString() {
+        return "Bounds{min=(" + minX + ", " + minY + ", " + minZ + "), max=(" + maxX + ", " + maxY + ", " + maxZ
+                + "), center=(" + centerX + ", " + centerY + ", " + centerZ + "), radius=" + radius + '}';
+    }
+
+    private static float[] newBox() {
+        return new float[]{Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+                Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+    }
+
+    private static void includeRange(float[] box, Mesh mesh, int from, int to) {
+        float minX = box[0], minY = box[1], minZ = box[2];
+        float maxX = box[3], maxY = box[4], maxZ = box[5];
+        for (int i = from; i < to; i++) {
+            final float x = mesh.getVertexX(i);
+            final float y = mesh.getVertexY(i);
+            final float z = mesh.getVertexZ(i);
+            if (x < minX) {
+                minX = x;
+            }
+            if (x > maxX) {
+                maxX = x;
+            }
+            if (y < minY) {
+                minY = y;
+            }
+            if (y > maxY) {
+                maxY = y;
+            }
+            if (z < minZ) {
+                minZ = z;
+            }
+            if (z > maxZ) {
+                maxZ = z;
+            }
+        }
+        box[0] = minX;
+        box[1] = minY;
+        box[2] = minZ;
+        box[3] = maxX;
+        box[4] = maxY;
+        box[5] = maxZ;
+    }
+
+    private static void includeBox(float[] box, float[] other) {
+        for (int axis = 0; axis < 3; axis++) {
+            box[axis] = Math.min(box[axis], other[axis]);
+            box[axis + 3] = Math.max(box[axis + 3], other[axis + 3]);
+        }
+    }
+
+    private static double maxDistanceSquared(Mesh mesh, int from, int to, float centerX, float centerY, float centerZ) {
+        double result = 0;
+        for (int i = from; i < to; i++) {
+            final double dx = mesh.getVertexX(i) - centerX;
+            final double dy = mesh.getVertexY(i) - centerY;
+            final double dz = mesh.getVertexZ(i) - centerZ;
+            result = Math.max(result, dx * dx + dy * dy + dz * dz);
+        }
+        return result;
+    }
+
+    // Наибольшее растяжение левой верхней 3x3 части матрицы (спектральная норма) - корень из наибольшего
+    // собственного значения симметричной матрицы A^T * A, найденного по формуле для кубического уравнения
+    private static double maxStretch(float[] m) {
+        double[] a = new double[9];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                double sum = 0;
+                for (int k = 0; k < 3; k++) {
+                    sum += (double) m[k * 4 + row] * m[k * 4 + col];
+                }
+                a[row * 3 + col] = sum;
+            }
+        }
+        final double offDiagonal = a[1] * a[1] + a[2] * a[2] + a[5] * a[5];
+        final double trace = (a[0] + a[4] + a[8]) / 3;
+        if (offDiagonal == 0) {
+            return Math.sqrt(Math.max(a[0], Math.max(a[4], a[8])));
+        }
+        final double d0 = a[0] - trace;
+        final double d1 = a[4] - trace;
+        final double d2 = a[8] - trace;
+        final double p = Math.sqrt((d0 * d0 + d1 * d1 + d2 * d2 + 2 * offDiagonal) / 6);
+        // det((A - trace * E) / p) / 2
+        final double halfDeterminant = (d0 * (d1 * d2 - a[5] * a[5])
+                - a[1] * (a[1] * d2 - a[5] * a[2])
+                + a[2] * (a[1] * a[5] - d1 * a[2])) / (2 * p * p * p);
+        final double angle = Math.acos(Math.max(-1, Math.min(1, halfDeterminant))) / 3;
+        return Math.sqrt(Math.max(0, trace + 2 * p * Math.cos(angle)));
+    }
+}
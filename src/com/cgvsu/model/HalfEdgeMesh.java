@@ -0,0 +1,391 @@
+package com.cgvsu.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Смежность модели в виде полуребер. Полуребро - сторона полигона от угла к следующему углу;
+// полуребра полигона p имеют номера с getPolygonHalfEdge(p) подряд, в порядке углов полигона.
+// Ребро - неупорядоченная пара вершин; все полуребра между одними и теми же вершинами относятся к одному ребру.
+//
+// У ребра из одного полуребра это полуребро граничное. У ребра из двух встречных полуребер они друг другу
+// twin. Два полуребра в одну сторону значат, что соседние полигоны обходятся в разные стороны
+// (getInconsistentEdges), а три и больше полуребер - неманифолдное ребро (getNonManifoldEdges).
+// У полуребер таких ребер twin нет, -1. Полуребро из вершины в нее же (повтор вершины в полигоне) ни к какому
+// ребру не относится.
+//
+// Строится за линейное время: ребра ищутся в хэш-таблице с ключом из пары вершин, упакованной в long,
+// а списки полуребер ребер, соседей вершин и граничных полуребер вершин раскладываются подсчетом в плоские массивы.
+// Все запросы - чтение массивов за O(1)
+public final class HalfEdgeMesh {
+
+    private final int[] polygonOffsets;
+    // по полуребру: начальная вершина, следующее полуребро полигона, полигон, встречное полуребро, ребро
+    private final int[] origins;
+    private final int[] nextHalfEdges;
+    private final int[] polygons;
+    private final int[] twins;
+    private final int[] edges;
+    // полуребра ребра e - edgeHalfEdges[edgeHalfEdgeOffsets[e]] ... edgeHalfEdges[edgeHalfEdgeOffsets[e + 1] - 1]
+    private final int[] edgeHalfEdgeOffsets;
+    private final int[] edgeHalfEdges;
+    // по вершине: исходящее полуребро, граничное, если такое есть; -1 у вершин вне полигонов
+    private final int[] vertexHalfEdges;
+    // соседи вершины v - neighbors[neighborOffsets[v]] ... neighbors[neighborOffsets[v + 1] - 1]
+    private final int[] neighborOffsets;
+    private final int[] neighbors;
+    private final int[] nonManifoldEdges;
+    private final int[] inconsistentEdges;
+    private final List<int[]> boundaryLoops;
+
+    private HalfEdgeMesh(Builder builder) {
+        this.polygonOffsets = builder.polygonOffsets;
+        this.origins = builder.origins;
+        this.nextHalfEdges = builder.nextHalfEdges;
+        this.polygons = builder.polygons;
+        this.twins = builder.twins;
+        this.edges = builder.edges;
+        this.edgeHalfEdgeOffsets = builder.edgeHalfEdgeOffsets;
+        this.edgeHalfEdges = builder.edgeHalfEdges;
+        this.vertexHalfEdges = builder.vertexHalfEdges;
+        this.neighborOffsets = builder.neighborOffsets;
+        this.neighbors = builder.neighbors;
+        this.nonManifoldEdges = builder.nonManifoldEdges;
+        this.inconsistentEdges = builder.inconsistentEdges;
+        this.boundaryLoops = Collections.unmodifiableList(builder.boundaryLoops);
+    }
+
+    public static HalfEdgeMesh build(Mesh mesh) {
+        Builder builder = new Builder(mesh);
+        builder.collectHalfEdges();
+        builder.collectEdges();
+        builder.linkTwins();
+        builder.collectNeighbors();
+        builder.collectBoundaryLoops();
+        return new HalfEdgeMesh(builder);
+    }
+
+    public int getVertexCount() {
+        return vertexHalfEdges.length;
+    }
+
+    public int getPolygonCount() {
+        return polygonOffsets.length - 1;
+    }
+
+    public int getHalfEdgeCount() {
+        return origins.length;
+    }
+
+    public int getEdgeCount() {
+        return edgeHalfEdgeOffsets.length - 1;
+    }
+
+    public int getPolygonHalfEdge(int polygon) {
+        return polygonOffsets[polygon];
+    }
+
+    public int getOrigin(int halfEdge) {
+        return origins[halfEdge];
+    }
+
+    public int getTarget(int halfEdge) {
+        return origins[nextHalfEdges[halfEdge]];
+    }
+
+    public int getNext(int halfEdge) {
+        return nextHalfEdges[halfEdge];
+    }
+
+    public int getPrevious(int halfEdge) {
+        final int polygon = polygons[halfEdge];
+        return halfEdge == polygonOffsets[polygon] ? polygonOffsets[polygon + 1] - 1 : halfEdge - 1;
+    }
+
+    public int getPolygon(int halfEdge) {
+        return polygons[halfEdge];
+    }
+
+    // Встречное полуребро соседнего полигона или -1
+    public int getTwin(int halfEdge) {
+        return twins[halfEdge];
+    }
+
+    // Ребро полуребра или -1 для полуребра из вершины в нее же
+    public int getEdge(int halfEdge) {
+        return edges[halfEdge];
+    }
+
+    public boolean isBoundary(int halfEdge) {
+        final int edge = edges[halfEdge];
+        return edge >= 0 && getEdgeHalfEdgeCount(edge) == 1;
+    }
+
+    public int getEdgeHalfEdgeCount(int edge) {
+        return edgeHalfEdgeOffsets[edge + 1] - edgeHalfEdgeOffsets[edge];
+    }
+
+    public int getEdgeHalfEdge(int edge, int index) {
+        return edgeHalfEdges[edgeHalfEdgeOffsets[edge] + index];
+    }
+
+    // Исходящее из вершины полуребро (граничное, если такое есть) или -1.
+    // На манифолдной вершине обход getTwin(getPrevious(h)) от него проходит все полигоны вокруг вершины
+    public int getVertexHalfEdge(int vertex) {
+        return vertexHalfEdges[vertex];
+    }
+
+    // Соседи вершины - вершины, с которыми она соединена ребром; считаются и для неманифолдных вершин
+    public int getNeighborCount(int vertex) {
+        return neighborOffsets[vertex + 1] - neighborOffsets[vertex];
+    }
+
+    public int getNeighbor(int vertex, int index) {
+        return neighbors[neighborOffsets[vertex] + index];
+    }
+
+    public boolean isManifold() {
+        return nonManifoldEdges.length == 0;
+    }
+
+    public boolean isConsistentlyOriented() {
+        return inconsistentEdges.length == 0;
+    }
+
+    public boolean isClosed() {
+        return boundaryLoops.isEmpty();
+    }
+
+    // Массивы отдаются без копирования, изменять их нельзя
+    public int[] getNonManifoldEdges() {
+        return nonManifoldEdges;
+    }
+
+    public int[] getInconsistentEdges() {
+        return inconsistentEdges;
+    }
+
+    // Границы - вершины по порядку обхода граничных полуребер (в ту же сторону, что и их полигоны).
+    // Если граница проходит через вершину с несколькими граничными полуребрами, в ней выбирается первое еще
+    // не пройденное. Граница, разорванная неманифолдным или несогласованным ребром, попадает в список цепочкой,
+    // которая не возвращается в начало; ее последняя вершина тоже в списке
+    public List<int[]> getBoundaryLoops() {
+        return boundaryLoops;
+    }
+
+    private static final class Builder {
+        private final Mesh mesh;
+        private int[] polygonOffsets;
+        private int[] origins;
+        private int[] nextHalfEdges;
+        private int[] polygons;
+        private int[] twins;
+        private int[] edges;
+        private int edgesCount;
+        private int[] edgeHalfEdgeOffsets;
+        private int[] edgeHalfEdges;
+        private int[] vertexHalfEdges;
+        private int[] neighborOffsets;
+        private int[] neighbors;
+        private int[] nonManifoldEdges;
+        private int[] inconsistentEdges;
+        private final List<int[]> boundaryLoops = new ArrayList<>();
+
+        Builder(Mesh mesh) {
+            this.mesh = mesh;
+        }
+
+        void collectHalfEdges() {
+            final int polygonsCount = mesh.getPolygonCount();
+            polygonOffsets = new int[polygonsCount + 1];
+            for (int polygon = 0; polygon < polygonsCount; polygon++) {
+                polygonOffsets[polygon + 1] = polygonOffsets[polygon] + mesh.getPolygonVertexCount(polygon);
+            }
+            final int halfEdgesCount = polygonOffsets[polygonsCount];
+            origins = new int[halfEdgesCount];
+            nextHalfEdges = new int[halfEdgesCount];
+            polygons = new int[halfEdgesCount];
+            for (int polygon = 0; polygon < polygonsCount; polygon++) {
+                final int first = polygonOffsets[polygon];
+                final int count = polygonOffsets[polygon + 1] - first;
+                for (int i = 0; i < count; i++) {
+                    origins[first + i] = mesh.getPolygonVertexIndex(polygon, i);
+                    nextHalfEdges[first + i] = i + 1 < count ? first + i + 1 : first;
+                    polygons[first + i] = polygon;
+                }
+            }
+        }
+
+        void collectEdges() {
+            final int halfEdgesCount = origins.length;
+            edges = new int[halfEdgesCount];
+            // пара вершин ребра (меньшая, большая) -> номер ребра
+            LongIntMap table = new LongIntMap(halfEdgesCount);
+            int[] counts = new int[halfEdgesCount + 1];
+            for (int halfEdge = 0; halfEdge < halfEdgesCount; halfEdge++) {
+                final int origin = origins[halfEdge];
+                final int target = origins[nextHalfEdges[halfEdge]];
+                if (origin == target) {
+                    edges[halfEdge] = -1;
+                    continue;
+                }
+                final long key = ((long) Math.min(origin, target) << 32) | Math.max(origin, target);
+                final int edge = table.getOrAdd(key, edgesCount);
+                if (edge == edgesCount) {
+                    ++edgesCount;
+                }
+                edges[halfEdge] = edge;
+                ++counts[edge + 1];
+            }
+
+            edgeHalfEdgeOffsets = new int[edgesCount + 1];
+            for (int edge = 0; edge < edgesCount; edge++) {
+                edgeHalfEdgeOffsets[edge + 1] = edgeHalfEdgeOffsets[edge] + counts[edge + 1];
+            }
+            edgeHalfEdges = new int[edgeHalfEdgeOffsets[edgesCount]];
+            int[] positions = Arrays.copyOf(edgeHalfEdgeOffsets, edgesCount);
+            for (int halfEdge = 0; halfEdge < halfEdgesCount; halfEdge++) {
+                final int edge = edges[halfEdge];
+                if (edge >= 0) {
+                    edgeHalfEdges[positions[edge]++] = halfEdge;
+                }
+            }
+        }
+
+        void linkTwins() {
+            twins = new int[origins.length];
+            Arrays.fill(twins, -1);
+            int[] nonManifold = new int[edgesCount];
+            int nonManifoldCount = 0;
+            int[] inconsistent = new int[edgesCount];
+            int inconsistentCount = 0;
+            for (int edge = 0; edge < edgesCount; edge++) {
+                final int first = edgeHalfEdgeOffsets[edge];
+                final int count = edgeHalfEdgeOffsets[edge + 1] - first;
+                if (count > 2) {
+                    nonManifold[nonManifoldCount++] = edge;
+                } else if (count == 2) {
+                    final int a = edgeHalfEdges[first];
+                    final int b = edgeHalfEdges[first + 1];
+                    if (origins[a] == origins[b]) {
+                        inconsistent[inconsistentCount++] = edge;
+                    } else {
+                        twins[a] = b;
+                        twins[b] = a;
+                    }
+                }
+            }
+            nonManifoldEdges = Arrays.copyOf(nonManifold, nonManifoldCount);
+            inconsistentEdges = Arrays.copyOf(inconsistent, inconsistentCount);
+
+            vertexHalfEdges = new int[mesh.getVertexCount()];
+            Arrays.fill(vertexHalfEdges, -1);
+            for (int halfEdge = 0; halfEdge < origins.length; halfEdge++) {
+                final int vertex = origins[halfEdge];
+                final int current = vertexHalfEdges[vertex];
+                if (current < 0 || (isBoundary(halfEdge) && !isBoundary(current))) {
+                    vertexHalfEdges[vertex] = halfEdge;
+                }
+            }
+        }
+
+        private boolean isBoundary(int halfEdge) {
+            final int edge = edges[halfEdge];
+            return edge >= 0 && edgeHalfEdgeOffsets[edge + 1] - edgeHalfEdgeOffsets[edge] == 1;
+        }
+
+        void collectNeighbors() {
+            final int verticesCount = vertexHalfEdges.length;
+            neighborOffsets = new int[verticesCount + 1];
+            for (int edge = 0; edge < edgesCount; edge++) {
+                final int halfEdge = edgeHalfEdges[edgeHalfEdgeOffsets[edge]];
+                ++neighborOffsets[origins[halfEdge] + 1];
+                ++neighborOffsets[origins[nextHalfEdges[halfEdge]] + 1];
+            }
+            for (int vertex = 0; vertex < verticesCount; vertex++) {
+                neighborOffsets[vertex + 1] += neighborOffsets[vertex];
+            }
+            neighbors = new int[neighborOffsets[verticesCount]];
+            int[] positions = Arrays.copyOf(neighborOffsets, verticesCount);
+            for (int edge = 0; edge < edgesCount; edge++) {
+                final int halfEdge = edgeHalfEdges[edgeHalfEdgeOffsets[edge]];
+                final int origin = origins[halfEdge];
+                final int target = origins[nextHalfEdges[halfEdge]];
+                neighbors[positions[origin]++] = target;
+                neighbors[positions[target]++] = origin;
+            }
+        }
+
+        void collectBoundaryLoops() {
+            final int verticesCount = vertexHalfEdges.length;
+            // граничные полуребра по начальным вершинам
+            int[] offsets = new int[verticesCount + 1];
+            for (int halfEdge = 0; halfEdge < origins.length; halfEdge++) {
+                if (isBoundary(halfEdge)) {
+                    ++offsets[origins[halfEdge] + 1];
+                }
+            }
+            for (int vertex = 0; vertex < verticesCount; vertex++) {
+                offsets[vertex + 1] += offsets[vertex];
+            }
+            final int boundaryCount = offsets[verticesCount];
+            if (boundaryCount == 0) {
+                return;
+            }
+            int[] outgoing = new int[boundaryCount];
+            // cursors[v] - первое, возможно, еще не пройденное граничное полуребро вершины v
+            int[] cursors = Arrays.copyOf(offsets, verticesCount);
+            for (int halfEdge = 0; halfEdge < origins.length; halfEdge++) {
+                if (isBoundary(halfEdge)) {
+                    outgoing[cursors[origins[halfEdge]]++] = halfEdge;
+                }
+            }
+            System.arraycopy(offsets, 0, cursors, 0, verticesCount);
+
+            // сначала цепочки из вершин, где граничных полуребер выходит больше, чем входит, - начала разорванных
+            // границ, чтобы каждая разорванная граница была одной цепочкой, а не кусками; потом замкнутые границы
+            int[] excess = new int[verticesCount];
+            for (int i = 0; i < boundaryCount; i++) {
+                ++excess[origins[outgoing[i]]];
+                --excess[origins[nextHalfEdges[outgoing[i]]]];
+            }
+            boolean[] visited = new boolean[origins.length];
+            int[] loop = new int[boundaryCount + 1];
+            for (int pass = 0; pass < 2; pass++) {
+                for (int start = 0; start < boundaryCount; start++) {
+                    if (pass == 0 && excess[origins[outgoing[start]]] <= 0) {
+                        continue;
+                    }
+                    int halfEdge = outgoing[start];
+                    int loopSize = 0;
+                    int target = -1;
+                    while (halfEdge >= 0 && !visited[halfEdge]) {
+                        visited[halfEdge] = true;
+                        loop[loopSize++] = origins[halfEdge];
+                        target = origins[nextHalfEdges[halfEdge]];
+                        halfEdge = nextBoundary(target, outgoing, offsets, cursors, visited);
+                    }
+                    if (loopSize > 0) {
+                        // у цепочки, которая не вернулась в начало, в конце еще и ее последняя вершина
+                        if (target != loop[0]) {
+                            loop[loopSize++] = target;
+                        }
+                        boundaryLoops.add(Arrays.copyOf(loop, loopSize));
+                    }
+                }
+            }
+        }
+
+        // Первое еще не пройденное граничное полуребро из vertex или -1
+        private static int nextBoundary(int vertex, int[] outgoing, int[] offsets, int[] cursors, boolean[] visited) {
+            for (; cursors[vertex] < offsets[vertex + 1]; ++cursors[vertex]) {
+                final int candidate = outgoing[cursors[vertex]];
+                if (!visited[candidate]) {
+                    return candidate;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.cgvsu.model;
+
+import java.util.Arrays;
+
+// Хэш-таблица long -> int с открытой адресацией и линейным пробированием, без объектов на каждый элемент.
+// Значения неотрицательные, -1 означает "нет значения". Таблица растет, когда заполнена наполовину,
+// поэтому при expectedSize не меньше кол-ва ключей она не перестраивается
+final class LongIntMap {
+
+    static final int NO_VALUE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, expectedSize) * 2 - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NO_VALUE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        return values[slot(key)];
+    }
+
+    // Записывает value и возвращает прежнее значение (NO_VALUE, если ключа не было)
+    int put(long key, int value) {
+        final int slot = slot(key);
+        final int previous = values[slot];
+        if (previous == NO_VALUE) {
+            add(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+        return previous;
+    }
+
+    // Значение ключа; если ключа еще нет, он добавляется со значением newValue
+    int getOrAdd(long key, int newValue) {
+        final int slot = slot(key);
+        if (values[slot] != NO_VALUE) {
+            return values[slot];
+        }
+        add(slot, key, newValue);
+        return newValue;
+    }
+
+    // Ячейка с этим ключом или пустая ячейка, в которую он попадет
+    private int slot(long key) {
+        final int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != NO_VALUE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void add(int slot, long key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > values.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(oldValues.length * 2);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                final int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Перемешивание из MurmurHash3: от каждого бита ключа зависят младшие биты, по которым выбирается ячейка
+    private static int hash(long key) {
+        long h = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
@@ -0,0 +1,42 @@
+package com.cgvsu.model;
+
+// Доступ только на чтение к геометрии модели независимо от того, как она хранится.
+// Индексы вершин, текстурных вершин и нормалей в полигонах начинаются с нуля, как и в Polygon.
+public interface Mesh {
+
+    int getVertexCount();
+
+    float getVertexX(int index);
+
+    float getVertexY(int index);
+
+    float getVertexZ(int index);
+
+    int getTextureVertexCount();
+
+    float getTextureVertexX(int index);
+
+    float getTextureVertexY(int index);
+
+    int getNormalCount();
+
+    float getNormalX(int index);
+
+    float getNormalY(int index);
+
+    float getNormalZ(int index);
+
+    int getPolygonCount();
+
+    int getPolygonVertexCount(int polygon);
+
+    int getPolygonVertexIndex(int polygon, int index);
+
+    int getPolygonTextureVertexCount(int polygon);
+
+    int getPolygonTextureVertexIndex(int polygon, int index);
+
+    int getPolygonNormalCount(int polygon);
+
+    int getPolygonNormalIndex(int polygon, int index);
+}
@@ -0,0 +1,14 @@
+package com.cgvsu.model;
+
+// Построитель модели, в который элементы добавляются по одному (например, при чтении файла).
+// Индексы в addPolygon начинаются с нуля.
+public interface MeshBuilder {
+
+    void addVertex(float x, float y, float z);
+
+    void addTextureVertex(float u, float v);
+
+    void addNormal(float x, float y, float z);
+
+    void addPolygon(int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices);
+}
@@ -0,0 +1,563 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Иерархия ограничивающих объемов (BVH) над треугольниками модели - для пересечения лучей с моделью
+// и выбора полигона под курсором без перебора всех полигонов.
+//
+// Модель разбивается на треугольники Triangulator. Дерево строится сверху вниз: треугольники узла делятся
+// по центрам на корзины вдоль каждой оси, и из границ между корзинами выбирается та, при которой меньше
+// оценка стоимости обхода по площадям поверхностей (SAH). Большие поддеревья строятся на потоках пула.
+//
+// Готовое дерево хранится в плоских массивах в порядке обхода в глубину: левый потомок узла i - узел i + 1.
+// Координаты треугольников лежат подряд в порядке листьев, чтобы лист читал память одним куском.
+// Треугольники пересекаются с обеих сторон - для выбора полигона лицевая сторона не важна
+public final class MeshBvh {
+
+    private static final int BINS_COUNT = 12;
+    private static final int MAX_LEAF_SIZE = 4;
+    // лист больше не делается, даже если по SAH разбиение дороже листа
+    private static final int MAX_FORCED_LEAF_SIZE = 16;
+    private static final int PARALLEL_BUILD_SIZE = 32 * 1024;
+
+    private final TriangleMesh triangleMesh;
+    // по 9 координат (три угла) на треугольник, в порядке листьев
+    private final float[] triangles;
+    // номер треугольника в triangleMesh для треугольника в порядке листьев
+    private final int[] triangleIndices;
+    // по 6 чисел на узел: minX minY minZ maxX maxY maxZ
+    private final float[] nodeBounds;
+    // по 2 числа на узел: у листа - первый треугольник и кол-во треугольников,
+    // у внутреннего узла - номер правого потомка и 0
+    private final int[] nodes;
+
+    private MeshBvh(TriangleMesh triangleMesh, float[] triangles, int[] triangleIndices, float[] nodeBounds, int[] nodes) {
+        this.triangleMesh = triangleMesh;
+        this.triangles = triangles;
+        this.triangleIndices = triangleIndices;
+        this.nodeBounds = nodeBounds;
+        this.nodes = nodes;
+    }
+
+    public static MeshBvh build(Mesh mesh) {
+        return build(mesh, Triangulator.triangulate(mesh), null, PARALLEL_BUILD_SIZE);
+    }
+
+    public static MeshBvh build(Mesh mesh, ForkJoinPool pool) {
+        return build(mesh, Triangulator.triangulate(mesh, pool), pool, PARALLEL_BUILD_SIZE);
+    }
+
+    static MeshBvh build(Mesh mesh, TriangleMesh triangleMesh, ForkJoinPool pool, int parallelBuildSize) {
+        final int trianglesCount = triangleMesh.getTriangleCount();
+        final int[] vertexIndices = triangleMesh.getVertexIndices();
+        float[] coordinates = new float[trianglesCount * 9];
+        for (int i = 0; i < trianglesCount * 3; i++) {
+            final int vertex = vertexIndices[i];
+            coordinates[i * 3] = mesh.getVertexX(vertex);
+            coordinates[i * 3 + 1] = mesh.getVertexY(vertex);
+            coordinates[i * 3 + 2] = mesh.getVertexZ(vertex);
+        }
+
+        Builder builder = new Builder(coordinates, trianglesCount);
+        BuildNode root;
+        if (trianglesCount == 0) {
+            root = new BuildNode(new float[]{0, 0, 0, 0, 0, 0}, 0, 0);
+        } else if (pool == null || trianglesCount <= parallelBuildSize) {
+            root = builder.build(0, trianglesCount);
+        } else {
+            root = pool.invoke(new BuildTask(builder, 0, trianglesCount, parallelBuildSize));
+        }
+
+        int[] order = builder.order;
+        float[] triangles = new float[trianglesCount * 9];
+        for (int i = 0; i < trianglesCount; i++) {
+            System.arraycopy(coordinates, order[i] * 9, triangles, i * 9, 9);
+        }
+        Flattener flattener = new Flattener(root.countNodes());
+        flattener.add(root);
+        return new MeshBvh(triangleMesh, triangles, order, flattener.bounds, flattener.nodes);
+    }
+
+    public TriangleMesh getTriangleMesh() {
+        return triangleMesh;
+    }
+
+    public int getNodeCount() {
+        return nodes.length / 2;
+    }
+
+    // Ближайшее пересечение луча или null
+    public RayHit intersect(Vector3f origin, Vector3f direction) {
+        RayHit result = new RayHit();
+        return intersect(origin, direction, Float.POSITIVE_INFINITY, result) ? result : null;
+    }
+
+    // Ближайшее пересечение луча не дальше maxDistance (в длинах direction) записывается в result.
+    // false, если пересечения нет; тогда result не меняется
+    public boolean intersect(Vector3f origin, Vector3f direction, float maxDistance, RayHit result) {
+        final float originX = origin.getX();
+        final float originY = origin.getY();
+        final float originZ = origin.getZ();
+        final float directionX = direction.getX();
+        final float directionY = direction.getY();
+        final float directionZ = direction.getZ();
+        final float inverseX = 1 / directionX;
+        final float inverseY = 1 / directionY;
+        final float inverseZ = 1 / directionZ;
+
+        float nearest = maxDistance;
+        int nearestTriangle = -1;
+        float nearestU = 0;
+        float nearestV = 0;
+        final float[] hit = new float[3];
+        int[] stack = new int[64];
+        int stackSize = 0;
+        int node = 0;
+        if (triangles.length == 0) {
+            return false;
+        }
+        if (entryDistance(0, originX, originY, originZ, inverseX, inverseY, inverseZ, nearest) < 0) {
+            return false;
+        }
+        while (true) {
+            final int count = nodes[node * 2 + 1];
+            if (count > 0) {
+                final int first = nodes[node * 2];
+                for (int i = first; i < first + count; i++) {
+                    if (intersectTriangle(triangles, i, originX, originY, originZ, directionX, directionY, directionZ, nearest, hit)) {
+                        nearest = hit[0];
+                        nearestU = hit[1];
+                        nearestV = hit[2];
+                        nearestTriangle = i;
+                    }
+                }
+            } else {
+                // сначала ближний потомок: найденное в нем пересечение может отсечь дальний
+                int near = node + 1;
+                int far = nodes[node * 2];
+                float nearDistance = entryDistance(near, originX, originY, originZ, inverseX, inverseY, inverseZ, nearest);
+                float farDistance = entryDistance(far, originX, originY, originZ, inverseX, inverseY, inverseZ, nearest);
+                if (farDistance >= 0 && (nearDistance < 0 || farDistance < nearDistance)) {
+                    final int swap = near;
+                    near = far;
+                    far = swap;
+                    final float swapDistance = nearDistance;
+                    nearDistance = farDistance;
+                    farDistance = swapDistance;
+                }
+                if (nearDistance >= 0) {
+                    if (farDistance >= 0) {
+                        if (stackSize == stack.length) {
+                            stack = Arrays.copyOf(stack, stackSize * 2);
+                        }
+                        stack[stackSize++] = far;
+                    }
+                    node = near;
+                    continue;
+                }
+            }
+            // отложенный узел мог оказаться дальше найденного с тех пор пересечения
+            do {
+                node = stackSize == 0 ? -1 : stack[--stackSize];
+            } while (node >= 0 && entryDistance(node, originX, originY, originZ, inverseX, inverseY, inverseZ, nearest) < 0);
+            if (node < 0) {
+                break;
+            }
+        }
+
+        if (nearestTriangle < 0) {
+            return false;
+        }
+        final int triangleIndex = triangleIndices[nearestTriangle];
+        result.set(nearest, triangleIndex, triangleMesh.getPolygonIndex(triangleIndex), nearestU, nearestV);
+        return true;
+    }
+
+    // Есть ли хоть одно пересечение не дальше maxDistance - например, для проверки тени.
+    // Дешевле intersect: обход заканчивается на первом найденном треугольнике
+    public boolean intersectsAny(Vector3f origin, Vector3f direction, float maxDistance) {
+        final float originX = origin.getX();
+        final float originY = origin.getY();
+        final float originZ = origin.getZ();
+        final float directionX = direction.getX();
+        final float directionY = direction.getY();
+        final float directionZ = direction.getZ();
+        final float inverseX = 1 / directionX;
+        final float inverseY = 1 / directionY;
+        final float inverseZ = 1 / directionZ;
+
+        final float[] hit = new float[3];
+        int[] stack = new int[64];
+        int stackSize = 0;
+        if (triangles.length == 0) {
+            return false;
+        }
+        stack[stackSize++] = 0;
+        while (stackSize > 0) {
+            final int node = stack[--stackSize];
+            if (entryDistance(node, originX, originY, originZ, inverseX, inverseY, inverseZ, maxDistance) < 0) {
+                continue;
+            }
+            final int count = nodes[node * 2 + 1];
+            if (count > 0) {
+                final int first = nodes[node * 2];
+                for (int i = first; i < first + count; i++) {
+                    if (intersectTriangle(triangles, i, originX, originY, originZ, directionX, directionY, directionZ, maxDistance, hit)) {
+                        return true;
+                    }
+                }
+            } else {
+                if (stackSize + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[stackSize++] = nodes[node * 2];
+                stack[stackSize++] = node + 1;
+            }
+        }
+        return false;
+    }
+
+    // Расстояние до входа луча в объем узла или -1, если луч его не пересекает ближе maxDistance.
+    // Ближняя и дальняя плоскости оси выбираются по знаку inverse, а границы обновляются сравнениями, а не
+    // Math.min / Math.max: если луч параллелен плоскостям оси и начало лежит на одной из них, там 0 * бесконечность = NaN.
+    // Такая плоскость луч не ограничивает, а сравнения с NaN ложны, и она пропускается. Если начало вне слоя,
+    // обе границы - бесконечности одного знака, и узел отсекается
+    private float entryDistance(int node, float originX, float originY, float originZ,
+                                float inverseX, float inverseY, float inverseZ, float maxDistance) {
+        final int offset = node * 6;
+        float near = 0;
+        float far = maxDistance;
+
+        final float nearX = ((inverseX < 0 ? nodeBounds[offset + 3] : nodeBounds[offset]) - originX) * inverseX;
+        final float farX = ((inverseX < 0 ? nodeBounds[offset] : nodeBounds[offset + 3]) - originX) * inverseX;
+        if (nearX > near) {
+            near = nearX;
+        }
+        if (farX < far) {
+            far = farX;
+        }
+        final float nearY = ((inverseY < 0 ? nodeBounds[offset + 4] : nodeBounds[offset + 1]) - originY) * inverseY;
+        final float farY = ((inverseY < 0 ? nodeBounds[offset + 1] : nodeBounds[offset + 4]) - originY) * inverseY;
+        if (nearY > near) {
+            near = nearY;
+        }
+        if (farY < far) {
+            far = farY;
+        }
+        final float nearZ = ((inverseZ < 0 ? nodeBounds[offset + 5] : nodeBounds[offset + 2]) - originZ) * inverseZ;
+        final float farZ = ((inverseZ < 0 ? nodeBounds[offset + 2] : nodeBounds[offset + 5]) - originZ) * inverseZ;
+        if (nearZ > near) {
+            near = nearZ;
+        }
+        if (farZ < far) {
+            far = farZ;
+        }
+        return near <= far ? near : -1;
+    }
+
+    // Пересечение луча с треугольником triangle массива triangles по Меллеру - Трумбору.
+    // Если оно ближе maxDistance (и дальше 0), в hit записываются расстояние и барицентрические координаты
+    static boolean intersectTriangle(float[] triangles, int triangle, float originX, float originY, float originZ,
+                                     float directionX, float directionY, float directionZ, float maxDistance, float[] hit) {
+        final int offset = triangle * 9;
+        final float ax = triangles[offset];
+        final float ay = triangles[offset + 1];
+        final float az = triangles[offset + 2];
+        final float edge1X = triangles[offset + 3] - ax;
+        final float edge1Y = triangles[offset + 4] - ay;
+        final float edge1Z = triangles[offset + 5] - az;
+        final float edge2X = triangles[offset + 6] - ax;
+        final float edge2Y = triangles[offset + 7] - ay;
+        final float edge2Z = triangles[offset + 8] - az;
+
+        final float pX = directionY * edge2Z - directionZ * edge2Y;
+        final float pY = directionZ * edge2X - directionX * edge2Z;
+        final float pZ = directionX * edge2Y - directionY * edge2X;
+        final float determinant = edge1X * pX + edge1Y * pY + edge1Z * pZ;
+        // порог не нужен: определитель зависит от размера треугольника и длины direction, и любой порог
+        // отбрасывал бы маленькие треугольники; у почти параллельного луча u и v все равно выйдут за [0, 1]
+        if (determinant == 0 || !Float.isFinite(determinant)) {
+            return false;
+        }
+        final float inverseDeterminant = 1 / determinant;
+        final float tX = originX - ax;
+        final float tY = originY - ay;
+        final float tZ = originZ - az;
+        final float u = (tX * pX + tY * pY + tZ * pZ) * inverseDeterminant;
+        if (u < 0 || u > 1) {
+            return false;
+        }
+        final float qX = tY * edge1Z - tZ * edge1Y;
+        final float qY = tZ * edge1X - tX * edge1Z;
+        final float qZ = tX * edge1Y - tY * edge1X;
+        final float v = (directionX * qX + directionY * qY + directionZ * qZ) * inverseDeterminant;
+        if (v < 0 || u + v > 1) {
+            return false;
+        }
+        final float distance = (edge2X * qX + edge2Y * qY + edge2Z * qZ) * inverseDeterminant;
+        if (distance <= 0 || distance >= maxDistance) {
+            return false;
+        }
+        hit[0] = distance;
+        hit[1] = u;
+        hit[2] = v;
+        return true;
+    }
+
+    private static final class BuildNode {
+        private final float[] bounds;
+        private final int first;
+        private final int count;
+        private BuildNode left;
+        private BuildNode right;
+
+        BuildNode(float[] bounds, int first, int count) {
+            this.bounds = bounds;
+            this.first = first;
+            this.count = count;
+        }
+
+        int countNodes() {
+            return left == null ? 1 : 1 + left.countNodes() + right.countNodes();
+        }
+    }
+
+    // Построение поддеревьев; разные диапазоны order можно строить на разных потоках
+    private static final class Builder {
+        // по 6 чисел на треугольник, как в nodeBounds
+        private final float[] triangleBounds;
+        // по 3 координаты центра на треугольник
+        private final float[] centroids;
+        private final int[] order;
+
+        Builder(float[] coordinates, int trianglesCount) {
+            this.triangleBounds = new float[trianglesCount * 6];
+            this.centroids = new float[trianglesCount * 3];
+            this.order = new int[trianglesCount];
+            for (int i = 0; i < trianglesCount; i++) {
+                order[i] = i;
+                for (int axis = 0; axis < 3; axis++) {
+                    final float a = coordinates[i * 9 + axis];
+                    final float b = coordinates[i * 9 + 3 + axis];
+                    final float c = coordinates[i * 9 + 6 + axis];
+                    triangleBounds[i * 6 + axis] = Math.min(a, Math.min(b, c));
+                    triangleBounds[i * 6 + axis + 3] = Math.max(a, Math.max(b, c));
+                    centroids[i * 3 + axis] = (a + b + c) / 3;
+                }
+            }
+        }
+
+        BuildNode build(int from, int to) {
+            BuildNode node = createNode(from, to);
+            if (node.left != null) {
+                final int middle = node.right.first;
+                node.left = build(from, middle);
+                node.right = build(middle, to);
+            }
+            return node;
+        }
+
+        // Узел для треугольников order[from, to). Если его нужно делить, треугольники переставляются
+        // и у узла появляются пустые left и right, у которых заполнено только first - граница деления
+        BuildNode createNode(int from, int to) {
+            float[] bounds = {Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+                    Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+            float[] centroidBounds = bounds.clone();
+            for (int i = from; i < to; i++) {
+                final int triangle = order[i];
+                merge(bounds, 0, triangleBounds, triangle * 6);
+                include(centroidBounds, centroids, triangle * 3);
+            }
+            final int count = to - from;
+            BuildNode node = new BuildNode(bounds, from, count);
+            if (count <= MAX_LEAF_SIZE) {
+                return node;
+            }
+
+            int bestAxis = -1;
+            int bestSplit = 0;
+            float bestCost = Float.POSITIVE_INFINITY;
+            final int[] binCounts = new int[BINS_COUNT];
+            final float[] binBounds = new float[BINS_COUNT * 6];
+            final float[] rightAreas = new float[BINS_COUNT];
+            for (int axis = 0; axis < 3; axis++) {
+                final float min = centroidBounds[axis];
+                final float extent = centroidBounds[axis + 3] - min;
+                if (!(extent > 0)) {
+                    continue;
+                }
+                Arrays.fill(binCounts, 0);
+                for (int bin = 0; bin < BINS_COUNT; bin++) {
+                    resetBounds(binBounds, bin * 6);
+                }
+                for (int i = from; i < to; i++) {
+                    final int triangle = order[i];
+                    final int bin = binOf(centroids[triangle * 3 + axis], min, extent);
+                    ++binCounts[bin];
+                    merge(binBounds, bin * 6, triangleBounds, triangle * 6);
+                }
+                // площади справа от каждой границы, потом проход слева направо
+                float[] accumulated = new float[6];
+                resetBounds(accumulated, 0);
+                for (int bin = BINS_COUNT - 1; bin > 0; bin--) {
+                    merge(accumulated, 0, binBounds, bin * 6);
+                    rightAreas[bin] = area(accumulated);
+                }
+                resetBounds(accumulated, 0);
+                int leftCount = 0;
+                for (int split = 1; split < BINS_COUNT; split++) {
+                    merge(accumulated, 0, binBounds, (split - 1) * 6);
+                    leftCount += binCounts[split - 1];
+                    final int rightCount = count - leftCount;
+                    if (leftCount == 0 || rightCount == 0) {
+                        continue;
+                    }
+                    final float cost = leftCount * area(accumulated) + rightCount * rightAreas[split];
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestSplit = split;
+                    }
+                }
+            }
+
+            int middle;
+            if (bestAxis < 0) {
+                // центры всех треугольников совпадают - делить по ним нечего, делится пополам как есть
+                if (count <= MAX_FORCED_LEAF_SIZE) {
+                    return node;
+                }
+                middle = from + count / 2;
+            } else {
+                // стоимость листа - проверка всех треугольников; стоимость деления - в тех же единицах
+                final float leafCost = count * area(bounds);
+                if (bestCost + area(bounds) >= leafCost && count <= MAX_FORCED_LEAF_SIZE) {
+                    return node;
+                }
+                final float min = centroidBounds[bestAxis];
+                final float extent = centroidBounds[bestAxis + 3] - min;
+                middle = from;
+                for (int i = from; i < to; i++) {
+                    final int triangle = order[i];
+                    if (binOf(centroids[triangle * 3 + bestAxis], min, extent) < bestSplit) {
+                        order[i] = order[middle];
+                        order[middle++] = triangle;
+                    }
+                }
+            }
+            node.left = new BuildNode(null, from, middle - from);
+            node.right = new BuildNode(null, middle, to - middle);
+            return node;
+        }
+
+        private static int binOf(float centroid, float min, float extent) {
+            return Math.min(BINS_COUNT - 1, (int) ((centroid - min) / extent * BINS_COUNT));
+        }
+    }
+
+    // Строит поддерево на потоке пула, большие поддеревья делятся на две задачи
+    private static final class BuildTask extends RecursiveTask<BuildNode> {
+        private static final long serialVersionUID = 1L;
+
+        private final Builder builder;
+        private final int from;
+        private final int to;
+        private final int parallelBuildSize;
+
+        BuildTask(Builder builder, int from, int to, int parallelBuildSize) {
+            this.builder = builder;
+            this.from = from;
+            this.to = to;
+            this.parallelBuildSize = parallelBuildSize;
+        }
+
+        @Override
+        protected BuildNode compute() {
+            if (to - from <= parallelBuildSize) {
+                return builder.build(from, to);
+            }
+            BuildNode node = builder.createNode(from, to);
+            if (node.left == null) {
+                return node;
+            }
+            BuildTask left = new BuildTask(builder, from, node.left.first + node.left.count, parallelBuildSize);
+            left.fork();
+            node.right = new BuildTask(builder, node.right.first, to, parallelBuildSize).compute();
+            node.left = left.join();
+            return node;
+        }
+    }
+
+    // Раскладывает дерево в плоские массивы в порядке обхода в глубину
+    private static final class Flattener {
+        private final float[] bounds;
+        private final int[] nodes;
+        private int size;
+
+        Flattener(int nodesCount) {
+            bounds = new float[nodesCount * 6];
+            nodes = new int[nodesCount * 2];
+        }
+
+        void add(BuildNode node) {
+            final int index = size++;
+            System.arraycopy(node.bounds, 0, bounds, index * 6, 6);
+            if (node.left == null) {
+                nodes[index * 2] = node.first;
+                nodes[index * 2 + 1] = node.count;
+                return;
+            }
+            add(node.left);
+            nodes[index * 2] = size;
+            nodes[index * 2 + 1] = 0;
+            add(node.right);
+        }
+    }
+
+    private static void resetBounds(float[] bounds, int offset) {
+        bounds[offset] = bounds[offset + 1] = bounds[offset + 2] = Float.POSITIVE_INFINITY;
+        bounds[offset + 3] = bounds[offset + 4] = bounds[offset + 5] = Float.NEGATIVE_INFINITY;
+    }
+
+    // Границы дальше строятся на каждом уровне дерева для всех треугольников, поэтому здесь сравнения,
+    // а не Math.min / Math.max с их обработкой NaN и -0
+    private static void include(float[] bounds, float[] points, int pointOffset) {
+        for (int axis = 0; axis < 3; axis++) {
+            final float value = points[pointOffset + axis];
+            if (value < bounds[axis]) {
+                bounds[axis] = value;
+            }
+            if (value > bounds[axis + 3]) {
+                bounds[axis + 3] = value;
+            }
+        }
+    }
+
+    private static void merge(float[] bounds, int offset, float[] other, int otherOffset) {
+        for (int axis = 0; axis < 3; axis++) {
+            final float min = other[otherOffset + axis];
+            final float max = other[otherOffset + axis + 3];
+            if (min < bounds[offset + axis]) {
+                bounds[offset + axis] = min;
+            }
+            if (max > bounds[offset + axis + 3]) {
+                bounds[offset + axis + 3] = max;
+            }
+        }
+    }
+
+    // Половина площади поверхности - для сравнения стоимостей множитель не важен
+    private static float area(float[] bounds) {
+        final float x = bounds[3] - bounds[0];
+        final float y = bounds[4] - bounds[1];
+        final float z = bounds[5] - bounds[2];
+        if (!(x >= 0)) {
+            return 0;
+        }
+        return x * y + y * z + z * x;
+    }
+}
@@ -1,13 +1,167 @@
 package com.cgvsu.model;
+import com.cgvsu.math.Matrix4f;
 import com.cgvsu.math.Vector2f;
 import com.cgvsu.math.Vector3f;
+import com.cgvsu.math.VertexTransform;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
-public class Model {
+public class Model implements Mesh {
 
     public ArrayList<Vector3f> vertices = new ArrayList<Vector3f>();
     public ArrayList<Vector2f> textureVertices = new ArrayList<Vector2f>();
     public ArrayList<Vector3f> normals = new ArrayList<Vector3f>();
     public ArrayList<Polygon> polygons = new ArrayList<Polygon>();
+
+    // Точные габариты первых boundsVertexCount вершин после последнего полного прохода (и добавлений к нему)
+    // и произведение матриц всех transform после этого прохода (null - преобразований не было).
+    // Отдаваемые габариты - baseBounds, преобразованные этой матрицей один раз, а не по очереди каждой матрицей:
+    // запас Bounds.transform на каждое преобразование иначе накапливался бы, и после нескольких поворотов
+    // габариты стали бы во много раз больше модели
+    private Bounds baseBounds;
+    private Matrix4f boundsTransform;
+    private int boundsVertexCount;
+    // baseBounds, преобразованные boundsTransform, или null, если их нужно пересчитать
+    private Bounds bounds;
+
+    // Габариты вершин. Считаются при первом вызове и хранятся в модели; вершины, добавленные в конец vertices
+    // с прошлого вызова, добавляются к готовым габаритам без прохода по остальным (если после прошлого полного
+    // прохода был transform, добавление вершин вызывает полный пересчет).
+    // Если вершины изменены или заменены напрямую в vertices, а не через transform, нужно вызвать invalidateBounds
+    public Bounds getBounds() {
+        return getBounds(null);
+    }
+
+    // То же, но полный пересчет идет на потоках pool
+    public Bounds getBounds(ForkJoinPool pool) {
+        final int verticesCount = vertices.size();
+        if (baseBounds == null || verticesCount < boundsVertexCount
+                || (verticesCount > boundsVertexCount && boundsTransform != null)) {
+            baseBounds = pool == null ? Bounds.of(this) : Bounds.of(this, pool);
+            boundsTransform = null;
+            bounds = null;
+        } else if (verticesCount > boundsVertexCount) {
+            baseBounds = baseBounds.include(this, boundsVertexCount, verticesCount);
+            bounds = null;
+        }
+        boundsVertexCount = verticesCount;
+        if (bounds == null) {
+            bounds = boundsTransform == null ? baseBounds : baseBounds.transform(boundsTransform);
+        }
+        return bounds;
+    }
+
+    public void invalidateBounds() {
+        baseBounds = null;
+        boundsTransform = null;
+        bounds = null;
+    }
+
+    // Преобразование всех вершин матрицей. Для аффинной матрицы посчитанные габариты не пересчитываются, а
+    // при следующем getBounds преобразуются из точных (см. Bounds.transform); для проективной - сбрасываются
+    // и при следующем getBounds считаются заново
+    public void transform(Matrix4f matrix) {
+        final float[] m = matrix.getCells();
+        final boolean affine = m[12] == 0 && m[13] == 0 && m[14] == 0 && m[15] == 1;
+        if (affine && baseBounds != null) {
+            // вершины, добавленные до преобразования, должны попасть в габариты до него
+            getBounds();
+            boundsTransform = boundsTransform == null ? new Matrix4f(matrix) : Matrix4f.mul(matrix, boundsTransform, boundsTransform);
+            bounds = null;
+        } else {
+            invalidateBounds();
+        }
+        VertexTransform.transform(matrix, vertices, !affine);
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertices.size();
+    }
+
+    @Override
+    public float getVertexX(int index) {
+        return vertices.get(index).getX();
+    }
+
+    @Override
+    public float getVertexY(int index) {
+        return vertices.get(index).getY();
+    }
+
+    @Override
+    public float getVertexZ(int index) {
+        return vertices.get(index).getZ();
+    }
+
+    @Override
+    public int getTextureVertexCount() {
+        return textureVertices.size();
+    }
+
+    @Override
+    public float getTextureVertexX(int index) {
+        return textureVertices.get(index).getX();
+    }
+
+    @Override
+    public float getTextureVertexY(int index) {
+        return textureVertices.get(index).getY();
+    }
+
+    @Override
+    public int getNormalCount() {
+        return normals.size();
+    }
+
+    @Override
+    public float getNormalX(int index) {
+        return normals.get(index).getX();
+    }
+
+    @Override
+    public float getNormalY(int index) {
+        return normals.get(index).getY();
+    }
+
+    @Override
+    public float getNormalZ(int index) {
+        return normals.get(index).getZ();
+    }
+
+    @Override
+    public int getPolygonCount() {
+        return polygons.size();
+    }
+
+    @Override
+    public int getPolygonVertexCount(int polygon) {
+        return polygons.get(polygon).getVertexIndices().size();
+    }
+
+    @Override
+    public int getPolygonVertexIndex(int polygon, int index) {
+        return polygons.get(polygon).getVertexIndices().get(index);
+    }
+
+    @Override
+    public int getPolygonTextureVertexCount(int polygon) {
+        return polygons.get(polygon).getTextureVertexIndices().size();
+    }
+
+    @Override
+    public int getPolygonTextureVertexIndex(int polygon, int index) {
+        return polygons.get(polygon).getTextureVertexIndices().get(index);
+    }
+
+    @Override
+    public int getPolygonNormalCount(int polygon) {
+        return polygons.get(polygon).getNormalIndices().size();
+    }
+
+    @Override
+    public int getPolygonNormalIndex(int polygon, int index) {
+        return polygons.get(polygon).getNormalIndices().get(index);
+    }
 }
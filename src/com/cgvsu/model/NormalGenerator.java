@@ -0,0 +1,384 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+// Вычисление нормалей для моделей без них (или с неправильными).
+// Нормаль полигона - по Ньюэллу: для невыпуклых и не совсем плоских полигонов она устойчивее векторного
+// произведения двух сторон. Нормаль вершины - сумма нормалей ее полигонов с весами: площадь полигона (AREA)
+// или угол полигона при этой вершине (ANGLE), затем нормированная. Нулевые нормали (у вырожденных полигонов
+// и вершин без полигонов) остаются нулевыми.
+//
+// Нормали вершин не накапливаются в общих массивах из разных полигонов. Вместо этого для каждой вершины заранее
+// собирается список ее углов, и каждая вершина сама суммирует свои углы. Поэтому на потоках ничего не
+// блокируется, и результат побитово совпадает с последовательным вычислением.
+public final class NormalGenerator {
+
+    public enum Weighting {
+        AREA,
+        ANGLE
+    }
+
+    private static final int MIN_RANGE_SIZE = 8 * 1024;
+
+    private final Mesh mesh;
+    private final Weighting weighting;
+    private final ForkJoinPool pool;
+    private final int minRangeSize;
+
+    // углы полигона i - с polygonOffsets[i] по polygonOffsets[i + 1] (не включая), cornerVertices - их вершины
+    private int[] polygonOffsets;
+    private int[] cornerVertices;
+    private int[] cornerPolygons;
+    // по три координаты на полигон: нормаль по Ньюэллу (длина - удвоенная площадь) и она же нормированная
+    private double[] faceNormals;
+    private double[] unitFaceNormals;
+    // вес угла при ANGLE
+    private double[] cornerAngles;
+    // углы вершины i - vertexCorners[vertexOffsets[i]] ... vertexCorners[vertexOffsets[i + 1] - 1], по возрастанию
+    private int[] vertexOffsets;
+    private int[] vertexCorners;
+
+    private NormalGenerator(Mesh mesh, Weighting weighting, ForkJoinPool pool, int minRangeSize) {
+        this.mesh = mesh;
+        this.weighting = weighting;
+        this.pool = pool;
+        this.minRangeSize = minRangeSize;
+    }
+
+    // По три координаты на полигон, нормированные
+    public static float[] computeFaceNormals(Mesh mesh) {
+        return computeFaceNormals(mesh, null, MIN_RANGE_SIZE);
+    }
+
+    public static float[] computeFaceNormals(Mesh mesh, ForkJoinPool pool) {
+        return computeFaceNormals(mesh, pool, MIN_RANGE_SIZE);
+    }
+
+    static float[] computeFaceNormals(Mesh mesh, ForkJoinPool pool, int minRangeSize) {
+        NormalGenerator generator = new NormalGenerator(mesh, Weighting.AREA, pool, minRangeSize);
+        generator.collectPolygons();
+        return toFloats(generator.unitFaceNormals);
+    }
+
+    // По три координаты на вершину, нормированные
+    public static float[] computeVertexNormals(Mesh mesh, Weighting weighting) {
+        return computeVertexNormals(mesh, weighting, null, MIN_RANGE_SIZE);
+    }
+
+    public static float[] computeVertexNormals(Mesh mesh, Weighting weighting, ForkJoinPool pool) {
+        return computeVertexNormals(mesh, weighting, pool, MIN_RANGE_SIZE);
+    }
+
+    static float[] computeVertexNormals(Mesh mesh, Weighting weighting, ForkJoinPool pool, int minRangeSize) {
+        NormalGenerator generator = new NormalGenerator(mesh, weighting, pool, minRangeSize);
+        generator.collectPolygons();
+        generator.collectVertexCorners();
+        float[] result = new float[mesh.getVertexCount() * 3];
+        generator.forEachRange(mesh.getVertexCount(), (from, to) -> {
+            double[] normal = new double[3];
+            for (int vertex = from; vertex < to; vertex++) {
+                normal[0] = normal[1] = normal[2] = 0;
+                for (int i = generator.vertexOffsets[vertex]; i < generator.vertexOffsets[vertex + 1]; i++) {
+                    generator.addCorner(normal, generator.vertexCorners[i]);
+                }
+                writeNormalized(normal, result, vertex * 3);
+            }
+        });
+        return result;
+    }
+
+    // Заменяет model.normals и индексы нормалей в полигонах вычисленными нормалями.
+    // Ребро между полигонами, нормали которых отличаются больше чем на creaseAngle градусов, считается резким.
+    // Углы вершины делятся на группы, связные через нерезкие ребра при этой вершине, и у каждой группы своя нормаль:
+    // резкие ребра остаются резкими, а плавно изогнутая поверхность сглаживается целиком.
+    // При creaseAngle >= 180 сглаживается все, и у каждой вершины одна нормаль с тем же индексом, что и вершина
+    public static void generateNormals(Model model, Weighting weighting, float creaseAngle) {
+        generateNormals(model, weighting, creaseAngle, null, MIN_RANGE_SIZE);
+    }
+
+    public static void generateNormals(Model model, Weighting weighting, float creaseAngle, ForkJoinPool pool) {
+        generateNormals(model, weighting, creaseAngle, pool, MIN_RANGE_SIZE);
+    }
+
+    static void generateNormals(Model model, Weighting weighting, float creaseAngle, ForkJoinPool pool, int minRangeSize) {
+        if (!(creaseAngle >= 0)) {
+            throw new IllegalArgumentException("Crease angle must not be negative.");
+        }
+        if (creaseAngle >= 180) {
+            float[] normals = computeVertexNormals(model, weighting, pool, minRangeSize);
+            model.normals = toVectors(normals, normals.length / 3);
+            for (Polygon polygon : model.polygons) {
+                polygon.setNormalIndices(new ArrayList<>(polygon.getVertexIndices()));
+            }
+            return;
+        }
+
+        NormalGenerator generator = new NormalGenerator(model, weighting, pool, minRangeSize);
+        generator.collectPolygons();
+        generator.collectVertexCorners();
+        final double minCos = Math.cos(Math.toRadians(creaseAngle));
+        final int verticesCount = model.getVertexCount();
+        final int rangeSize = ParallelRanges.rangeSize(pool, verticesCount, minRangeSize);
+        final int rangesCount = ParallelRanges.rangesCount(verticesCount, rangeSize);
+        // у каждого диапазона вершин свои нормали; индексы нормалей углов сначала внутри диапазона
+        float[][] rangeNormals = new float[rangesCount][];
+        int[] rangeNormalsCounts = new int[rangesCount];
+        int[] cornerNormals = new int[generator.cornerVertices.length];
+        generator.forEachRange(verticesCount, (from, to) -> {
+            float[] normals = new float[(generator.vertexOffsets[to] - generator.vertexOffsets[from]) * 3];
+            int normalsCount = 0;
+            long[] edges = new long[16];
+            int[] groups = new int[8];
+            int[] groupNormalIndices = new int[8];
+            double[] groupNormals = new double[24];
+            for (int vertex = from; vertex < to; vertex++) {
+                final int firstCorner = generator.vertexOffsets[vertex];
+                final int cornersCount = generator.vertexOffsets[vertex + 1] - firstCorner;
+                if (groups.length < cornersCount) {
+                    groups = new int[Math.max(cornersCount, groups.length * 2)];
+                    groupNormalIndices = new int[groups.length];
+                    edges = new long[groups.length * 2];
+                    groupNormals = new double[groups.length * 3];
+                }
+                generator.groupCorners(firstCorner, cornersCount, minCos, edges, groups);
+                // группа - это ее первый угол; углы суммируются по возрастанию, как и без пула
+                Arrays.fill(groupNormals, 0, cornersCount * 3, 0);
+                for (int i = 0; i < cornersCount; i++) {
+                    generator.addCorner(groupNormals, groups[i] * 3, generator.vertexCorners[firstCorner + i]);
+                }
+                for (int i = 0; i < cornersCount; i++) {
+                    if (groups[i] == i) {
+                        writeNormalized(groupNormals, i * 3, normals, normalsCount * 3);
+                        groupNormalIndices[i] = normalsCount++;
+                    }
+                    cornerNormals[generator.vertexCorners[firstCorner + i]] = groupNormalIndices[groups[i]];
+                }
+            }
+            final int range = from / rangeSize;
+            rangeNormals[range] = normals;
+            rangeNormalsCounts[range] = normalsCount;
+        });
+
+        int[] rangeFirstNormals = new int[rangesCount];
+        ArrayList<Vector3f> normals = new ArrayList<>();
+        for (int range = 0; range < rangesCount; range++) {
+            rangeFirstNormals[range] = normals.size();
+            for (int i = 0; i < rangeNormalsCounts[range]; i++) {
+                normals.add(new Vector3f(rangeNormals[range][i * 3], rangeNormals[range][i * 3 + 1], rangeNormals[range][i * 3 + 2]));
+            }
+        }
+        model.normals = normals;
+        for (int polygon = 0; polygon < model.polygons.size(); polygon++) {
+            ArrayList<Integer> normalIndices = new ArrayList<>();
+            for (int corner = generator.polygonOffsets[polygon]; corner < generator.polygonOffsets[polygon + 1]; corner++) {
+                final int range = generator.cornerVertices[corner] / rangeSize;
+                normalIndices.add(rangeFirstNormals[range] + cornerNormals[corner]);
+            }
+            model.polygons.get(polygon).setNormalIndices(normalIndices);
+        }
+    }
+
+    private void collectPolygons() {
+        final int polygonsCount = mesh.getPolygonCount();
+        polygonOffsets = new int[polygonsCount + 1];
+        for (int i = 0; i < polygonsCount; i++) {
+            polygonOffsets[i + 1] = polygonOffsets[i] + mesh.getPolygonVertexCount(i);
+        }
+        cornerVertices = new int[polygonOffsets[polygonsCount]];
+        cornerPolygons = new int[polygonOffsets[polygonsCount]];
+        faceNormals = new double[polygonsCount * 3];
+        unitFaceNormals = new double[polygonsCount * 3];
+        if (weighting == Weighting.ANGLE) {
+            cornerAngles = new double[polygonOffsets[polygonsCount]];
+        }
+        forEachRange(polygonsCount, (from, to) -> {
+            for (int polygon = from; polygon < to; polygon++) {
+                collectPolygon(polygon);
+            }
+        });
+    }
+
+    private void collectPolygon(int polygon) {
+        final int firstCorner = polygonOffsets[polygon];
+        final int verticesCount = polygonOffsets[polygon + 1] - firstCorner;
+        double normalX = 0;
+        double normalY = 0;
+        double normalZ = 0;
+        for (int i = 0; i < verticesCount; i++) {
+            final int vertex = mesh.getPolygonVertexIndex(polygon, i);
+            final int nextVertex = mesh.getPolygonVertexIndex(polygon, i + 1 == verticesCount ? 0 : i + 1);
+            cornerVertices[firstCorner + i] = vertex;
+            cornerPolygons[firstCorner + i] = polygon;
+            final double x = mesh.getVertexX(vertex);
+            final double y = mesh.getVertexY(vertex);
+            final double z = mesh.getVertexZ(vertex);
+            final double nextX = mesh.getVertexX(nextVertex);
+            final double nextY = mesh.getVertexY(nextVertex);
+            final double nextZ = mesh.getVertexZ(nextVertex);
+            normalX += (y - nextY) * (z + nextZ);
+            normalY += (z - nextZ) * (x + nextX);
+            normalZ += (x - nextX) * (y + nextY);
+        }
+        // сумма по Ньюэллу - удвоенная площадь, умноженная на нормаль
+        faceNormals[polygon * 3] = normalX / 2;
+        faceNormals[polygon * 3 + 1] = normalY / 2;
+        faceNormals[polygon * 3 + 2] = normalZ / 2;
+        final double length = Math.sqrt(normalX * normalX + normalY * normalY + normalZ * normalZ);
+        if (length > 0) {
+            unitFaceNormals[polygon * 3] = normalX / length;
+            unitFaceNormals[polygon * 3 + 1] = normalY / length;
+            unitFaceNormals[polygon * 3 + 2] = normalZ / length;
+        }
+
+        if (cornerAngles != null) {
+            for (int i = 0; i < verticesCount; i++) {
+                final int previous = cornerVertices[firstCorner + (i == 0 ? verticesCount - 1 : i - 1)];
+                final int vertex = cornerVertices[firstCorner + i];
+                final int next = cornerVertices[firstCorner + (i + 1 == verticesCount ? 0 : i + 1)];
+                cornerAngles[firstCorner + i] = angle(vertex, previous, next);
+            }
+        }
+    }
+
+    // Угол при вершине vertex между направлениями на previous и next
+    private double angle(int vertex, int previous, int next) {
+        final double ax = mesh.getVertexX(previous) - mesh.getVertexX(vertex);
+        final double ay = mesh.getVertexY(previous) - mesh.getVertexY(vertex);
+        final double az = mesh.getVertexZ(previous) - mesh.getVertexZ(vertex);
+        final double bx = mesh.getVertexX(next) - mesh.getVertexX(vertex);
+        final double by = mesh.getVertexY(next) - mesh.getVertexY(vertex);
+        final double bz = mesh.getVertexZ(next) - mesh.getVertexZ(vertex);
+        final double crossX = ay * bz - az * by;
+        final double crossY = az * bx - ax * bz;
+        final double crossZ = ax * by - ay * bx;
+        return Math.atan2(Math.sqrt(crossX * crossX + crossY * crossY + crossZ * crossZ), ax * bx + ay * by + az * bz);
+    }
+
+    // Список углов каждой вершины сортировкой подсчетом: углы вершины идут по возрастанию номеров
+    private void collectVertexCorners() {
+        final int verticesCount = mesh.getVertexCount();
+        vertexOffsets = new int[verticesCount + 1];
+        for (int vertex : cornerVertices) {
+            ++vertexOffsets[vertex + 1];
+        }
+        for (int i = 0; i < verticesCount; i++) {
+            vertexOffsets[i + 1] += vertexOffsets[i];
+        }
+        vertexCorners = new int[cornerVertices.length];
+        int[] positions = vertexOffsets.clone();
+        for (int corner = 0; corner < cornerVertices.length; corner++) {
+            vertexCorners[positions[cornerVertices[corner]]++] = corner;
+        }
+    }
+
+    // Группы углов вершины: groups[i] - первый угол группы i-го угла вершины (номера внутри вершины).
+    // Углы двух полигонов в одной группе, если у полигонов есть общее ребро при этой вершине и их нормали отличаются
+    // не больше, чем на crease angle. Общие ребра находятся сортировкой пар (соседняя вершина, угол), поэтому
+    // вершина с k углами обрабатывается за O(k log k), а не сравнением всех пар углов
+    private void groupCorners(int firstCorner, int cornersCount, double minCos, long[] edges, int[] groups) {
+        for (int i = 0; i < cornersCount; i++) {
+            final int corner = vertexCorners[firstCorner + i];
+            final int polygon = cornerPolygons[corner];
+            final int polygonStart = polygonOffsets[polygon];
+            final int polygonEnd = polygonOffsets[polygon + 1];
+            final int previous = cornerVertices[corner == polygonStart ? polygonEnd - 1 : corner - 1];
+            final int next = cornerVertices[corner + 1 == polygonEnd ? polygonStart : corner + 1];
+            edges[i * 2] = (long) previous << 32 | i;
+            edges[i * 2 + 1] = (long) next << 32 | i;
+            groups[i] = i;
+        }
+        Arrays.sort(edges, 0, cornersCount * 2);
+        for (int j = 1; j < cornersCount * 2; j++) {
+            if (edges[j] >>> 32 != edges[j - 1] >>> 32) {
+                continue;
+            }
+            final int first = (int) edges[j - 1];
+            final int second = (int) edges[j];
+            if (cosBetween(cornerPolygons[vertexCorners[firstCorner + first]],
+                    cornerPolygons[vertexCorners[firstCorner + second]]) >= minCos) {
+                final int firstGroup = findGroup(groups, first);
+                final int secondGroup = findGroup(groups, second);
+                groups[Math.max(firstGroup, secondGroup)] = Math.min(firstGroup, secondGroup);
+            }
+        }
+        for (int i = 0; i < cornersCount; i++) {
+            groups[i] = findGroup(groups, i);
+        }
+    }
+
+    // Система непересекающихся множеств: представитель группы - ее наименьший угол
+    private static int findGroup(int[] groups, int i) {
+        while (groups[i] != i) {
+            groups[i] = groups[groups[i]];
+            i = groups[i];
+        }
+        return i;
+    }
+
+    private void addCorner(double[] normal, int corner) {
+        addCorner(normal, 0, corner);
+    }
+
+    private void addCorner(double[] normal, int offset, int corner) {
+        final int polygon = cornerPolygons[corner];
+        if (weighting == Weighting.AREA) {
+            normal[offset] += faceNormals[polygon * 3];
+            normal[offset + 1] += faceNormals[polygon * 3 + 1];
+            normal[offset + 2] += faceNormals[polygon * 3 + 2];
+        } else {
+            final double angle = cornerAngles[corner];
+            normal[offset] += unitFaceNormals[polygon * 3] * angle;
+            normal[offset + 1] += unitFaceNormals[polygon * 3 + 1] * angle;
+            normal[offset + 2] += unitFaceNormals[polygon * 3 + 2] * angle;
+        }
+    }
+
+    private double cosBetween(int polygon, int otherPolygon) {
+        return unitFaceNormals[polygon * 3] * unitFaceNormals[otherPolygon * 3]
+                + unitFaceNormals[polygon * 3 + 1] * unitFaceNormals[otherPolygon * 3 + 1]
+                + unitFaceNormals[polygon * 3 + 2] * unitFaceNormals[otherPolygon * 3 + 2];
+    }
+
+    private static void writeNormalized(double[] normal, float[] result, int offset) {
+        writeNormalized(normal, 0, result, offset);
+    }
+
+    private static void writeNormalized(double[] normal, int normalOffset, float[] result, int offset) {
+        final double x = normal[normalOffset];
+        final double y = normal[normalOffset + 1];
+        final double z = normal[normalOffset + 2];
+        final double length = Math.sqrt(x * x + y * y + z * z);
+        if (length > 0) {
+            result[offset] = (float) (x / length);
+            result[offset + 1] = (float) (y / length);
+            result[offset + 2] = (float) (z / length);
+        } else {
+            result[offset] = result[offset + 1] = result[offset + 2] = 0;
+        }
+    }
+
+    private static float[] toFloats(double[] values) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+
+    private static ArrayList<Vector3f> toVectors(float[] coordinates, int count) {
+        ArrayList<Vector3f> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new Vector3f(coordinates[i * 3], coordinates[i * 3 + 1], coordinates[i * 3 + 2]));
+        }
+        return result;
+    }
+
+    // Диапазоны [0, count) на потоках пула, см. ParallelRanges
+    private void forEachRange(int count, ParallelRanges.RangeAction action) {
+        ParallelRanges.forEach(pool, count, minRangeSize, action);
+    }
+}
@@ -0,0 +1,379 @@
+package com.cgvsu.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+// Модель вне кучи: вся геометрия лежит в одном буфере (прямом или отображенном из файла) в порядке байт little-endian.
+// Раскладка та же, что у PackedModel, только массивы идут подряд блоками:
+// vertices, textureVertices, normals, polygonVertexOffsets, vertexIndices,
+// polygonTextureVertexOffsets, textureVertexIndices, polygonNormalOffsets, normalIndices.
+// Такой буфер можно без копирования отдать нативному коду или записать в файл.
+//
+// После close() модель недоступна: любое обращение бросает IllegalStateException.
+// close() не освобождает память сам: прямой буфер (или отображение файла) освобождает сборщик мусора,
+// когда на буфер не остается ссылок, в том числе из полученных через геттеры представлений.
+// Поэтому сохраненные представления остаются рабочими и после close().
+public class OffHeapModel implements Mesh, AutoCloseable {
+
+    private static final int BLOCKS_COUNT = 9;
+
+    private ByteBuffer storage;
+    private FloatBuffer vertices;
+    private FloatBuffer textureVertices;
+    private FloatBuffer normals;
+    private IntBuffer polygonVertexOffsets;
+    private IntBuffer vertexIndices;
+    private IntBuffer polygonTextureVertexOffsets;
+    private IntBuffer textureVertexIndices;
+    private IntBuffer polygonNormalOffsets;
+    private IntBuffer normalIndices;
+
+    // storage должен содержать ровно getStorageSize(...) байт, начиная с позиции 0
+    public OffHeapModel(
+            ByteBuffer storage,
+            int vertexCount,
+            int textureVertexCount,
+            int normalCount,
+            int polygonCount,
+            int vertexIndexCount,
+            int textureVertexIndexCount,
+            int normalIndexCount) {
+        final long storageSize = getStorageSize(
+                vertexCount, textureVertexCount, normalCount, polygonCount, vertexIndexCount, textureVertexIndexCount, normalIndexCount);
+        if (storage.capacity() != storageSize) {
+            throw new IllegalArgumentException("Storage size " + storage.capacity() + " does not match model size " + storageSize + ".");
+        }
+
+        // размер совпал с емкостью буфера, значит и каждый блок, и их сумма помещаются в int
+        final long[] blockLengths = getBlockLengths(
+                vertexCount, textureVertexCount, normalCount, polygonCount, vertexIndexCount, textureVertexIndexCount, normalIndexCount);
+        final int[] blockStarts = new int[BLOCKS_COUNT];
+        for (int i = 1; i < BLOCKS_COUNT; i++) {
+            blockStarts[i] = blockStarts[i - 1] + (int) blockLengths[i - 1] * Integer.BYTES;
+        }
+
+        this.storage = storage;
+        vertices = floatBlock(storage, blockStarts[0], (int) blockLengths[0]);
+        textureVertices = floatBlock(storage, blockStarts[1], (int) blockLengths[1]);
+        normals = floatBlock(storage, blockStarts[2], (int) blockLengths[2]);
+        polygonVertexOffsets = intBlock(storage, blockStarts[3], (int) blockLengths[3]);
+        vertexIndices = intBlock(storage, blockStarts[4], (int) blockLengths[4]);
+        polygonTextureVertexOffsets = intBlock(storage, blockStarts[5], (int) blockLengths[5]);
+        textureVertexIndices = intBlock(storage, blockStarts[6], (int) blockLengths[6]);
+        polygonNormalOffsets = intBlock(storage, blockStarts[7], (int) blockLengths[7]);
+        normalIndices = intBlock(storage, blockStarts[8], (int) blockLengths[8]);
+        checkOffsets(polygonVertexOffsets, vertexIndexCount);
+        checkOffsets(polygonTextureVertexOffsets, textureVertexIndexCount);
+        checkOffsets(polygonNormalOffsets, normalIndexCount);
+    }
+
+    private static void checkOffsets(IntBuffer offsets, int indexCount) {
+        if (offsets.get(0) != 0 || offsets.get(offsets.limit() - 1) != indexCount) {
+            throw new IllegalArgumentException("Polygon offsets must start with 0 and end with the index count.");
+        }
+    }
+
+    // Размер буфера в байтах для модели с такими кол-вами элементов
+    public static long getStorageSize(
+            int vertexCount,
+            int textureVertexCount,
+            int normalCount,
+            int polygonCount,
+            int vertexIndexCount,
+            int textureVertexIndexCount,
+            int normalIndexCount) {
+        long result = 0;
+        for (long blockLength : getBlockLengths(
+                vertexCount, textureVertexCount, normalCount, polygonCount, vertexIndexCount, textureVertexIndexCount, normalIndexCount)) {
+            result += blockLength * Integer.BYTES;
+        }
+        return result;
+    }
+
+    // Длины блоков в элементах (float и int занимают по 4 байта).
+    // Считаются в long: кол-ва из заголовка кэша могут быть любыми, и в int длина блока переполнилась бы
+    private static long[] getBlockLengths(
+            int vertexCount,
+            int textureVertexCount,
+            int normalCount,
+            int polygonCount,
+            int vertexIndexCount,
+            int textureVertexIndexCount,
+            int normalIndexCount) {
+        final long[] result = {
+                vertexCount * 3L, textureVertexCount * 2L, normalCount * 3L,
+                polygonCount + 1L, vertexIndexCount,
+                polygonCount + 1L, textureVertexIndexCount,
+                polygonCount + 1L, normalIndexCount
+        };
+        for (long blockLength : result) {
+            if (blockLength < 0 || blockLength > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid model block length " + blockLength + ".");
+            }
+        }
+        return result;
+    }
+
+    private static FloatBuffer floatBlock(ByteBuffer storage, int start, int length) {
+        return storage.slice(start, length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    private static IntBuffer intBlock(ByteBuffer storage, int start, int length) {
+        return storage.slice(start, length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    // Копирует любую модель в новый прямой буфер
+    public static OffHeapModel fromMesh(Mesh mesh) {
+        final int polygonCount = mesh.getPolygonCount();
+        int vertexIndexCount = 0;
+        int textureVertexIndexCount = 0;
+        int normalIndexCount = 0;
+        for (int i = 0; i < polygonCount; i++) {
+            vertexIndexCount += mesh.getPolygonVertexCount(i);
+            textureVertexIndexCount += mesh.getPolygonTextureVertexCount(i);
+            normalIndexCount += mesh.getPolygonNormalCount(i);
+        }
+        ByteBuffer storage = allocateStorage(getStorageSize(
+                mesh.getVertexCount(), mesh.getTextureVertexCount(), mesh.getNormalCount(), polygonCount,
+                vertexIndexCount, textureVertexIndexCount, normalIndexCount));
+
+        for (int i = 0; i < mesh.getVertexCount(); i++) {
+            storage.putFloat(mesh.getVertexX(i)).putFloat(mesh.getVertexY(i)).putFloat(mesh.getVertexZ(i));
+        }
+        for (int i = 0; i < mesh.getTextureVertexCount(); i++) {
+            storage.putFloat(mesh.getTextureVertexX(i)).putFloat(mesh.getTextureVertexY(i));
+        }
+        for (int i = 0; i < mesh.getNormalCount(); i++) {
+            storage.putFloat(mesh.getNormalX(i)).putFloat(mesh.getNormalY(i)).putFloat(mesh.getNormalZ(i));
+        }
+        int offset = 0;
+        storage.putInt(offset);
+        for (int i = 0; i < polygonCount; i++) {
+            offset += mesh.getPolygonVertexCount(i);
+            storage.putInt(offset);
+        }
+        for (int i = 0; i < polygonCount; i++) {
+            for (int j = 0; j < mesh.getPolygonVertexCount(i); j++) {
+                storage.putInt(mesh.getPolygonVertexIndex(i, j));
+            }
+        }
+        offset = 0;
+        storage.putInt(offset);
+        for (int i = 0; i < polygonCount; i++) {
+            offset += mesh.getPolygonTextureVertexCount(i);
+            storage.putInt(offset);
+        }
+        for (int i = 0; i < polygonCount; i++) {
+            for (int j = 0; j < mesh.getPolygonTextureVertexCount(i); j++) {
+                storage.putInt(mesh.getPolygonTextureVertexIndex(i, j));
+            }
+        }
+        offset = 0;
+        storage.putInt(offset);
+        for (int i = 0; i < polygonCount; i++) {
+            offset += mesh.getPolygonNormalCount(i);
+            storage.putInt(offset);
+        }
+        for (int i = 0; i < polygonCount; i++) {
+            for (int j = 0; j < mesh.getPolygonNormalCount(i); j++) {
+                storage.putInt(mesh.getPolygonNormalIndex(i, j));
+            }
+        }
+
+        return new OffHeapModel(storage.clear(),
+                mesh.getVertexCount(), mesh.getTextureVertexCount(), mesh.getNormalCount(), polygonCount,
+                vertexIndexCount, textureVertexIndexCount, normalIndexCount);
+    }
+
+    static ByteBuffer allocateStorage(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Model is too large for a single buffer: " + size + " bytes.");
+        }
+        return ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() {
+        storage = null;
+        vertices = null;
+        textureVertices = null;
+        normals = null;
+        polygonVertexOffsets = null;
+        vertexIndices = null;
+        polygonTextureVertexOffsets = null;
+        textureVertexIndices = null;
+        polygonNormalOffsets = null;
+        normalIndices = null;
+    }
+
+    public boolean isClosed() {
+        return storage == null;
+    }
+
+    private void checkOpen() {
+        if (storage == null) {
+            throw new IllegalStateException("Off-heap model is closed.");
+        }
+    }
+
+    // Геттеры буферов отдают представления только для чтения без копирования данных
+    public ByteBuffer getStorage() {
+        checkOpen();
+        return storage.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN).clear();
+    }
+
+    public FloatBuffer getVertices() {
+        checkOpen();
+        return vertices.asReadOnlyBuffer();
+    }
+
+    public FloatBuffer getTextureVertices() {
+        checkOpen();
+        return textureVertices.asReadOnlyBuffer();
+    }
+
+    public FloatBuffer getNormals() {
+        checkOpen();
+        return normals.asReadOnlyBuffer();
+    }
+
+    public IntBuffer getPolygonVertexOffsets() {
+        checkOpen();
+        return polygonVertexOffsets.asReadOnlyBuffer();
+    }
+
+    public IntBuffer getVertexIndices() {
+        checkOpen();
+        return vertexIndices.asReadOnlyBuffer();
+    }
+
+    public IntBuffer getPolygonTextureVertexOffsets() {
+        checkOpen();
+        return polygonTextureVertexOffsets.asReadOnlyBuffer();
+    }
+
+    public IntBuffer getTextureVertexIndices() {
+        checkOpen();
+        return textureVertexIndices.asReadOnlyBuffer();
+    }
+
+    public IntBuffer getPolygonNormalOffsets() {
+        checkOpen();
+        return polygonNormalOffsets.asReadOnlyBuffer();
+    }
+
+    public IntBuffer getNormalIndices() {
+        checkOpen();
+        return normalIndices.asReadOnlyBuffer();
+    }
+
+    @Override
+    public int getVertexCount() {
+        checkOpen();
+        return vertices.limit() / 3;
+    }
+
+    @Override
+    public float getVertexX(int index) {
+        checkOpen();
+        return vertices.get(index * 3);
+    }
+
+    @Override
+    public float getVertexY(int index) {
+        checkOpen();
+        return vertices.get(index * 3 + 1);
+    }
+
+    @Override
+    public float getVertexZ(int index) {
+        checkOpen();
+        return vertices.get(index * 3 + 2);
+    }
+
+    @Override
+    public int getTextureVertexCount() {
+        checkOpen();
+        return textureVertices.limit() / 2;
+    }
+
+    @Override
+    public float getTextureVertexX(int index) {
+        checkOpen();
+        return textureVertices.get(index * 2);
+    }
+
+    @Override
+    public float getTextureVertexY(int index) {
+        checkOpen();
+        return textureVertices.get(index * 2 + 1);
+    }
+
+    @Override
+    public int getNormalCount() {
+        checkOpen();
+        return normals.limit() / 3;
+    }
+
+    @Override
+    public float getNormalX(int index) {
+        checkOpen();
+        return normals.get(index * 3);
+    }
+
+    @Override
+    public float getNormalY(int index) {
+        checkOpen();
+        return normals.get(index * 3 + 1);
+    }
+
+    @Override
+    public float getNormalZ(int index) {
+        checkOpen();
+        return normals.get(index * 3 + 2);
+    }
+
+    @Override
+    public int getPolygonCount() {
+        checkOpen();
+        return polygonVertexOffsets.limit() - 1;
+    }
+
+    @Override
+    public int getPolygonVertexCount(int polygon) {
+        checkOpen();
+        return polygonVertexOffsets.get(polygon + 1) - polygonVertexOffsets.get(polygon);
+    }
+
+    @Override
+    public int getPolygonVertexIndex(int polygon, int index) {
+        checkOpen();
+        return vertexIndices.get(polygonVertexOffsets.get(polygon) + index);
+    }
+
+    @Override
+    public int getPolygonTextureVertexCount(int polygon) {
+        checkOpen();
+        return polygonTextureVertexOffsets.get(polygon + 1) - polygonTextureVertexOffsets.get(polygon);
+    }
+
+    @Override
+    public int getPolygonTextureVertexIndex(int polygon, int index) {
+        checkOpen();
+        return textureVertexIndices.get(polygonTextureVertexOffsets.get(polygon) + index);
+    }
+
+    @Override
+    public int getPolygonNormalCount(int polygon) {
+        checkOpen();
+        return polygonNormalOffsets.get(polygon + 1) - polygonNormalOffsets.get(polygon);
+    }
+
+    @Override
+    public int getPolygonNormalIndex(int polygon, int index) {
+        checkOpen();
+        return normalIndices.get(polygonNormalOffsets.get(polygon) + index);
+    }
+}
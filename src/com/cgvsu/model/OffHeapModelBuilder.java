@@ -0,0 +1,100 @@
+package com.cgvsu.model;
+
+import java.nio.ByteBuffer;
+
+// Накапливает элементы модели в растущих прямых буферах, так что при чтении большой модели геометрия не попадает в кучу.
+// build() копирует накопленное в один буфер точного размера и возвращает OffHeapModel.
+public class OffHeapModelBuilder implements MeshBuilder {
+
+    private static final int DEFAULT_CAPACITY = 4 * 1024;
+
+    private ByteBuffer vertices = OffHeapModel.allocateStorage(DEFAULT_CAPACITY);
+    private ByteBuffer textureVertices = OffHeapModel.allocateStorage(DEFAULT_CAPACITY);
+    private ByteBuffer normals = OffHeapModel.allocateStorage(DEFAULT_CAPACITY);
+
+    private ByteBuffer polygonVertexOffsets = OffHeapModel.allocateStorage(DEFAULT_CAPACITY).putInt(0);
+    private ByteBuffer vertexIndices = OffHeapModel.allocateStorage(DEFAULT_CAPACITY);
+    private ByteBuffer polygonTextureVertexOffsets = OffHeapModel.allocateStorage(DEFAULT_CAPACITY).putInt(0);
+    private ByteBuffer textureVertexIndices = OffHeapModel.allocateStorage(DEFAULT_CAPACITY);
+    private ByteBuffer polygonNormalOffsets = OffHeapModel.allocateStorage(DEFAULT_CAPACITY).putInt(0);
+    private ByteBuffer normalIndices = OffHeapModel.allocateStorage(DEFAULT_CAPACITY);
+
+    private int polygonsCount;
+
+    public int getVertexCount() {
+        return vertices.position() / (3 * Float.BYTES);
+    }
+
+    public int getPolygonCount() {
+        return polygonsCount;
+    }
+
+    @Override
+    public void addVertex(float x, float y, float z) {
+        vertices = ensureRemaining(vertices, 3 * Float.BYTES);
+        vertices.putFloat(x).putFloat(y).putFloat(z);
+    }
+
+    @Override
+    public void addTextureVertex(float u, float v) {
+        textureVertices = ensureRemaining(textureVertices, 2 * Float.BYTES);
+        textureVertices.putFloat(u).putFloat(v);
+    }
+
+    @Override
+    public void addNormal(float x, float y, float z) {
+        normals = ensureRemaining(normals, 3 * Float.BYTES);
+        normals.putFloat(x).putFloat(y).putFloat(z);
+    }
+
+    @Override
+    public void addPolygon(int[] polygonVertexIndices, int[] polygonTextureVertexIndices, int[] polygonNormalIndices) {
+        vertexIndices = putInts(vertexIndices, polygonVertexIndices);
+        textureVertexIndices = putInts(textureVertexIndices, polygonTextureVertexIndices);
+        normalIndices = putInts(normalIndices, polygonNormalIndices);
+
+        polygonVertexOffsets = ensureRemaining(polygonVertexOffsets, Integer.BYTES);
+        polygonVertexOffsets.putInt(vertexIndices.position() / Integer.BYTES);
+        polygonTextureVertexOffsets = ensureRemaining(polygonTextureVertexOffsets, Integer.BYTES);
+        polygonTextureVertexOffsets.putInt(textureVertexIndices.position() / Integer.BYTES);
+        polygonNormalOffsets = ensureRemaining(polygonNormalOffsets, Integer.BYTES);
+        polygonNormalOffsets.putInt(normalIndices.position() / Integer.BYTES);
+        ++polygonsCount;
+    }
+
+    public OffHeapModel build() {
+        final int vertexIndexCount = vertexIndices.position() / Integer.BYTES;
+        final int textureVertexIndexCount = textureVertexIndices.position() / Integer.BYTES;
+        final int normalIndexCount = normalIndices.position() / Integer.BYTES;
+        ByteBuffer storage = OffHeapModel.allocateStorage(OffHeapModel.getStorageSize(
+                getVertexCount(), textureVertices.position() / (2 * Float.BYTES), normals.position() / (3 * Float.BYTES),
+                polygonsCount, vertexIndexCount, textureVertexIndexCount, normalIndexCount));
+        for (ByteBuffer block : new ByteBuffer[]{
+                vertices, textureVertices, normals,
+                polygonVertexOffsets, vertexIndices,
+                polygonTextureVertexOffsets, textureVertexIndices,
+                polygonNormalOffsets, normalIndices}) {
+            storage.put(block.duplicate().flip());
+        }
+        return new OffHeapModel(storage.clear(),
+                getVertexCount(), textureVertices.position() / (2 * Float.BYTES), normals.position() / (3 * Float.BYTES),
+                polygonsCount, vertexIndexCount, textureVertexIndexCount, normalIndexCount);
+    }
+
+    private static ByteBuffer putInts(ByteBuffer buffer, int[] values) {
+        ByteBuffer result = ensureRemaining(buffer, values.length * Integer.BYTES);
+        result.asIntBuffer().put(values);
+        result.position(result.position() + values.length * Integer.BYTES);
+        return result;
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        final long capacity = Math.max((long) buffer.capacity() * 2, (long) buffer.position() + bytes);
+        ByteBuffer result = OffHeapModel.allocateStorage(Math.min(capacity, Integer.MAX_VALUE - 8));
+        result.put(buffer.flip());
+        return result;
+    }
+}
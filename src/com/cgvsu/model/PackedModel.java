@@ -0,0 +1,239 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector2f;
+import com.cgvsu.math.Vector3f;
+
+import java.util.ArrayList;
+
+// Модель в плоских массивах примитивов: вместо объекта на каждую вершину и трех списков Integer на каждый полигон
+// здесь несколько массивов на всю модель.
+// Координаты лежат подряд: x0 y0 z0 x1 y1 z1 ... (у текстурных вершин по две).
+// Полигоны хранятся как в CSR: индексы вершин полигона i - это vertexIndices[polygonVertexOffsets[i]]
+// ... vertexIndices[polygonVertexOffsets[i + 1] - 1]. Для текстурных вершин и нормалей свои массивы смещений,
+// так как у полигона их может быть разное кол-во (или не быть вовсе).
+// Геттеры массивов отдают сами массивы без копирования, изменять их нельзя.
+public class PackedModel implements Mesh {
+
+    private final float[] vertices;
+    private final float[] textureVertices;
+    private final float[] normals;
+
+    private final int[] polygonVertexOffsets;
+    private final int[] vertexIndices;
+    private final int[] polygonTextureVertexOffsets;
+    private final int[] textureVertexIndices;
+    private final int[] polygonNormalOffsets;
+    private final int[] normalIndices;
+
+    public PackedModel(
+            float[] vertices,
+            float[] textureVertices,
+            float[] normals,
+            int[] polygonVertexOffsets,
+            int[] vertexIndices,
+            int[] polygonTextureVertexOffsets,
+            int[] textureVertexIndices,
+            int[] polygonNormalOffsets,
+            int[] normalIndices) {
+        if (vertices.length % 3 != 0 || textureVertices.length % 2 != 0 || normals.length % 3 != 0) {
+            throw new IllegalArgumentException("Coordinate arrays must contain whole vertices.");
+        }
+        checkOffsets(polygonVertexOffsets, vertexIndices, polygonVertexOffsets.length);
+        checkOffsets(polygonTextureVertexOffsets, textureVertexIndices, polygonVertexOffsets.length);
+        checkOffsets(polygonNormalOffsets, normalIndices, polygonVertexOffsets.length);
+
+        this.vertices = vertices;
+        this.textureVertices = textureVertices;
+        this.normals = normals;
+        this.polygonVertexOffsets = polygonVertexOffsets;
+        this.vertexIndices = vertexIndices;
+        this.polygonTextureVertexOffsets = polygonTextureVertexOffsets;
+        this.textureVertexIndices = textureVertexIndices;
+        this.polygonNormalOffsets = polygonNormalOffsets;
+        this.normalIndices = normalIndices;
+    }
+
+    private static void checkOffsets(int[] offsets, int[] indices, int expectedLength) {
+        if (offsets.length == 0 || offsets.length != expectedLength
+                || offsets[0] != 0 || offsets[offsets.length - 1] != indices.length) {
+            throw new IllegalArgumentException("Polygon offsets must start with 0, end with the index count and have one entry per polygon plus one.");
+        }
+    }
+
+    public static PackedModel fromModel(Model model) {
+        PackedModelBuilder builder = new PackedModelBuilder(
+                model.vertices.size(), model.textureVertices.size(), model.normals.size(), model.polygons.size());
+        for (Vector3f vertex : model.vertices) {
+            builder.addVertex(vertex.getX(), vertex.getY(), vertex.getZ());
+        }
+        for (Vector2f textureVertex : model.textureVertices) {
+            builder.addTextureVertex(textureVertex.getX(), textureVertex.getY());
+        }
+        for (Vector3f normal : model.normals) {
+            builder.addNormal(normal.getX(), normal.getY(), normal.getZ());
+        }
+        for (Polygon polygon : model.polygons) {
+            builder.addPolygon(polygon.getVertexIndices(), polygon.getTextureVertexIndices(), polygon.getNormalIndices());
+        }
+        return builder.build();
+    }
+
+    public Model toModel() {
+        Model result = new Model();
+        result.vertices.ensureCapacity(getVertexCount());
+        for (int i = 0; i < vertices.length; i += 3) {
+            result.vertices.add(new Vector3f(vertices[i], vertices[i + 1], vertices[i + 2]));
+        }
+        result.textureVertices.ensureCapacity(getTextureVertexCount());
+        for (int i = 0; i < textureVertices.length; i += 2) {
+            result.textureVertices.add(new Vector2f(textureVertices[i], textureVertices[i + 1]));
+        }
+        result.normals.ensureCapacity(getNormalCount());
+        for (int i = 0; i < normals.length; i += 3) {
+            result.normals.add(new Vector3f(normals[i], normals[i + 1], normals[i + 2]));
+        }
+        result.polygons.ensureCapacity(getPolygonCount());
+        for (int i = 0; i < getPolygonCount(); i++) {
+            Polygon polygon = new Polygon();
+            polygon.setVertexIndices(toList(vertexIndices, polygonVertexOffsets[i], polygonVertexOffsets[i + 1]));
+            polygon.setTextureVertexIndices(toList(textureVertexIndices, polygonTextureVertexOffsets[i], polygonTextureVertexOffsets[i + 1]));
+            polygon.setNormalIndices(toList(normalIndices, polygonNormalOffsets[i], polygonNormalOffsets[i + 1]));
+            result.polygons.add(polygon);
+        }
+        return result;
+    }
+
+    private static ArrayList<Integer> toList(int[] values, int from, int to) {
+        ArrayList<Integer> result = new ArrayList<Integer>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(values[i]);
+        }
+        return result;
+    }
+
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    public float[] getTextureVertices() {
+        return textureVertices;
+    }
+
+    public float[] getNormals() {
+        return normals;
+    }
+
+    public int[] getPolygonVertexOffsets() {
+        return polygonVertexOffsets;
+    }
+
+    public int[] getVertexIndices() {
+        return vertexIndices;
+    }
+
+    public int[] getPolygonTextureVertexOffsets() {
+        return polygonTextureVertexOffsets;
+    }
+
+    public int[] getTextureVertexIndices() {
+        return textureVertexIndices;
+    }
+
+    public int[] getPolygonNormalOffsets() {
+        return polygonNormalOffsets;
+    }
+
+    public int[] getNormalIndices() {
+        return normalIndices;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertices.length / 3;
+    }
+
+    @Override
+    public float getVertexX(int index) {
+        return vertices[index * 3];
+    }
+
+    @Override
+    public float getVertexY(int index) {
+        return vertices[index * 3 + 1];
+    }
+
+    @Override
+    public float getVertexZ(int index) {
+        return vertices[index * 3 + 2];
+    }
+
+    @Override
+    public int getTextureVertexCount() {
+        return textureVertices.length / 2;
+    }
+
+    @Override
+    public float getTextureVertexX(int index) {
+        return textureVertices[index * 2];
+    }
+
+    @Override
+    public float getTextureVertexY(int index) {
+        return textureVertices[index * 2 + 1];
+    }
+
+    @Override
+    public int getNormalCount() {
+        return normals.length / 3;
+    }
+
+    @Override
+    public float getNormalX(int index) {
+        return normals[index * 3];
+    }
+
+    @Override
+    public float getNormalY(int index) {
+        return normals[index * 3 + 1];
+    }
+
+    @Override
+    public float getNormalZ(int index) {
+        return normals[index * 3 + 2];
+    }
+
+    @Override
+    public int getPolygonCount() {
+        return polygonVertexOffsets.length - 1;
+    }
+
+    @Override
+    public int getPolygonVertexCount(int polygon) {
+        return polygonVertexOffsets[polygon + 1] - polygonVertexOffsets[polygon];
+    }
+
+    @Override
+    public int getPolygonVertexIndex(int polygon, int index) {
+        return vertexIndices[polygonVertexOffsets[polygon] + index];
+    }
+
+    @Override
+    public int getPolygonTextureVertexCount(int polygon) {
+        return polygonTextureVertexOffsets[polygon + 1] - polygonTextureVertexOffsets[polygon];
+    }
+
+    @Override
+    public int getPolygonTextureVertexIndex(int polygon, int index) {
+        return textureVertexIndices[polygonTextureVertexOffsets[polygon] + index];
+    }
+
+    @Override
+    public int getPolygonNormalCount(int polygon) {
+        return polygonNormalOffsets[polygon + 1] - polygonNormalOffsets[polygon];
+    }
+
+    @Override
+    public int getPolygonNormalIndex(int polygon, int index) {
+        return normalIndices[polygonNormalOffsets[polygon] + index];
+    }
+}
@@ -0,0 +1,147 @@
+package com.cgvsu.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Накапливает элементы модели в растущих массивах примитивов и собирает из них PackedModel.
+// build() обрезает массивы до нужной длины, после него в построитель можно добавлять элементы дальше.
+public class PackedModelBuilder implements MeshBuilder {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private float[] vertices;
+    private int verticesLength;
+    private float[] textureVertices;
+    private int textureVerticesLength;
+    private float[] normals;
+    private int normalsLength;
+
+    private int[] polygonVertexOffsets;
+    private int[] polygonTextureVertexOffsets;
+    private int[] polygonNormalOffsets;
+    private int polygonsCount;
+
+    private int[] vertexIndices;
+    private int vertexIndicesLength;
+    private int[] textureVertexIndices;
+    private int textureVertexIndicesLength;
+    private int[] normalIndices;
+    private int normalIndicesLength;
+
+    public PackedModelBuilder() {
+        this(DEFAULT_CAPACITY, DEFAULT_CAPACITY, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    // Ожидаемые кол-ва элементов нужны только для начального размера массивов
+    public PackedModelBuilder(int expectedVertices, int expectedTextureVertices, int expectedNormals, int expectedPolygons) {
+        vertices = new float[Math.max(1, expectedVertices) * 3];
+        textureVertices = new float[Math.max(1, expectedTextureVertices) * 2];
+        normals = new float[Math.max(1, expectedNormals) * 3];
+        polygonVertexOffsets = new int[Math.max(1, expectedPolygons) + 1];
+        polygonTextureVertexOffsets = new int[polygonVertexOffsets.length];
+        polygonNormalOffsets = new int[polygonVertexOffsets.length];
+        vertexIndices = new int[Math.max(1, expectedPolygons) * 3];
+        textureVertexIndices = new int[expectedTextureVertices > 0 ? vertexIndices.length : 1];
+        normalIndices = new int[expectedNormals > 0 ? vertexIndices.length : 1];
+    }
+
+    public int getVertexCount() {
+        return verticesLength / 3;
+    }
+
+    public int getPolygonCount() {
+        return polygonsCount;
+    }
+
+    @Override
+    public void addVertex(float x, float y, float z) {
+        if (verticesLength + 3 > vertices.length) {
+            vertices = Arrays.copyOf(vertices, vertices.length * 2);
+        }
+        vertices[verticesLength++] = x;
+        vertices[verticesLength++] = y;
+        vertices[verticesLength++] = z;
+    }
+
+    @Override
+    public void addTextureVertex(float u, float v) {
+        if (textureVerticesLength + 2 > textureVertices.length) {
+            textureVertices = Arrays.copyOf(textureVertices, textureVertices.length * 2);
+        }
+        textureVertices[textureVerticesLength++] = u;
+        textureVertices[textureVerticesLength++] = v;
+    }
+
+    @Override
+    public void addNormal(float x, float y, float z) {
+        if (normalsLength + 3 > normals.length) {
+            normals = Arrays.copyOf(normals, normals.length * 2);
+        }
+        normals[normalsLength++] = x;
+        normals[normalsLength++] = y;
+        normals[normalsLength++] = z;
+    }
+
+    // Массивы копируются
+    @Override
+    public void addPolygon(int[] polygonVertexIndices, int[] polygonTextureVertexIndices, int[] polygonNormalIndices) {
+        ensurePolygonCapacity(polygonVertexIndices.length, polygonTextureVertexIndices.length, polygonNormalIndices.length);
+        System.arraycopy(polygonVertexIndices, 0, vertexIndices, vertexIndicesLength, polygonVertexIndices.length);
+        vertexIndicesLength += polygonVertexIndices.length;
+        System.arraycopy(polygonTextureVertexIndices, 0, textureVertexIndices, textureVertexIndicesLength, polygonTextureVertexIndices.length);
+        textureVertexIndicesLength += polygonTextureVertexIndices.length;
+        System.arraycopy(polygonNormalIndices, 0, normalIndices, normalIndicesLength, polygonNormalIndices.length);
+        normalIndicesLength += polygonNormalIndices.length;
+        finishPolygon();
+    }
+
+    public void addPolygon(List<Integer> polygonVertexIndices, List<Integer> polygonTextureVertexIndices, List<Integer> polygonNormalIndices) {
+        ensurePolygonCapacity(polygonVertexIndices.size(), polygonTextureVertexIndices.size(), polygonNormalIndices.size());
+        for (int index : polygonVertexIndices) {
+            vertexIndices[vertexIndicesLength++] = index;
+        }
+        for (int index : polygonTextureVertexIndices) {
+            textureVertexIndices[textureVertexIndicesLength++] = index;
+        }
+        for (int index : polygonNormalIndices) {
+            normalIndices[normalIndicesLength++] = index;
+        }
+        finishPolygon();
+    }
+
+    public PackedModel build() {
+        return new PackedModel(
+                Arrays.copyOf(vertices, verticesLength),
+                Arrays.copyOf(textureVertices, textureVerticesLength),
+                Arrays.copyOf(normals, normalsLength),
+                Arrays.copyOf(polygonVertexOffsets, polygonsCount + 1),
+                Arrays.copyOf(vertexIndices, vertexIndicesLength),
+                Arrays.copyOf(polygonTextureVertexOffsets, polygonsCount + 1),
+                Arrays.copyOf(textureVertexIndices, textureVertexIndicesLength),
+                Arrays.copyOf(polygonNormalOffsets, polygonsCount + 1),
+                Arrays.copyOf(normalIndices, normalIndicesLength));
+    }
+
+    private void ensurePolygonCapacity(int verticesCount, int textureVerticesCount, int normalsCount) {
+        if (polygonsCount + 2 > polygonVertexOffsets.length) {
+            final int newLength = polygonVertexOffsets.length * 2;
+            polygonVertexOffsets = Arrays.copyOf(polygonVertexOffsets, newLength);
+            polygonTextureVertexOffsets = Arrays.copyOf(polygonTextureVertexOffsets, newLength);
+            polygonNormalOffsets = Arrays.copyOf(polygonNormalOffsets, newLength);
+        }
+        vertexIndices = ensureCapacity(vertexIndices, vertexIndicesLength + verticesCount);
+        textureVertexIndices = ensureCapacity(textureVertexIndices, textureVertexIndicesLength + textureVerticesCount);
+        normalIndices = ensureCapacity(normalIndices, normalIndicesLength + normalsCount);
+    }
+
+    private static int[] ensureCapacity(int[] array, int length) {
+        return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+
+    private void finishPolygon() {
+        ++polygonsCount;
+        polygonVertexOffsets[polygonsCount] = vertexIndicesLength;
+        polygonTextureVertexOffsets[polygonsCount] = textureVertexIndicesLength;
+        polygonNormalOffsets[polygonsCount] = normalIndicesLength;
+    }
+}
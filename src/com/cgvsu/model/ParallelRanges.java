@@ -0,0 +1,76 @@
+package com.cgvsu.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Деление элементов [0, count) на диапазоны для потоков пула.
+// На каждый поток приходится несколько диапазонов, чтобы освободившиеся потоки забирали оставшиеся,
+// но диапазон не меньше minRangeSize: на маленьких диапазонах задачи обходятся дороже самой работы.
+// Диапазоны начинаются с номеров, кратных rangeSize(...), и идут по порядку
+final class ParallelRanges {
+
+    private static final int RANGES_PER_THREAD = 4;
+
+    private ParallelRanges() {
+    }
+
+    // Без пула - один диапазон на все элементы
+    static int rangeSize(ForkJoinPool pool, int count, int minRangeSize) {
+        if (pool == null) {
+            return Math.max(1, count);
+        }
+        return Math.max(Math.max(1, minRangeSize), count / (pool.getParallelism() * RANGES_PER_THREAD));
+    }
+
+    static int rangesCount(int count, int rangeSize) {
+        return Math.max(1, (count + rangeSize - 1) / rangeSize);
+    }
+
+    // Если диапазон один, action выполняется на текущем потоке
+    static void forEach(ForkJoinPool pool, int count, int minRangeSize, RangeAction action) {
+        final int rangeSize = rangeSize(pool, count, minRangeSize);
+        if (rangeSize >= count) {
+            action.run(0, count);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int from = 0; from < count; from += rangeSize) {
+            final int rangeFrom = from;
+            final int rangeTo = Math.min(count, from + rangeSize);
+            tasks.add(pool.submit(() -> action.run(rangeFrom, rangeTo)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    // Результаты диапазонов в порядке диапазонов
+    static <T> List<T> map(ForkJoinPool pool, int count, int minRangeSize, RangeFunction<T> function) {
+        final int rangeSize = rangeSize(pool, count, minRangeSize);
+        List<T> result = new ArrayList<>();
+        if (rangeSize >= count) {
+            result.add(function.apply(0, count));
+            return result;
+        }
+        List<ForkJoinTask<T>> tasks = new ArrayList<>();
+        for (int from = 0; from < count; from += rangeSize) {
+            final int rangeFrom = from;
+            final int rangeTo = Math.min(count, from + rangeSize);
+            tasks.add(pool.submit(() -> function.apply(rangeFrom, rangeTo)));
+        }
+        for (ForkJoinTask<T> task : tasks) {
+            result.add(task.join());
+        }
+        return result;
+    }
+
+    interface RangeAction {
+        void run(int from, int to);
+    }
+
+    interface RangeFunction<T> {
+        T apply(int from, int to);
+    }
+}
@@ -0,0 +1,49 @@
+package com.cgvsu.model;
+
+// Ближайшее пересечение луча с моделью (см. MeshBvh).
+// Один объект можно передавать во все запросы подряд, чтобы не создавать новый на каждый луч.
+// Точка пересечения - origin + direction * distance; u и v - барицентрические координаты точки в треугольнике:
+// точка = (1 - u - v) * первый угол + u * второй угол + v * третий угол
+public final class RayHit {
+
+    private float distance;
+    private int triangleIndex = -1;
+    private int polygonIndex = -1;
+    private float u;
+    private float v;
+
+    public float getDistance() {
+        return distance;
+    }
+
+    // Номер треугольника в MeshBvh.getTriangleMesh()
+    public int getTriangleIndex() {
+        return triangleIndex;
+    }
+
+    // Номер полигона модели, из которого получен треугольник
+    public int getPolygonIndex() {
+        return polygonIndex;
+    }
+
+    public float getU() {
+        return u;
+    }
+
+    public float getV() {
+        return v;
+    }
+
+    void set(float distance, int triangleIndex, int polygonIndex, float u, float v) {
+        this.distance = distance;
+        this.triangleIndex = triangleIndex;
+        this.polygonIndex = polygonIndex;
+        this.u = u;
+        this.v = v;
+    }
+
+    @Override
+    public String toString() {
+        return "RayHit{distance=" + distance + ", triangle=" + triangleIndex + ", polygon=" + polygonIndex + '}';
+    }
+}
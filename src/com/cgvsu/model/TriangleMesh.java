@@ -0,0 +1,62 @@
+package com.cgvsu.model;
+
+// Модель, разбитая на треугольники (см. Triangulator).
+// У треугольника i три угла: индексы вершин - vertexIndices[3 * i] ... vertexIndices[3 * i + 2], так же индексы
+// текстурных вершин и нормалей. Если у полигона нет текстурной вершины или нормали для угла, там -1.
+// Углы идут в том же порядке обхода, что и в исходном полигоне, поэтому лицевая сторона не меняется.
+// polygonIndices[i] - из какого полигона получен треугольник i.
+// Геттеры массивов отдают сами массивы без копирования, изменять их нельзя.
+public final class TriangleMesh {
+
+    private final int[] vertexIndices;
+    private final int[] textureVertexIndices;
+    private final int[] normalIndices;
+    private final int[] polygonIndices;
+
+    public TriangleMesh(int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices, int[] polygonIndices) {
+        if (vertexIndices.length != polygonIndices.length * 3
+                || textureVertexIndices.length != vertexIndices.length || normalIndices.length != vertexIndices.length) {
+            throw new IllegalArgumentException("Index arrays must contain three corners for every triangle.");
+        }
+        this.vertexIndices = vertexIndices;
+        this.textureVertexIndices = textureVertexIndices;
+        this.normalIndices = normalIndices;
+        this.polygonIndices = polygonIndices;
+    }
+
+    public int getTriangleCount() {
+        return polygonIndices.length;
+    }
+
+    public int getVertexIndex(int triangle, int corner) {
+        return vertexIndices[triangle * 3 + corner];
+    }
+
+    public int getTextureVertexIndex(int triangle, int corner) {
+        return textureVertexIndices[triangle * 3 + corner];
+    }
+
+    public int getNormalIndex(int triangle, int corner) {
+        return normalIndices[triangle * 3 + corner];
+    }
+
+    public int getPolygonIndex(int triangle) {
+        return polygonIndices[triangle];
+    }
+
+    public int[] getVertexIndices() {
+        return vertexIndices;
+    }
+
+    public int[] getTextureVertexIndices() {
+        return textureVertexIndices;
+    }
+
+    public int[] getNormalIndices() {
+        return normalIndices;
+    }
+
+    public int[] getPolygonIndices() {
+        return polygonIndices;
+    }
+}
@@ -0,0 +1,225 @@
+package com.cgvsu.model;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Разбиение полигонов модели на треугольники.
+// Полигон из n вершин всегда дает n - 2 треугольника, поэтому место каждого полигона в результате известно заранее
+// и полигоны можно разбивать независимо, в том числе на разных потоках, сразу в общие массивы.
+// Выпуклые полигоны разбиваются веером из первой вершины, невыпуклые - отсечением ушей.
+// Для этого полигон проецируется на координатную плоскость, наиболее перпендикулярную его нормали (по Ньюэллу).
+// Если уха не нашлось (самопересекающийся или вырожденный полигон), отсекается очередная вершина как есть,
+// чтобы кол-во треугольников все равно было n - 2.
+// Полигоны меньше чем из трех вершин пропускаются
+public final class Triangulator {
+
+    private static final int MIN_RANGE_SIZE = 4 * 1024;
+
+    private final Mesh mesh;
+    private final int[] vertexIndices;
+    private final int[] textureVertexIndices;
+    private final int[] normalIndices;
+    private final int[] polygonIndices;
+
+    // рабочие массивы для одного полигона, растут до размера самого большого полигона
+    private double[] u = new double[0];
+    private double[] v = new double[0];
+    private int[] previous = new int[0];
+    private int[] next = new int[0];
+
+    private Triangulator(Mesh mesh, int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices, int[] polygonIndices) {
+        this.mesh = mesh;
+        this.vertexIndices = vertexIndices;
+        this.textureVertexIndices = textureVertexIndices;
+        this.normalIndices = normalIndices;
+        this.polygonIndices = polygonIndices;
+    }
+
+    public static TriangleMesh triangulate(Mesh mesh) {
+        final int[] triangleOffsets = countTriangles(mesh);
+        final int trianglesCount = triangleOffsets[mesh.getPolygonCount()];
+        TriangleMesh result = new TriangleMesh(
+                new int[trianglesCount * 3], new int[trianglesCount * 3], new int[trianglesCount * 3], new int[trianglesCount]);
+        newTriangulator(mesh, result).triangulateRange(0, mesh.getPolygonCount(), triangleOffsets);
+        return result;
+    }
+
+    // То же на потоках pool; результат тот же, что и у последовательного разбиения
+    public static TriangleMesh triangulate(Mesh mesh, ForkJoinPool pool) {
+        return triangulate(mesh, pool, MIN_RANGE_SIZE);
+    }
+
+    static TriangleMesh triangulate(Mesh mesh, ForkJoinPool pool, int minRangeSize) {
+        final int[] triangleOffsets = countTriangles(mesh);
+        final int polygonsCount = mesh.getPolygonCount();
+        final int trianglesCount = triangleOffsets[polygonsCount];
+        TriangleMesh result = new TriangleMesh(
+                new int[trianglesCount * 3], new int[trianglesCount * 3], new int[trianglesCount * 3], new int[trianglesCount]);
+
+        ParallelRanges.forEach(pool, polygonsCount, minRangeSize,
+                (from, to) -> newTriangulator(mesh, result).triangulateRange(from, to, triangleOffsets));
+        return result;
+    }
+
+    private static Triangulator newTriangulator(Mesh mesh, TriangleMesh result) {
+        return new Triangulator(mesh, result.getVertexIndices(), result.getTextureVertexIndices(),
+                result.getNormalIndices(), result.getPolygonIndices());
+    }
+
+    // triangleOffsets[i] - номер первого треугольника полигона i, последний элемент - кол-во всех треугольников
+    private static int[] countTriangles(Mesh mesh) {
+        final int polygonsCount = mesh.getPolygonCount();
+        int[] result = new int[polygonsCount + 1];
+        long trianglesCount = 0;
+        for (int i = 0; i < polygonsCount; i++) {
+            result[i] = (int) trianglesCount;
+            trianglesCount += Math.max(0, mesh.getPolygonVertexCount(i) - 2);
+            if (trianglesCount * 3 > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Model has too many triangles.");
+            }
+        }
+        result[polygonsCount] = (int) trianglesCount;
+        return result;
+    }
+
+    private void triangulateRange(int from, int to, int[] triangleOffsets) {
+        for (int polygon = from; polygon < to; polygon++) {
+            final int verticesCount = mesh.getPolygonVertexCount(polygon);
+            if (verticesCount < 3) {
+                continue;
+            }
+            final int firstTriangle = triangleOffsets[polygon];
+            if (verticesCount == 3 || !project(polygon, verticesCount) || isConvex(verticesCount)) {
+                for (int i = 1; i < verticesCount - 1; i++) {
+                    addTriangle(polygon, firstTriangle + i - 1, 0, i, i + 1);
+                }
+            } else {
+                clipEars(polygon, verticesCount, firstTriangle);
+            }
+        }
+    }
+
+    // Проекция вершин полигона в u, v так, чтобы обход был против часовой стрелки.
+    // false, если у полигона нет нормали (все вершины на одной прямой) - тогда и разбивать по-умному незачем
+    private boolean project(int polygon, int verticesCount) {
+        if (u.length < verticesCount) {
+            final int capacity = Math.max(verticesCount, u.length * 2);
+            u = new double[capacity];
+            v = new double[capacity];
+            previous = new int[capacity];
+            next = new int[capacity];
+        }
+        double normalX = 0;
+        double normalY = 0;
+        double normalZ = 0;
+        int vertex = mesh.getPolygonVertexIndex(polygon, verticesCount - 1);
+        double previousX = mesh.getVertexX(vertex);
+        double previousY = mesh.getVertexY(vertex);
+        double previousZ = mesh.getVertexZ(vertex);
+        for (int i = 0; i < verticesCount; i++) {
+            vertex = mesh.getPolygonVertexIndex(polygon, i);
+            final double x = mesh.getVertexX(vertex);
+            final double y = mesh.getVertexY(vertex);
+            final double z = mesh.getVertexZ(vertex);
+            normalX += (previousY - y) * (previousZ + z);
+            normalY += (previousZ - z) * (previousX + x);
+            normalZ += (previousX - x) * (previousY + y);
+            previousX = x;
+            previousY = y;
+            previousZ = z;
+        }
+
+        final double absX = Math.abs(normalX);
+        final double absY = Math.abs(normalY);
+        final double absZ = Math.abs(normalZ);
+        if (absX + absY + absZ == 0 || Double.isNaN(absX + absY + absZ)) {
+            return false;
+        }
+        for (int i = 0; i < verticesCount; i++) {
+            vertex = mesh.getPolygonVertexIndex(polygon, i);
+            if (absZ >= absX && absZ >= absY) {
+                u[i] = normalZ > 0 ? mesh.getVertexX(vertex) : -mesh.getVertexX(vertex);
+                v[i] = mesh.getVertexY(vertex);
+            } else if (absX >= absY) {
+                u[i] = normalX > 0 ? mesh.getVertexY(vertex) : -mesh.getVertexY(vertex);
+                v[i] = mesh.getVertexZ(vertex);
+            } else {
+                u[i] = normalY > 0 ? mesh.getVertexZ(vertex) : -mesh.getVertexZ(vertex);
+                v[i] = mesh.getVertexX(vertex);
+            }
+        }
+        return true;
+    }
+
+    private boolean isConvex(int verticesCount) {
+        for (int i = 0; i < verticesCount; i++) {
+            final int before = i == 0 ? verticesCount - 1 : i - 1;
+            final int after = i == verticesCount - 1 ? 0 : i + 1;
+            if (cross(before, i, after) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void clipEars(int polygon, int verticesCount, int firstTriangle) {
+        for (int i = 0; i < verticesCount; i++) {
+            previous[i] = i == 0 ? verticesCount - 1 : i - 1;
+            next[i] = i == verticesCount - 1 ? 0 : i + 1;
+        }
+        int triangle = firstTriangle;
+        int current = 0;
+        int remaining = verticesCount;
+        // сколько вершин подряд проверено без отсечения уха
+        int misses = 0;
+        while (remaining > 3) {
+            final int before = previous[current];
+            final int after = next[current];
+            if (isEar(before, current, after) || misses >= remaining) {
+                addTriangle(polygon, triangle++, before, current, after);
+                next[before] = after;
+                previous[after] = before;
+                --remaining;
+                misses = 0;
+                // после отсечения ухом могла стать предыдущая вершина
+                current = before;
+            } else {
+                ++misses;
+                current = after;
+            }
+        }
+        addTriangle(polygon, triangle, previous[current], current, next[current]);
+    }
+
+    // Ухо - выпуклая вершина, в треугольнике которой с соседями нет других оставшихся вершин
+    private boolean isEar(int before, int current, int after) {
+        if (cross(before, current, after) <= 0) {
+            return false;
+        }
+        for (int i = next[after]; i != before; i = next[i]) {
+            if (cross(before, current, i) >= 0 && cross(current, after, i) >= 0 && cross(after, before, i) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // > 0, если поворот a -> b -> c против часовой стрелки
+    private double cross(int a, int b, int c) {
+        return (u[b] - u[a]) * (v[c] - v[a]) - (v[b] - v[a]) * (u[c] - u[a]);
+    }
+
+    private void addTriangle(int polygon, int triangle, int a, int b, int c) {
+        final int textureVerticesCount = mesh.getPolygonTextureVertexCount(polygon);
+        final int normalsCount = mesh.getPolygonNormalCount(polygon);
+        polygonIndices[triangle] = polygon;
+        addCorner(polygon, triangle * 3, a, textureVerticesCount, normalsCount);
+        addCorner(polygon, triangle * 3 + 1, b, textureVerticesCount, normalsCount);
+        addCorner(polygon, triangle * 3 + 2, c, textureVerticesCount, normalsCount);
+    }
+
+    private void addCorner(int polygon, int index, int corner, int textureVerticesCount, int normalsCount) {
+        vertexIndices[index] = mesh.getPolygonVertexIndex(polygon, corner);
+        textureVertexIndices[index] = corner < textureVerticesCount ? mesh.getPolygonTextureVertexIndex(polygon, corner) : -1;
+        normalIndices[index] = corner < normalsCount ? mesh.getPolygonNormalIndex(polygon, corner) : -1;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cgvsu.model;
+
+// Вершины и индексы для отрисовки: у каждой вершины одна пара положение/текстурная вершина/нормаль, поэтому
+// углам треугольников нужен один индекс, а не три, как в OBJ (см. VertexBufferBuilder).
+// Вершина i занимает vertices[i * STRIDE] ... vertices[i * STRIDE + STRIDE - 1]: x y z, u v, nx ny nz.
+// Если у угла не было текстурной вершины или нормали, там нули.
+// Треугольник i - вершины indices[3 * i], indices[3 * i + 1], indices[3 * i + 2].
+// Геттеры массивов отдают сами массивы без копирования, изменять их нельзя.
+public final class VertexBuffer {
+
+    public static final int STRIDE = 8;
+    public static final int POSITION_OFFSET = 0;
+    public static final int TEXTURE_VERTEX_OFFSET = 3;
+    public static final int NORMAL_OFFSET = 5;
+
+    private final float[] vertices;
+    private final int[] indices;
+
+    public VertexBuffer(float[] vertices, int[] indices) {
+        if (vertices.length % STRIDE != 0 || indices.length % 3 != 0) {
+            throw new IllegalArgumentException("Vertex buffer must contain whole vertices and whole triangles.");
+        }
+        this.vertices = vertices;
+        this.indices = indices;
+    }
+
+    public int getVertexCount() {
+        return vertices.length / STRIDE;
+    }
+
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+}
@@ -0,0 +1,168 @@
+package com.cgvsu.model;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Построение VertexBuffer из треугольников модели.
+// Каждая различная тройка (вершина, текстурная вершина, нормаль) углов становится одной вершиной буфера.
+// Номера вершинам буфера выдаются в порядке первого появления тройки среди углов треугольников.
+//
+// Тройки ищутся в двух LongIntMap: пара (вершина, текстурная вершина) получает номер пары,
+// а пара (номер пары, нормаль) - номер тройки. Параллельно треугольники делятся на диапазоны, и у каждого диапазона своя таблица.
+// Потом различные тройки всех диапазонов по порядку сливаются в общую таблицу. Так порядок вершин тот же,
+// что и при последовательном построении, а в общую таблицу попадают только различные тройки диапазонов, а не все углы
+public final class VertexBufferBuilder {
+
+    private static final int MIN_RANGE_SIZE = 16 * 1024;
+
+    private VertexBufferBuilder() {
+    }
+
+    public static VertexBuffer build(Mesh mesh) {
+        return build(mesh, Triangulator.triangulate(mesh));
+    }
+
+    public static VertexBuffer build(Mesh mesh, TriangleMesh triangles) {
+        final int cornersCount = triangles.getTriangleCount() * 3;
+        Range range = new Range(0, cornersCount);
+        range.collect(triangles);
+        // диапазон один, и номера троек диапазона - это и есть номера вершин буфера
+        return new VertexBuffer(interleave(mesh, range.tuples, range.tuplesCount), range.localIndices);
+    }
+
+    // То же на потоках pool; результат тот же, что и у последовательного построения
+    public static VertexBuffer build(Mesh mesh, TriangleMesh triangles, ForkJoinPool pool) {
+        return build(mesh, triangles, pool, MIN_RANGE_SIZE);
+    }
+
+    static VertexBuffer build(Mesh mesh, TriangleMesh triangles, ForkJoinPool pool, int minRangeSize) {
+        final int trianglesCount = triangles.getTriangleCount();
+        if (ParallelRanges.rangeSize(pool, trianglesCount, minRangeSize) >= trianglesCount) {
+            return build(mesh, triangles);
+        }
+
+        List<Range> ranges = ParallelRanges.map(pool, trianglesCount, minRangeSize, (from, to) -> {
+            Range range = new Range(from * 3, to * 3);
+            range.collect(triangles);
+            return range;
+        });
+
+        int tuplesCapacity = 0;
+        for (Range range : ranges) {
+            tuplesCapacity += range.tuplesCount;
+        }
+        TupleTable table = new TupleTable(tuplesCapacity);
+        int[] tuples = new int[tuplesCapacity * 3];
+        int tuplesCount = 0;
+        for (Range range : ranges) {
+            range.globalIndices = new int[range.tuplesCount];
+            for (int i = 0; i < range.tuplesCount; i++) {
+                final int vertex = range.tuples[i * 3];
+                final int textureVertex = range.tuples[i * 3 + 1];
+                final int normal = range.tuples[i * 3 + 2];
+                final int index = table.getOrAdd(vertex, textureVertex, normal, tuplesCount);
+                if (index == tuplesCount) {
+                    tuples[tuplesCount * 3] = vertex;
+                    tuples[tuplesCount * 3 + 1] = textureVertex;
+                    tuples[tuplesCount * 3 + 2] = normal;
+                    ++tuplesCount;
+                }
+                range.globalIndices[i] = index;
+            }
+        }
+
+        // перенумерация углов идет на потоках пула, пока текущий поток собирает вершины буфера
+        int[] indices = new int[trianglesCount * 3];
+        ForkJoinTask<?> remap = pool.submit(() -> ParallelRanges.forEach(pool, ranges.size(), 1, (from, to) -> {
+            for (Range range : ranges.subList(from, to)) {
+                for (int i = range.from; i < range.to; i++) {
+                    indices[i] = range.globalIndices[range.localIndices[i - range.from]];
+                }
+            }
+        }));
+        float[] vertices = interleave(mesh, tuples, tuplesCount);
+        remap.join();
+        return new VertexBuffer(vertices, indices);
+    }
+
+    private static float[] interleave(Mesh mesh, int[] tuples, int tuplesCount) {
+        float[] result = new float[tuplesCount * VertexBuffer.STRIDE];
+        for (int i = 0; i < tuplesCount; i++) {
+            final int offset = i * VertexBuffer.STRIDE;
+            final int vertex = tuples[i * 3];
+            final int textureVertex = tuples[i * 3 + 1];
+            final int normal = tuples[i * 3 + 2];
+            result[offset + VertexBuffer.POSITION_OFFSET] = mesh.getVertexX(vertex);
+            result[offset + VertexBuffer.POSITION_OFFSET + 1] = mesh.getVertexY(vertex);
+            result[offset + VertexBuffer.POSITION_OFFSET + 2] = mesh.getVertexZ(vertex);
+            if (textureVertex >= 0) {
+                result[offset + VertexBuffer.TEXTURE_VERTEX_OFFSET] = mesh.getTextureVertexX(textureVertex);
+                result[offset + VertexBuffer.TEXTURE_VERTEX_OFFSET + 1] = mesh.getTextureVertexY(textureVertex);
+            }
+            if (normal >= 0) {
+                result[offset + VertexBuffer.NORMAL_OFFSET] = mesh.getNormalX(normal);
+                result[offset + VertexBuffer.NORMAL_OFFSET + 1] = mesh.getNormalY(normal);
+                result[offset + VertexBuffer.NORMAL_OFFSET + 2] = mesh.getNormalZ(normal);
+            }
+        }
+        return result;
+    }
+
+    // Углы треугольников с from по to (не включая) и различные тройки среди них
+    private static final class Range {
+        private final int from;
+        private final int to;
+        // номер тройки угла среди троек диапазона
+        private int[] localIndices;
+        // различные тройки в порядке появления: вершина, текстурная вершина, нормаль
+        private int[] tuples;
+        private int tuplesCount;
+        private int[] globalIndices;
+
+        Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        void collect(TriangleMesh triangles) {
+            final int[] vertexIndices = triangles.getVertexIndices();
+            final int[] textureVertexIndices = triangles.getTextureVertexIndices();
+            final int[] normalIndices = triangles.getNormalIndices();
+            localIndices = new int[to - from];
+            tuples = new int[(to - from) * 3];
+            TupleTable table = new TupleTable(to - from);
+            for (int i = from; i < to; i++) {
+                final int index = table.getOrAdd(vertexIndices[i], textureVertexIndices[i], normalIndices[i], tuplesCount);
+                if (index == tuplesCount) {
+                    tuples[tuplesCount * 3] = vertexIndices[i];
+                    tuples[tuplesCount * 3 + 1] = textureVertexIndices[i];
+                    tuples[tuplesCount * 3 + 2] = normalIndices[i];
+                    ++tuplesCount;
+                }
+                localIndices[i - from] = index;
+            }
+        }
+    }
+
+    // Таблица "тройка -> номер" из двух LongIntMap. Размер известен заранее, поэтому таблицы не растут
+    private static final class TupleTable {
+        private final LongIntMap pairs;
+        private final LongIntMap tuples;
+
+        TupleTable(int maxSize) {
+            pairs = new LongIntMap(maxSize);
+            tuples = new LongIntMap(maxSize);
+        }
+
+        // Номер тройки; если ее еще нет, она добавляется с номером newValue
+        int getOrAdd(int vertex, int textureVertex, int normal, int newValue) {
+            final int pair = pairs.getOrAdd(key(vertex, textureVertex), pairs.size());
+            return tuples.getOrAdd(key(pair, normal), newValue);
+        }
+
+        private static long key(int high, int low) {
+            return ((long) high << 32) | (low & 0xFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+
+import java.util.ArrayList;
+
+// Слияние вершин, которые находятся не дальше tolerance друг от друга.
+// Вершины перебираются по порядку; вершина сливается с первой из уже оставленных вершин в пределах tolerance,
+// иначе остается сама. Оставленные вершины раскладываются по ячейкам сетки со стороной не меньше tolerance, поэтому
+// искать соседей нужно только в 27 ближайших ячейках, и все слияние занимает почти линейное время.
+// Номера ячейки по трем осям считаются от минимума габаритов и упаковываются в один long - ключ LongIntMap,
+// без объектов на каждую вершину. Чтобы номер помещался в CELL_BITS бит, на очень больших по сравнению
+// с tolerance моделях ячейка больше tolerance: результат от этого не меняется, в ячейке просто больше вершин.
+// Вершины с NaN или бесконечностью в координатах не сливаются ни с чем.
+// После слияния у полигона могут совпасть вершины - такой полигон не пройдет проверку ObjReader.checkMeshAfterReading
+public final class VertexWelder {
+
+    private static final int CELL_BITS = 21;
+    // наибольший номер ячейки по оси - 2^20, еще один бит - запас на соседнюю ячейку и округление
+    private static final double MAX_CELL_INDEX = 1 << (CELL_BITS - 1);
+
+    private VertexWelder() {
+    }
+
+    // Возвращает для каждой вершины номер вершины, с которой она сливается (ее собственный, если ни с какой)
+    public static int[] findDuplicates(Mesh mesh, float tolerance) {
+        if (!(tolerance >= 0) || Float.isInfinite(tolerance)) {
+            throw new IllegalArgumentException("Weld tolerance must be a non-negative finite number.");
+        }
+        final int verticesCount = mesh.getVertexCount();
+        final double squaredTolerance = (double) tolerance * tolerance;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < verticesCount; i++) {
+            final float x = mesh.getVertexX(i);
+            final float y = mesh.getVertexY(i);
+            final float z = mesh.getVertexZ(i);
+            if (Float.isFinite(x) && Float.isFinite(y) && Float.isFinite(z)) {
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+            }
+        }
+        final double maxExtent = minX <= maxX ? Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) : 0;
+        double cellSize = Math.max(tolerance, maxExtent / MAX_CELL_INDEX);
+        if (cellSize == 0) {
+            cellSize = 1;
+        }
+
+        int[] result = new int[verticesCount];
+        // следующая оставленная вершина в той же ячейке
+        int[] nextInCell = new int[verticesCount];
+        // ключ ячейки -> последняя оставленная в ней вершина
+        LongIntMap cells = new LongIntMap(verticesCount);
+
+        for (int i = 0; i < verticesCount; i++) {
+            result[i] = i;
+            final float x = mesh.getVertexX(i);
+            final float y = mesh.getVertexY(i);
+            final float z = mesh.getVertexZ(i);
+            if (!Float.isFinite(x) || !Float.isFinite(y) || !Float.isFinite(z)) {
+                continue;
+            }
+            final long cellX = (long) Math.floor((x - minX) / cellSize);
+            final long cellY = (long) Math.floor((y - minY) / cellSize);
+            final long cellZ = (long) Math.floor((z - minZ) / cellSize);
+
+            int found = -1;
+            for (long dx = -1; dx <= 1; dx++) {
+                for (long dy = -1; dy <= 1; dy++) {
+                    for (long dz = -1; dz <= 1; dz++) {
+                        if (cellX + dx >= 0 && cellY + dy >= 0 && cellZ + dz >= 0) {
+                            found = findInCell(mesh, cells.get(cellKey(cellX + dx, cellY + dy, cellZ + dz)), nextInCell,
+                                    x, y, z, squaredTolerance, found);
+                        }
+                    }
+                }
+            }
+            if (found >= 0) {
+                result[i] = found;
+            } else {
+                nextInCell[i] = cells.put(cellKey(cellX, cellY, cellZ), i);
+            }
+        }
+        return result;
+    }
+
+    // Номера ячейки неотрицательные и меньше 2^CELL_BITS
+    private static long cellKey(long cellX, long cellY, long cellZ) {
+        return cellX | cellY << CELL_BITS | cellZ << (2 * CELL_BITS);
+    }
+
+    // Первая (с наименьшим номером) вершина ячейки в пределах tolerance, или found, если у нее номер меньше
+    private static int findInCell(Mesh mesh, int head, int[] nextInCell, float x, float y, float z,
+                                  double squaredTolerance, int found) {
+        for (int vertex = head; vertex >= 0; vertex = nextInCell[vertex]) {
+            if (found >= 0 && vertex > found) {
+                continue;
+            }
+            final double dx = mesh.getVertexX(vertex) - x;
+            final double dy = mesh.getVertexY(vertex) - y;
+            final double dz = mesh.getVertexZ(vertex) - z;
+            if (dx * dx + dy * dy + dz * dz <= squaredTolerance) {
+                found = vertex;
+            }
+        }
+        return found;
+    }
+
+    // Сливает вершины модели: из model.vertices удаляются слитые вершины, индексы вершин в полигонах меняются
+    // на новые. Оставшиеся вершины сохраняют свой порядок. Возвращает кол-во удаленных вершин
+    public static int weld(Model model, float tolerance) {
+        final int[] duplicates = findDuplicates(model, tolerance);
+        final int verticesCount = duplicates.length;
+        int[] newIndices = new int[verticesCount];
+        int keptCount = 0;
+        for (int i = 0; i < verticesCount; i++) {
+            if (duplicates[i] == i) {
+                Vector3f vertex = model.vertices.get(i);
+                model.vertices.set(keptCount, vertex);
+                newIndices[i] = keptCount++;
+            } else {
+                // оставленная вершина всегда с меньшим номером, ее новый номер уже известен
+                newIndices[i] = newIndices[duplicates[i]];
+            }
+        }
+        if (keptCount == verticesCount) {
+            return 0;
+        }
+        model.vertices.subList(keptCount, verticesCount).clear();
+
+        for (Polygon polygon : model.polygons) {
+            ArrayList<Integer> vertexIndices = polygon.getVertexIndices();
+            for (int i = 0; i < vertexIndices.size(); i++) {
+                final int vertexIndex = vertexIndices.get(i);
+                // индексы за пределами модели оставляются как есть, чтобы их нашла проверка модели
+                if (vertexIndex >= 0 && vertexIndex < verticesCount && newIndices[vertexIndex] != vertexIndex) {
+                    vertexIndices.set(i, newIndices[vertexIndex]);
+                }
+            }
+        }
+        return verticesCount - keptCount;
+    }
+}
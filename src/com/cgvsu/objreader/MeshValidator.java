@@ -0,0 +1,180 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Mesh;
+
+// Проверка полигонов модели без выделения памяти на каждый полигон.
+// Сообщения об ошибках те же, что и у прежней проверки в ObjReader.
+//
+// Как и прежняя проверка, полигон отвергается, если для какой-то пары вершин (k, l) после первой векторное произведение
+// векторов из первой вершины в k и l в точности равно нулю. Для треугольников и четырехугольников все такие пары - это (1, l)
+// и (2, 3), и проверка линейна. В полигонах от пяти вершин перебираются все пары, как раньше: равенство нулю произведения
+// в float не транзитивно, поэтому быстрее с тем же результатом не получится. Векторы из первой вершины считаются один раз
+// и хранятся в переиспользуемом массиве.
+//
+// Какие проверки выполняются, задает ObjReaderOptions: на уровне INDICES_ONLY геометрия полигонов не проверяется,
+// а проверка плоскостности включается отдельно.
+final class MeshValidator {
+
+    private final Mesh mesh;
+    private final boolean geometryChecked;
+    private final boolean planarityChecked;
+    private final float planarityEpsilon;
+
+    // Векторы из первой вершины полигона в остальные для перебора пар: x, y, z подряд
+    private float[] directions = new float[48];
+
+    MeshValidator(Mesh mesh) {
+        this(mesh, ObjReaderOptions.DEFAULT);
+    }
+
+    MeshValidator(Mesh mesh, ObjReaderOptions options) {
+        this.mesh = mesh;
+        this.geometryChecked = options.getValidationLevel() == ObjReaderOptions.ValidationLevel.FULL_GEOMETRY;
+        this.planarityChecked = options.isPlanarityChecked();
+        this.planarityEpsilon = options.getPlanarityEpsilon();
+    }
+
+    // polygonIndex - номер полигона для сообщений об ошибках.
+    // Возвращает 2, если у полигона есть текстурные вершины, плюс 3, если есть нормали
+    int checkPolygon(int polygon, int polygonIndex) {
+        int counter = 0;
+
+        final int polygonVerticesCount = mesh.getPolygonVertexCount(polygon);
+        if (polygonVerticesCount < 3) {
+            throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": it consists only of 2 or fewer vertices.");
+        }
+
+        final int polygonTextureVerticesCount = mesh.getPolygonTextureVertexCount(polygon);
+        final int polygonNormalsCount = mesh.getPolygonNormalCount(polygon);
+        if (polygonVerticesCount != polygonTextureVerticesCount && (polygonTextureVerticesCount != 0)) {
+            throw new RuntimeException("Not all vertices of polygon number " + (polygonIndex + 1) + " have a texture vertex attached to them."); // не ко всем вершинам полигона номер i привязана текстурная вершина
+        } else if (polygonVerticesCount != polygonNormalsCount && (polygonNormalsCount != 0)) {
+            throw new RuntimeException("Not all vertices of polygon number " + (polygonIndex + 1) + " have a normals attached to them."); // не ко всем вершинам полигона номер i привяза нормаль
+        }
+
+        if (polygonTextureVerticesCount != 0) {
+            counter+=2;
+        }
+        if (polygonNormalsCount != 0) {
+            counter+=3;
+        }
+
+        // Существование вершин проверяется в том же порядке, что и раньше, вперемешку с парами (1, l),
+        // чтобы при нескольких ошибках сообщалось о той же: это в точности первый проход прежнего перебора
+        final int firstVertex = mesh.getPolygonVertexIndex(polygon, 0);
+        final int secondVertex = mesh.getPolygonVertexIndex(polygon, 1);
+        checkVertexExists(secondVertex, polygonIndex);
+        checkVertexExists(firstVertex, polygonIndex);
+        for (int l = 2; l < polygonVerticesCount; l++) {
+            final int lVertex = mesh.getPolygonVertexIndex(polygon, l);
+            checkVertexExists(lVertex, polygonIndex);
+            if (geometryChecked) {
+                checkNotCollinear(firstVertex, secondVertex, lVertex, polygonIndex);
+            }
+        }
+        if (geometryChecked) {
+            if (polygonVerticesCount == 4) {
+                checkNotCollinear(firstVertex, mesh.getPolygonVertexIndex(polygon, 2), mesh.getPolygonVertexIndex(polygon, 3), polygonIndex);
+            } else if (polygonVerticesCount > 4) {
+                checkPairsNotCollinear(polygon, polygonVerticesCount, firstVertex, polygonIndex);
+            }
+            if (planarityChecked && polygonVerticesCount > 3) {
+                checkPlanar(polygon, polygonVerticesCount, firstVertex, secondVertex, polygonIndex);
+            }
+        }
+
+        for (int k = 0; k < polygonTextureVerticesCount; k++) {
+            final int textureVertex = mesh.getPolygonTextureVertexIndex(polygon, k);
+            if (textureVertex >= mesh.getTextureVertexCount() || textureVertex == -1) {
+                throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no texture vertex with number " + (textureVertex + 1) + " in the file."); // в файле нет текстурной вершины с номером k
+            }
+        }
+
+        for (int l = 0; l < polygonNormalsCount; l++) {
+            final int normal = mesh.getPolygonNormalIndex(polygon, l);
+            if (normal >= mesh.getNormalCount() || normal == -1) {
+                throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no normal with number " + (normal + 1) + " in the file."); // в файле нет нормали с номером l
+            }
+        }
+        return counter;
+    }
+
+    private void checkVertexExists(int vertex, int polygonIndex) {
+        if (vertex < 0 || vertex >= mesh.getVertexCount()) {
+            throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no vertex with number " + (vertex + 1) + " in the file.");
+        }
+    }
+
+    // Та же формула в float, что и в прежней проверке: векторное произведение векторов из первой вершины в k и l
+    private void checkNotCollinear(int firstVertex, int kVertex, int lVertex, int polygonIndex) {
+        final float firstX = mesh.getVertexX(kVertex) - mesh.getVertexX(firstVertex);
+        final float firstY = mesh.getVertexY(kVertex) - mesh.getVertexY(firstVertex);
+        final float firstZ = mesh.getVertexZ(kVertex) - mesh.getVertexZ(firstVertex);
+        final float secondX = mesh.getVertexX(lVertex) - mesh.getVertexX(firstVertex);
+        final float secondY = mesh.getVertexY(lVertex) - mesh.getVertexY(firstVertex);
+        final float secondZ = mesh.getVertexZ(lVertex) - mesh.getVertexZ(firstVertex);
+        final float productX = firstY * secondZ - firstZ * secondY;
+        final float productY = firstZ * secondX - firstX * secondZ;
+        final float productZ = firstX * secondY - firstY * secondX;
+        if (productX == 0 && productY == 0 && productZ == 0) {
+            throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": some of its points lie on the same line or are identical.");
+        }
+    }
+
+    // Пары (k, l) при 2 <= k < l - пары с первой вершиной (1, l) уже проверены
+    private void checkPairsNotCollinear(int polygon, int polygonVerticesCount, int firstVertex, int polygonIndex) {
+        if (directions.length < polygonVerticesCount * 3) {
+            directions = new float[Integer.highestOneBit(polygonVerticesCount * 3 - 1) << 1];
+        }
+        final float originX = mesh.getVertexX(firstVertex);
+        final float originY = mesh.getVertexY(firstVertex);
+        final float originZ = mesh.getVertexZ(firstVertex);
+        for (int k = 2; k < polygonVerticesCount; k++) {
+            final int vertex = mesh.getPolygonVertexIndex(polygon, k);
+            directions[k * 3] = mesh.getVertexX(vertex) - originX;
+            directions[k * 3 + 1] = mesh.getVertexY(vertex) - originY;
+            directions[k * 3 + 2] = mesh.getVertexZ(vertex) - originZ;
+        }
+        for (int k = 2; k < polygonVerticesCount - 1; k++) {
+            final float firstX = directions[k * 3];
+            final float firstY = directions[k * 3 + 1];
+            final float firstZ = directions[k * 3 + 2];
+            for (int l = k + 1; l < polygonVerticesCount; l++) {
+                final float secondX = directions[l * 3];
+                final float secondY = directions[l * 3 + 1];
+                final float secondZ = directions[l * 3 + 2];
+                if (firstY * secondZ - firstZ * secondY == 0
+                        && firstZ * secondX - firstX * secondZ == 0
+                        && firstX * secondY - firstY * secondX == 0) {
+                    throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": some of its points lie on the same line or are identical.");
+                }
+            }
+        }
+    }
+
+    // Расстояние от каждой вершины до плоскости первых трех вершин (они уже проверены и не лежат на одной прямой)
+    // сравнивается с planarityEpsilon
+    private void checkPlanar(int polygon, int polygonVerticesCount, int firstVertex, int secondVertex, int polygonIndex) {
+        final int thirdVertex = mesh.getPolygonVertexIndex(polygon, 2);
+        final float firstX = mesh.getVertexX(secondVertex) - mesh.getVertexX(firstVertex);
+        final float firstY = mesh.getVertexY(secondVertex) - mesh.getVertexY(firstVertex);
+        final float firstZ = mesh.getVertexZ(secondVertex) - mesh.getVertexZ(firstVertex);
+        final float secondX = mesh.getVertexX(thirdVertex) - mesh.getVertexX(firstVertex);
+        final float secondY = mesh.getVertexY(thirdVertex) - mesh.getVertexY(firstVertex);
+        final float secondZ = mesh.getVertexZ(thirdVertex) - mesh.getVertexZ(firstVertex);
+        final float normalX = firstY * secondZ - firstZ * secondY;
+        final float normalY = firstZ * secondX - firstX * secondZ;
+        final float normalZ = firstX * secondY - firstY * secondX;
+        final double maxDistance = planarityEpsilon * Math.sqrt((double) normalX * normalX + (double) normalY * normalY + (double) normalZ * normalZ);
+
+        for (int m = 3; m < polygonVerticesCount; m++) {
+            final int vertex = mesh.getPolygonVertexIndex(polygon, m);
+            final double dotProduct = (double) normalX * (mesh.getVertexX(vertex) - mesh.getVertexX(firstVertex))
+                    + (double) normalY * (mesh.getVertexY(vertex) - mesh.getVertexY(firstVertex))
+                    + (double) normalZ * (mesh.getVertexZ(vertex) - mesh.getVertexZ(firstVertex));
+            if (Math.abs(dotProduct) > maxDistance) {
+                throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": its points do not lie in the same plane.");
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Загрузка многих OBJ-файлов одновременно, например всей папки с моделями.
+// Одновременно читается не больше concurrency файлов. Ошибка в одном файле не прерывает загрузку остальных:
+// для каждого файла возвращается либо модель, либо ошибка, а для всей загрузки - общее время и скорость
+public class ModelBatchLoader {
+
+    private static final String OBJ_FILE_SUFFIX = ".obj";
+
+    private final int concurrency;
+    private final ObjReaderOptions options;
+
+    public ModelBatchLoader(int concurrency) {
+        this(concurrency, ObjReaderOptions.DEFAULT);
+    }
+
+    public ModelBatchLoader(int concurrency, ObjReaderOptions options) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1.");
+        }
+        this.concurrency = concurrency;
+        this.options = options;
+    }
+
+    // Все .obj файлы папки (без вложенных папок) в порядке имен
+    public BatchResult load(Path directory) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(directory)) {
+            files = entries
+                    .filter(path -> path.getFileName().toString().toLowerCase().endsWith(OBJ_FILE_SUFFIX))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        return load(files);
+    }
+
+    // Результаты идут в том же порядке, что и files
+    public BatchResult load(Collection<Path> files) throws InterruptedException {
+        List<Callable<FileResult>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(() -> loadFile(file));
+        }
+
+        final long start = System.nanoTime();
+        List<FileResult> results = new ArrayList<>(tasks.size());
+        if (!tasks.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, tasks.size()), new LoaderThreadFactory());
+            try {
+                for (Future<FileResult> future : executor.invokeAll(tasks)) {
+                    results.add(getResult(future));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return new BatchResult(results, System.nanoTime() - start);
+    }
+
+    private FileResult loadFile(Path file) {
+        final long start = System.nanoTime();
+        long size = 0;
+        try {
+            size = Files.size(file);
+            Model model = ObjReader.read(file, options);
+            return new FileResult(file, model, null, size, System.nanoTime() - start);
+        } catch (IOException | RuntimeException exception) {
+            return new FileResult(file, null, exception, size, System.nanoTime() - start);
+        }
+    }
+
+    // Задачи сами перехватывают ошибки чтения, сюда доходят только Error вроде OutOfMemoryError
+    private static FileResult getResult(Future<FileResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof Error) {
+                throw (Error) exception.getCause();
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    public static final class FileResult {
+        private final Path path;
+        private final Model model;
+        private final Exception error;
+        private final long size;
+        private final long loadTimeNanos;
+
+        private FileResult(Path path, Model model, Exception error, long size, long loadTimeNanos) {
+            this.path = path;
+            this.model = model;
+            this.error = error;
+            this.size = size;
+            this.loadTimeNanos = loadTimeNanos;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public boolean isLoaded() {
+            return error == null;
+        }
+
+        // null, если файл не удалось загрузить
+        public Model getModel() {
+            return model;
+        }
+
+        // null, если файл загружен
+        public Exception getError() {
+            return error;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLoadTimeNanos() {
+            return loadTimeNanos;
+        }
+    }
+
+    public static final class BatchResult {
+        private final List<FileResult> results;
+        private final long elapsedNanos;
+
+        private BatchResult(List<FileResult> results, long elapsedNanos) {
+            this.results = Collections.unmodifiableList(results);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public List<FileResult> getResults() {
+            return results;
+        }
+
+        public int getLoadedCount() {
+            return (int) results.stream().filter(FileResult::isLoaded).count();
+        }
+
+        public int getFailedCount() {
+            return results.size() - getLoadedCount();
+        }
+
+        // Суммарный размер всех файлов, в том числе не загруженных
+        public long getTotalSize() {
+            return results.stream().mapToLong(FileResult::getSize).sum();
+        }
+
+        // Время всей загрузки от начала до конца, а не сумма времени загрузки файлов
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getFilesPerSecond() {
+            return elapsedNanos == 0 ? 0 : results.size() * 1e9 / elapsedNanos;
+        }
+
+        public double getBytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getTotalSize() * 1e9 / elapsedNanos;
+        }
+    }
+
+    // Потоки-демоны, чтобы незавершенная загрузка не мешала завершению программы
+    private static final class LoaderThreadFactory implements ThreadFactory {
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "model-batch-loader-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Model;
+import com.cgvsu.model.Polygon;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+// Потокобезопасный кэш прочитанных моделей.
+// Модель в кэше действительна, пока у файла те же время изменения и размер; изменившийся файл читается заново.
+// Объем кэша ограничен примерной занятой моделями памятью (estimateSize), а не кол-вом моделей:
+// при переполнении вытесняются модели, которые дольше всего не запрашивались.
+// Если одну и ту же модель одновременно запрашивают несколько потоков, файл читает только один из них, остальные ждут.
+//
+// Модели из кэша общие для всех, кто их запросил, поэтому изменять их нельзя
+public class ModelCache {
+
+    private final long maxSize;
+    private final ObjReaderOptions options;
+
+    // Все поля ниже защищены this. Порядок entries - от давно запрошенных к недавно запрошенным
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Path, Loading> loadings = new HashMap<>();
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long loadCount;
+    private long evictionCount;
+
+    // maxSize - в байтах
+    public ModelCache(long maxSize) {
+        this(maxSize, ObjReaderOptions.DEFAULT);
+    }
+
+    public ModelCache(long maxSize, ObjReaderOptions options) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative.");
+        }
+        this.maxSize = maxSize;
+        this.options = options;
+    }
+
+    // Ошибки чтения не кэшируются: следующий запрос снова прочитает файл
+    public Model get(Path path) throws IOException {
+        final Path key = path.toAbsolutePath().normalize();
+        final FileStamp stamp = FileStamp.read(key);
+
+        final Loading loading;
+        final boolean loadedHere;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.stamp.equals(stamp)) {
+                ++hitCount;
+                return entry.model;
+            }
+            ++missCount;
+            Loading current = loadings.get(key);
+            if (current != null && current.stamp.equals(stamp)) {
+                loading = current;
+                loadedHere = false;
+            } else {
+                loading = new Loading(stamp, new FutureTask<>(() -> ObjReader.read(key, options)));
+                loadings.put(key, loading);
+                loadedHere = true;
+                ++loadCount;
+            }
+        }
+
+        if (loadedHere) {
+            loading.task.run();
+        }
+        final Model model;
+        try {
+            // прочитавший файл поток ждать не будет: задача уже выполнена
+            model = loading.task.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + key + " to be loaded.");
+        } catch (ExecutionException exception) {
+            if (loadedHere) {
+                synchronized (this) {
+                    loadings.remove(key, loading);
+                }
+            }
+            throw rethrow(exception.getCause());
+        }
+        if (loadedHere) {
+            final long modelSize = estimateSize(model);
+            // одновременно, чтобы между ними никто не начал читать этот же файл второй раз
+            synchronized (this) {
+                loadings.remove(key, loading);
+                put(key, new Entry(stamp, model, modelSize));
+            }
+        }
+        return model;
+    }
+
+    public synchronized void invalidate(Path path) {
+        Entry entry = entries.remove(path.toAbsolutePath().normalize());
+        if (entry != null) {
+            size -= entry.size;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    // Примерный объем всех моделей в кэше в байтах
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    // Запросы, для которых модели в кэше не было, в том числе дождавшиеся чтения, начатого другим потоком
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    // Сколько раз файлы действительно читались
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    // Примерный размер модели в куче для 64-битной JVM со сжатыми ссылками:
+    // заголовок объекта 12 байт, ссылка 4 байта, объекты выровнены по 8 байт
+    public static long estimateSize(Model model) {
+        final long arrayListSize = 24 + 16;
+        long result = 16 + 4 * arrayListSize;
+        result += (long) model.vertices.size() * (4 + 24);
+        result += (long) model.textureVertices.size() * (4 + 24);
+        result += (long) model.normals.size() * (4 + 24);
+        for (Polygon polygon : model.polygons) {
+            final long indicesCount = polygon.getVertexIndices().size()
+                    + polygon.getTextureVertexIndices().size()
+                    + polygon.getNormalIndices().size();
+            // у каждого индекса ссылка и объект Integer
+            result += 4 + 24 + 3 * arrayListSize + indicesCount * (4 + 16);
+        }
+        return result;
+    }
+
+    private synchronized void put(Path key, Entry entry) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            size -= previous.size;
+        }
+        // модель больше всего кэша не кэшируется, чтобы не вытеснять ради нее все остальные
+        if (entry.size > maxSize) {
+            return;
+        }
+        entries.put(key, entry);
+        size += entry.size;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (size > maxSize) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.size;
+            ++evictionCount;
+        }
+    }
+
+    private static IOException rethrow(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    private static final class FileStamp {
+        private final long lastModified;
+        private final long size;
+
+        private FileStamp(long lastModified, long size) {
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        static FileStamp read(Path path) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof FileStamp)) {
+                return false;
+            }
+            FileStamp other = (FileStamp) object;
+            return lastModified == other.lastModified && size == other.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(lastModified) * 31 + Long.hashCode(size);
+        }
+    }
+
+    private static final class Entry {
+        private final FileStamp stamp;
+        private final Model model;
+        private final long size;
+
+        private Entry(FileStamp stamp, Model model, long size) {
+            this.stamp = stamp;
+            this.model = model;
+            this.size = size;
+        }
+    }
+
+    private static final class Loading {
+        private final FileStamp stamp;
+        private final FutureTask<Model> task;
+
+        private Loading(FileStamp stamp, FutureTask<Model> task) {
+            this.stamp = stamp;
+            this.task = task;
+        }
+    }
+}
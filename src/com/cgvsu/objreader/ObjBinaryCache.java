@@ -0,0 +1,155 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.OffHeapModel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32;
+
+// Двоичный кэш разобранной модели рядом с OBJ-файлом.
+// Файл кэша - это заголовок и сразу за ним буфер OffHeapModel как есть, поэтому загрузка - это отображение файла
+// в память без всякого разбора текста.
+//
+// Заголовок (little-endian):
+//   magic, version,
+//   размер и время изменения исходного файла - по ним кэш считается устаревшим,
+//   кол-ва вершин, текстурных вершин, нормалей, полигонов и индексов каждого вида,
+//   CRC32 данных - по ней обнаруживается испорченный кэш.
+// Устаревший или испорченный кэш просто пересобирается из OBJ.
+final class ObjBinaryCache {
+
+    static final String FILE_SUFFIX = ".objbin";
+
+    private static final int MAGIC = 0x4A424F43; // "COBJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private ObjBinaryCache() {
+    }
+
+    static Path getCachePath(Path source) {
+        return source.resolveSibling(source.getFileName() + FILE_SUFFIX);
+    }
+
+    static OffHeapModel read(Path source, Path cacheFile) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        final long sourceSize = attributes.size();
+        final long sourceModified = attributes.lastModifiedTime().toMillis();
+
+        OffHeapModel cached = load(cacheFile, sourceSize, sourceModified);
+        if (cached != null) {
+            return cached;
+        }
+        OffHeapModel result = ObjReader.readOffHeap(source);
+        try {
+            write(cacheFile, result, sourceSize, sourceModified);
+        } catch (IOException ignored) {
+            // кэш необязателен: если его не удалось записать (например, папка только для чтения), модель все равно прочитана
+        }
+        return result;
+    }
+
+    // Возвращает null, если кэша нет, он устарел, испорчен или его не удалось открыть и отобразить в память
+    static OffHeapModel load(Path cacheFile, long sourceSize, long sourceModified) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try {
+            return map(cacheFile, sourceSize, sourceModified);
+        } catch (IOException | RuntimeException exception) {
+            // нет прав, файл заблокирован, отображение не удалось, заголовок не сходится с данными - кэш пересобирается
+            return null;
+        }
+    }
+
+    private static OffHeapModel map(Path cacheFile, long sourceSize, long sourceModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getLong(8) != sourceSize || buffer.getLong(16) != sourceModified) {
+                return null;
+            }
+            final int vertexCount = buffer.getInt(24);
+            final int textureVertexCount = buffer.getInt(28);
+            final int normalCount = buffer.getInt(32);
+            final int polygonCount = buffer.getInt(36);
+            final int vertexIndexCount = buffer.getInt(40);
+            final int textureVertexIndexCount = buffer.getInt(44);
+            final int normalIndexCount = buffer.getInt(48);
+            final int checksum = buffer.getInt(52);
+            if (vertexCount < 0 || textureVertexCount < 0 || normalCount < 0 || polygonCount < 0
+                    || vertexIndexCount < 0 || textureVertexIndexCount < 0 || normalIndexCount < 0) {
+                return null;
+            }
+            final long storageSize = OffHeapModel.getStorageSize(
+                    vertexCount, textureVertexCount, normalCount, polygonCount, vertexIndexCount, textureVertexIndexCount, normalIndexCount);
+            if (HEADER_SIZE + storageSize != fileSize) {
+                return null;
+            }
+
+            ByteBuffer storage = buffer.slice(HEADER_SIZE, (int) storageSize);
+            if (checksum(storage.duplicate()) != checksum) {
+                return null;
+            }
+            return new OffHeapModel(storage,
+                    vertexCount, textureVertexCount, normalCount, polygonCount,
+                    vertexIndexCount, textureVertexIndexCount, normalIndexCount);
+        }
+    }
+
+    // Пишется во временный файл, который затем переименовывается: читатель никогда не увидит кэш записанным наполовину
+    static void write(Path cacheFile, OffHeapModel model, long sourceSize, long sourceModified) throws IOException {
+        ByteBuffer storage = model.getStorage();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION)
+                .putLong(sourceSize).putLong(sourceModified)
+                .putInt(model.getVertexCount())
+                .putInt(model.getTextureVertexCount())
+                .putInt(model.getNormalCount())
+                .putInt(model.getPolygonCount())
+                .putInt(model.getVertexIndices().limit())
+                .putInt(model.getTextureVertexIndices().limit())
+                .putInt(model.getNormalIndices().limit())
+                .putInt(checksum(storage.duplicate()));
+        header.clear();
+
+        Path temporaryFile = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (storage.hasRemaining()) {
+                    channel.write(storage);
+                }
+            }
+            try {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static int checksum(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
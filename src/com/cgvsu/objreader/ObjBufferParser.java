@@ -0,0 +1,391 @@
+package com.cgvsu.objreader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Разбор OBJ прямо по байтам буфера (обычно это отображенный в память файл).
+// Строки и слова не превращаются в String и списки: границы слов хранятся в переиспользуемых массивах,
+// а разобранные элементы сразу передаются в ObjReaderListener.
+// Поведение повторяет ObjReader.parseLine, включая сообщения об ошибках и номера строк.
+// Разбирается только ASCII: встретив другой байт, parse возвращает false, и ObjReader читает файл обычным способом.
+final class ObjBufferParser {
+
+    private static final int TOKEN_OTHER = 0;
+    private static final int TOKEN_VERTEX = 1;
+    private static final int TOKEN_TEXTURE = 2;
+    private static final int TOKEN_NORMAL = 3;
+    private static final int TOKEN_FACE = 4;
+
+    private final ByteBuffer buffer;
+    private int lineInd;
+    // Кол-во вершин до начала разбираемого участка: нужно для отрицательных индексов в гранях
+    private final int verticesBefore;
+
+    // В режиме подсчета строки не разбираются, а только считаются элементы каждого вида
+    private boolean countOnly;
+    private ObjReaderListener listener;
+    private int verticesCount;
+    private int textureVerticesCount;
+    private int normalsCount;
+    private int facesCount;
+
+    // Границы слов текущей строки без токена
+    private int[] wordStarts = new int[16];
+    private int[] wordEnds = new int[16];
+    private int wordsCount;
+
+    // Границы первых трех частей слова грани, разделенных '/'
+    private final int[] partStarts = new int[3];
+    private final int[] partEnds = new int[3];
+
+    // Индексы текущей грани и массивы точной длины для передачи в onFace, переиспользуемые между гранями
+    private final FaceIndices faceVertices = new FaceIndices();
+    private final FaceIndices faceTextureVertices = new FaceIndices();
+    private final FaceIndices faceNormals = new FaceIndices();
+
+    // Строка для onUnknown без копирования байт
+    private final LineView lineView = new LineView();
+
+    ObjBufferParser(ByteBuffer buffer) {
+        this(buffer, 0, 0);
+    }
+
+    // Для разбора участка файла: номера строк и отрицательные индексы считаются так, будто участку предшествуют
+    // linesBefore строк и verticesBefore вершин
+    ObjBufferParser(ByteBuffer buffer, int linesBefore, int verticesBefore) {
+        this.buffer = buffer;
+        this.lineInd = linesBefore;
+        this.verticesBefore = verticesBefore;
+    }
+
+    boolean parse(int from, int to, ObjReaderListener listener) {
+        this.listener = listener;
+        try {
+            return parseLines(from, to);
+        } finally {
+            this.listener = null;
+        }
+    }
+
+    private boolean parseLines(int from, int to) {
+        int lineStart = from;
+        int position = from;
+        while (position < to) {
+            final byte b = buffer.get(position);
+            if (b == '\n' || b == '\r') {
+                parseLine(lineStart, position);
+                ++position;
+                if (b == '\r' && position < to && buffer.get(position) == '\n') {
+                    ++position;
+                }
+                lineStart = position;
+            } else if (b < 0) {
+                return false;
+            } else {
+                ++position;
+            }
+        }
+        // последняя строка без перевода строки в конце
+        if (lineStart < to) {
+            parseLine(lineStart, to);
+        }
+        return true;
+    }
+
+    // Весь ли участок в ASCII: тогда parse не остановится на середине
+    boolean isAscii(int from, int to) {
+        for (int position = from; position < to; position++) {
+            if (buffer.get(position) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Проход без разбора: после него известны кол-во строк и элементов каждого вида на участке
+    boolean count(int from, int to) {
+        countOnly = true;
+        try {
+            return parse(from, to, null);
+        } finally {
+            countOnly = false;
+        }
+    }
+
+    int getLineInd() {
+        return lineInd;
+    }
+
+    int getVerticesCount() {
+        return verticesCount;
+    }
+
+    int getTextureVerticesCount() {
+        return textureVerticesCount;
+    }
+
+    int getNormalsCount() {
+        return normalsCount;
+    }
+
+    int getFacesCount() {
+        return facesCount;
+    }
+
+    private void parseLine(int start, int end) {
+        ++lineInd;
+        final int token = tokenType(start, end);
+        if (token == TOKEN_OTHER) {
+            if (!countOnly && start < end) {
+                listener.onUnknown(lineView.set(start, end), lineInd);
+            }
+            return;
+        }
+        if (!countOnly) {
+            splitWords(start + (token == TOKEN_VERTEX || token == TOKEN_FACE ? 1 : 2), end);
+            try {
+                switch (token) {
+                    case TOKEN_VERTEX -> parseVertex();
+                    case TOKEN_TEXTURE -> parseTextureVertex();
+                    case TOKEN_NORMAL -> parseNormal();
+                    default -> parseFace(verticesBefore + verticesCount);
+                }
+            } catch (ObjReaderException exception) {
+                // если слушатель не прервал чтение, строка с ошибкой пропускается и не считается
+                listener.onError(exception);
+                return;
+            }
+        }
+        // при разборе кол-во вершин тоже нужно: от него отсчитываются отрицательные индексы в гранях
+        switch (token) {
+            case TOKEN_VERTEX -> ++verticesCount;
+            case TOKEN_TEXTURE -> ++textureVerticesCount;
+            case TOKEN_NORMAL -> ++normalsCount;
+            default -> ++facesCount;
+        }
+    }
+
+    private int tokenType(int start, int end) {
+        // как и split("\\s+"): если строка пустая или начинается с пробела, токен пустой и строка пропускается
+        if (start == end || isWhitespace(buffer.get(start))) {
+            return TOKEN_OTHER;
+        }
+        final byte first = buffer.get(start);
+        final boolean oneByteToken = start + 1 == end || isWhitespace(buffer.get(start + 1));
+        if (oneByteToken) {
+            return first == 'v' ? TOKEN_VERTEX : first == 'f' ? TOKEN_FACE : TOKEN_OTHER;
+        }
+        final boolean twoBytesToken = start + 2 == end || isWhitespace(buffer.get(start + 2));
+        if (!twoBytesToken || first != 'v') {
+            return TOKEN_OTHER;
+        }
+        final byte second = buffer.get(start + 1);
+        return second == 't' ? TOKEN_TEXTURE : second == 'n' ? TOKEN_NORMAL : TOKEN_OTHER;
+    }
+
+    private void splitWords(int from, int end) {
+        wordsCount = 0;
+        int position = from;
+        while (position < end) {
+            while (position < end && isWhitespace(buffer.get(position))) {
+                ++position;
+            }
+            if (position == end) {
+                break;
+            }
+            final int wordStart = position;
+            while (position < end && !isWhitespace(buffer.get(position))) {
+                ++position;
+            }
+            if (wordsCount == wordStarts.length) {
+                wordStarts = Arrays.copyOf(wordStarts, wordsCount * 2);
+                wordEnds = Arrays.copyOf(wordEnds, wordsCount * 2);
+            }
+            wordStarts[wordsCount] = wordStart;
+            wordEnds[wordsCount] = position;
+            ++wordsCount;
+        }
+    }
+
+    private void parseVertex() {
+        if (wordsCount > 3) {
+            throw new ObjReaderException("More than three coordinates are specified for the vertex.", lineInd);
+        }
+        listener.onVertex(
+                parseFloatWord(0, "Too few vertex arguments."),
+                parseFloatWord(1, "Too few vertex arguments."),
+                parseFloatWord(2, "Too few vertex arguments."));
+    }
+
+    // Как и ObjReader.parseTextureVertex, допускает третью координату и игнорирует ее
+    private void parseTextureVertex() {
+        if (wordsCount > 3) {
+            throw new ObjReaderException("More than two coordinates are specified for the texture vertex.", lineInd);
+        }
+        listener.onTexture(
+                parseFloatWord(0, "Too few texture vertex arguments."),
+                parseFloatWord(1, "Too few texture vertex arguments."));
+    }
+
+    // Как и ObjReader.parseNormal, допускает четвертую координату и игнорирует ее
+    private void parseNormal() {
+        if (wordsCount > 4) {
+            throw new ObjReaderException("More than three coordinates are specified for the normal.", lineInd);
+        }
+        listener.onNormal(
+                parseFloatWord(0, "Too few normal arguments."),
+                parseFloatWord(1, "Too few normal arguments."),
+                parseFloatWord(2, "Too few normal arguments."));
+    }
+
+    private float parseFloatWord(int wordInd, String tooFewMessage) {
+        if (wordInd >= wordsCount) {
+            throw new ObjReaderException(tooFewMessage, lineInd);
+        }
+        try {
+            return ObjNumberParser.parseFloat(buffer, wordStarts[wordInd], wordEnds[wordInd]);
+        } catch (NumberFormatException e) {
+            throw new ObjReaderException("Failed to parse float value.", lineInd);
+        }
+    }
+
+    private void parseFace(int verticesAmount) {
+        faceVertices.clear();
+        faceTextureVertices.clear();
+        faceNormals.clear();
+
+        for (int i = 0; i < wordsCount; i++) {
+            parseFaceWord(wordStarts[i], wordEnds[i], verticesAmount);
+        }
+
+        listener.onFace(faceVertices.toExactArray(), faceTextureVertices.toExactArray(), faceNormals.toExactArray());
+    }
+
+    private void parseFaceWord(int start, int end, int verticesAmount) {
+        // как и split("/"): пустые части в конце слова отбрасываются
+        int partsCount = 0;
+        int nonEmptyPartsCount = 0;
+        int partStart = start;
+        for (int position = start; position <= end; position++) {
+            if (position == end || buffer.get(position) == '/') {
+                if (partsCount < 3) {
+                    partStarts[partsCount] = partStart;
+                    partEnds[partsCount] = position;
+                }
+                ++partsCount;
+                if (position > partStart) {
+                    nonEmptyPartsCount = partsCount;
+                }
+                partStart = position + 1;
+            }
+        }
+        if (nonEmptyPartsCount == 0) {
+            throw new ObjReaderException("Too few arguments.", lineInd);
+        }
+
+        try {
+            final int vertexIndex = parseIntPart(0);
+            // при отрицательной адресации к индексам прибавляется кол-во вершин, при обычной - вычитается единица
+            final int shift = vertexIndex < 0 ? verticesAmount : -1;
+            switch (nonEmptyPartsCount) {
+                case 1 -> faceVertices.add(vertexIndex + shift);
+                case 2 -> {
+                    faceVertices.add(vertexIndex + shift);
+                    faceTextureVertices.add(parseIntPart(1) + shift);
+                }
+                case 3 -> {
+                    faceVertices.add(vertexIndex + shift);
+                    faceNormals.add(parseIntPart(2) + shift);
+                    if (partEnds[1] > partStarts[1]) {
+                        faceTextureVertices.add(parseIntPart(1) + shift);
+                    }
+                }
+                default -> {
+                    throw new ObjReaderException("Invalid element size.", lineInd);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new ObjReaderException("Failed to parse int value.", lineInd);
+        }
+    }
+
+    private int parseIntPart(int partInd) {
+        return ObjNumberParser.parseInt(buffer, partStarts[partInd], partEnds[partInd]);
+    }
+
+    // Пробельные символы из \s, кроме переводов строки
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == 0x0B || b == '\f';
+    }
+
+    // Строка буфера как CharSequence: в разбираемом буфере только ASCII, так что байт - это символ
+    private final class LineView implements CharSequence {
+        private int start;
+        private int end;
+
+        LineView set(int start, int end) {
+            this.start = start;
+            this.end = end;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) buffer.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            final byte[] bytes = new byte[length()];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+
+    // Растущий массив индексов одного вида для текущей грани.
+    // Массивы точной длины кэшируются по длине: у модели обычно грани одного-двух размеров,
+    // поэтому на каждую грань новые массивы не создаются
+    private static final class FaceIndices {
+        private int[] values = new int[8];
+        private int size;
+        private int[][] exactArrays = new int[8][];
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toExactArray() {
+            if (size >= exactArrays.length) {
+                exactArrays = Arrays.copyOf(exactArrays, Math.max(size + 1, exactArrays.length * 2));
+            }
+            int[] result = exactArrays[size];
+            if (result == null) {
+                result = new int[size];
+                exactArrays[size] = result;
+            }
+            System.arraycopy(values, 0, result, 0, size);
+            return result;
+        }
+    }
+}
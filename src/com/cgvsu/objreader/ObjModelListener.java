@@ -0,0 +1,54 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.math.Vector2f;
+import com.cgvsu.math.Vector3f;
+import com.cgvsu.model.Model;
+import com.cgvsu.model.Polygon;
+
+import java.util.ArrayList;
+
+// Собирает из элементов OBJ обычную модель
+final class ObjModelListener implements ObjReaderListener {
+
+    private final Model model;
+
+    ObjModelListener(Model model) {
+        this.model = model;
+    }
+
+    Model getModel() {
+        return model;
+    }
+
+    @Override
+    public void onVertex(float x, float y, float z) {
+        model.vertices.add(new Vector3f(x, y, z));
+    }
+
+    @Override
+    public void onTexture(float u, float v) {
+        model.textureVertices.add(new Vector2f(u, v));
+    }
+
+    @Override
+    public void onNormal(float x, float y, float z) {
+        model.normals.add(new Vector3f(x, y, z));
+    }
+
+    @Override
+    public void onFace(int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices) {
+        Polygon polygon = new Polygon();
+        polygon.setVertexIndices(toList(vertexIndices));
+        polygon.setTextureVertexIndices(toList(textureVertexIndices));
+        polygon.setNormalIndices(toList(normalIndices));
+        model.polygons.add(polygon);
+    }
+
+    private static ArrayList<Integer> toList(int[] values) {
+        ArrayList<Integer> result = new ArrayList<Integer>(values.length);
+        for (int value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+}
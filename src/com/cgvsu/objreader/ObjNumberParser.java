@@ -0,0 +1,215 @@
+package com.cgvsu.objreader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Разбор чисел прямо из диапазона символов или байт, без создания подстрок.
+// Результат побитово совпадает с Float.parseFloat и Integer.parseInt, в том числе бросается NumberFormatException.
+//
+// Обычные для OBJ записи (знак, целая и дробная части, экспонента, "1." и ".5") разбираются быстро:
+// до 18 значащих цифр собираются в long, а затем одной операцией умножаются или делятся на точную степень десяти в double.
+// Такое double - правильно округленное значение числа, а округление его до float совпадает с прямым,
+// если только double не попал ровно в середину между соседними float. Этот случай, как и все необычные записи
+// (NaN, Infinity, шестнадцатеричные числа, суффиксы f и d, очень длинные мантиссы и большие экспоненты),
+// отдается Float.parseFloat.
+final class ObjNumberParser {
+
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+    private static final int MAX_EXACT_POWER_OF_TEN = 22;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_SAFE_INT_DIGITS = 9;
+
+    // 52 бита мантиссы double против 23 у float: отбрасываемые 29 бит вида 100...0 означают середину между float
+    private static final long DROPPED_BITS_MASK = (1L << 29) - 1;
+    private static final long MIDPOINT_BITS = 1L << 28;
+
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_POWER_OF_TEN + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private ObjNumberParser() {
+    }
+
+    static float parseFloat(ByteBuffer buffer, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            ++position;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        byte b;
+        while (position < end && (b = buffer.get(position)) >= '0' && b <= '9') {
+            hasDigits = true;
+            if ((mantissa != 0 || b != '0') && ++significantDigits <= MAX_SIGNIFICANT_DIGITS) {
+                mantissa = mantissa * 10 + (b - '0');
+            }
+            ++position;
+        }
+        if (position < end && buffer.get(position) == '.') {
+            ++position;
+            while (position < end && (b = buffer.get(position)) >= '0' && b <= '9') {
+                hasDigits = true;
+                if ((mantissa != 0 || b != '0') && ++significantDigits <= MAX_SIGNIFICANT_DIGITS) {
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+                --exponent;
+                ++position;
+            }
+        }
+        if (position < end && hasDigits && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+            ++position;
+            boolean negativeExponent = false;
+            if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negativeExponent = buffer.get(position) == '-';
+                ++position;
+            }
+            final int exponentStart = position;
+            int exponentValue = 0;
+            while (position < end && (b = buffer.get(position)) >= '0' && b <= '9') {
+                exponentValue = Math.min(exponentValue * 10 + (b - '0'), 100_000);
+                ++position;
+            }
+            if (position == exponentStart) {
+                return Float.parseFloat(asciiString(buffer, start, end));
+            }
+            exponent += negativeExponent ? -exponentValue : exponentValue;
+        }
+
+        if (position != end || !hasDigits) {
+            return Float.parseFloat(asciiString(buffer, start, end));
+        }
+        final float result = fastFloat(negative, mantissa, exponent, significantDigits);
+        return Float.isNaN(result) ? Float.parseFloat(asciiString(buffer, start, end)) : result;
+    }
+
+    static float parseFloat(CharSequence text, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+            negative = text.charAt(position) == '-';
+            ++position;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        char c;
+        while (position < end && (c = text.charAt(position)) >= '0' && c <= '9') {
+            hasDigits = true;
+            if ((mantissa != 0 || c != '0') && ++significantDigits <= MAX_SIGNIFICANT_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+            }
+            ++position;
+        }
+        if (position < end && text.charAt(position) == '.') {
+            ++position;
+            while (position < end && (c = text.charAt(position)) >= '0' && c <= '9') {
+                hasDigits = true;
+                if ((mantissa != 0 || c != '0') && ++significantDigits <= MAX_SIGNIFICANT_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                --exponent;
+                ++position;
+            }
+        }
+        if (position < end && hasDigits && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            ++position;
+            boolean negativeExponent = false;
+            if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+                negativeExponent = text.charAt(position) == '-';
+                ++position;
+            }
+            final int exponentStart = position;
+            int exponentValue = 0;
+            while (position < end && (c = text.charAt(position)) >= '0' && c <= '9') {
+                exponentValue = Math.min(exponentValue * 10 + (c - '0'), 100_000);
+                ++position;
+            }
+            if (position == exponentStart) {
+                return Float.parseFloat(text.subSequence(start, end).toString());
+            }
+            exponent += negativeExponent ? -exponentValue : exponentValue;
+        }
+
+        if (position != end || !hasDigits) {
+            return Float.parseFloat(text.subSequence(start, end).toString());
+        }
+        final float result = fastFloat(negative, mantissa, exponent, significantDigits);
+        return Float.isNaN(result) ? Float.parseFloat(text.subSequence(start, end).toString()) : result;
+    }
+
+    // Числа длиннее 9 цифр, как и любые ошибки, разбирает Integer.parseInt: он же бросает NumberFormatException
+    static int parseInt(ByteBuffer buffer, int start, int end) {
+        int position = start;
+        final boolean negative = position < end && buffer.get(position) == '-';
+        if (negative || position < end && buffer.get(position) == '+') {
+            ++position;
+        }
+        if (position == end || end - position > MAX_SAFE_INT_DIGITS) {
+            return Integer.parseInt(asciiString(buffer, start, end));
+        }
+        int result = 0;
+        for (; position < end; position++) {
+            final int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(asciiString(buffer, start, end));
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    static int parseInt(CharSequence text, int start, int end) {
+        int position = start;
+        final boolean negative = position < end && text.charAt(position) == '-';
+        if (negative || position < end && text.charAt(position) == '+') {
+            ++position;
+        }
+        if (position == end || end - position > MAX_SAFE_INT_DIGITS) {
+            return Integer.parseInt(text.subSequence(start, end).toString());
+        }
+        int result = 0;
+        for (; position < end; position++) {
+            final int digit = text.charAt(position) - '0';
+            if (digit < 0 || digit > 9) {
+                // в том числе не-ASCII цифры, которые Integer.parseInt тоже принимает
+                return Integer.parseInt(text.subSequence(start, end).toString());
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    // Возвращает NaN, если быстрый путь не подходит: сам он NaN получить не может
+    private static float fastFloat(boolean negative, long mantissa, int exponent, int significantDigits) {
+        if (mantissa == 0) {
+            return negative ? -0.0f : 0.0f;
+        }
+        if (significantDigits > MAX_SIGNIFICANT_DIGITS || mantissa >= MAX_EXACT_MANTISSA
+                || exponent < -MAX_EXACT_POWER_OF_TEN || exponent > MAX_EXACT_POWER_OF_TEN) {
+            return Float.NaN;
+        }
+        final double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        if ((Double.doubleToRawLongBits(value) & DROPPED_BITS_MASK) == MIDPOINT_BITS) {
+            return Float.NaN;
+        }
+        return (float) (negative ? -value : value);
+    }
+
+    private static String asciiString(ByteBuffer buffer, int start, int end) {
+        final byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,193 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Параллельный разбор OBJ из буфера.
+// Буфер делится на участки по границам строк, и каждый участок разбирается в два прохода:
+// 1) подсчет строк и элементов каждого вида - после него для любого участка известно, сколько строк и вершин
+//    было до него, а значит, и номера строк для ошибок, и кол-во вершин для отрицательных индексов в гранях;
+// 2) сам разбор в отдельную модель участка.
+// Затем модели участков склеиваются по порядку. Результат и ошибки такие же, как у последовательного чтения:
+// если ошибки есть в нескольких участках, бросается ошибка из самого раннего.
+//
+// Грани могут ссылаться на любые вершины файла, поэтому проверка полигонов участка начинается, когда разобраны все участки
+// с вершинами, текстурными вершинами и нормалями. Обычно они в начале файла, и полигоны первых участков с гранями
+// проверяются одновременно с разбором следующих участков.
+final class ObjParallelReader {
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ObjParallelReader() {
+    }
+
+    // Возвращает null, если в буфере есть не-ASCII байты.
+    // Модель проверяется так же, как в ObjReader.checkMeshAfterReading с теми же настройками
+    static Model read(ByteBuffer buffer, int size, ForkJoinPool pool, ObjReaderOptions options) {
+        return read(buffer, size, pool, MIN_CHUNK_SIZE, options);
+    }
+
+    // Без проверки модели
+    static Model read(ByteBuffer buffer, int size, ForkJoinPool pool, int minChunkSize) {
+        return read(buffer, size, pool, minChunkSize, new ObjReaderOptions(ObjReaderOptions.ValidationLevel.NONE));
+    }
+
+    static Model read(ByteBuffer buffer, int size, ForkJoinPool pool, int minChunkSize, ObjReaderOptions options) {
+        final boolean checkModel = options.getValidationLevel() != ObjReaderOptions.ValidationLevel.NONE;
+        final List<int[]> chunks = splitIntoChunks(buffer, size, pool.getParallelism() * CHUNKS_PER_THREAD, minChunkSize);
+
+        List<ForkJoinTask<ObjBufferParser>> countTasks = new ArrayList<>(chunks.size());
+        for (int[] chunk : chunks) {
+            countTasks.add(pool.submit(() -> {
+                ObjBufferParser counter = new ObjBufferParser(buffer.duplicate());
+                return counter.count(chunk[0], chunk[1]) ? counter : null;
+            }));
+        }
+
+        List<ObjBufferParser> counters = new ArrayList<>(chunks.size());
+        for (ForkJoinTask<ObjBufferParser> task : countTasks) {
+            counters.add(task.join());
+        }
+        if (counters.contains(null)) {
+            return null;
+        }
+
+        List<ForkJoinTask<ChunkResult>> parseTasks = new ArrayList<>(chunks.size());
+        int linesBefore = 0;
+        int verticesBefore = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            final int[] chunk = chunks.get(i);
+            final ObjBufferParser counter = counters.get(i);
+            final int chunkLinesBefore = linesBefore;
+            final int chunkVerticesBefore = verticesBefore;
+            parseTasks.add(pool.submit(() -> parseChunk(buffer.duplicate(), chunk, chunkLinesBefore, chunkVerticesBefore, counter)));
+            linesBefore += counter.getLineInd();
+            verticesBefore += counter.getVerticesCount();
+        }
+
+        Model result = new Model();
+        result.vertices.ensureCapacity(counters.stream().mapToInt(ObjBufferParser::getVerticesCount).sum());
+        result.textureVertices.ensureCapacity(counters.stream().mapToInt(ObjBufferParser::getTextureVerticesCount).sum());
+        result.normals.ensureCapacity(counters.stream().mapToInt(ObjBufferParser::getNormalsCount).sum());
+        result.polygons.ensureCapacity(counters.stream().mapToInt(ObjBufferParser::getFacesCount).sum());
+
+        int lastGeometryChunk = -1;
+        for (int i = 0; i < chunks.size(); i++) {
+            final ObjBufferParser counter = counters.get(i);
+            if (counter.getVerticesCount() + counter.getTextureVerticesCount() + counter.getNormalsCount() != 0) {
+                lastGeometryChunk = i;
+            }
+        }
+        boolean geometryParsed = true;
+        for (int i = 0; i <= lastGeometryChunk && geometryParsed; i++) {
+            final ChunkResult chunkResult = parseTasks.get(i).join();
+            if (chunkResult.exception != null) {
+                geometryParsed = false;
+            } else {
+                result.vertices.addAll(chunkResult.model.vertices);
+                result.textureVertices.addAll(chunkResult.model.textureVertices);
+                result.normals.addAll(chunkResult.model.normals);
+            }
+        }
+
+        // если при разборе есть ошибки, бросается ошибка разбора, и проверять нечего
+        List<ForkJoinTask<ObjParallelValidator.RangeResult>> checkTasks = new ArrayList<>(chunks.size());
+        if (checkModel && geometryParsed) {
+            final AtomicInteger lowestFailure = new AtomicInteger(Integer.MAX_VALUE);
+            int polygonsBefore = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                final ForkJoinTask<ChunkResult> parseTask = parseTasks.get(i);
+                final int chunkPolygonsBefore = polygonsBefore;
+                checkTasks.add(pool.submit(() -> checkChunk(result, parseTask.join(), options, chunkPolygonsBefore, lowestFailure)));
+                polygonsBefore += counters.get(i).getFacesCount();
+            }
+        }
+
+        List<ChunkResult> results = new ArrayList<>(chunks.size());
+        for (ForkJoinTask<ChunkResult> task : parseTasks) {
+            results.add(task.join());
+        }
+        for (ChunkResult chunkResult : results) {
+            if (chunkResult.exception != null) {
+                throw chunkResult.exception;
+            }
+        }
+        // вершины всех участков уже в модели: после lastGeometryChunk их нет
+        for (ChunkResult chunkResult : results) {
+            result.polygons.addAll(chunkResult.model.polygons);
+        }
+
+        if (checkModel) {
+            ObjParallelValidator.checkCounts(result.vertices.size(), result.polygons.size());
+            List<ObjParallelValidator.RangeResult> checkResults = new ArrayList<>(checkTasks.size());
+            for (ForkJoinTask<ObjParallelValidator.RangeResult> task : checkTasks) {
+                checkResults.add(task.join());
+            }
+            ObjParallelValidator.throwFirstFailure(checkResults);
+        }
+        return result;
+    }
+
+    // Полигоны участка проверяются на вершинах всей модели
+    private static ObjParallelValidator.RangeResult checkChunk(Model geometry, ChunkResult chunkResult, ObjReaderOptions options, int polygonsBefore, AtomicInteger lowestFailure) {
+        if (chunkResult.exception != null) {
+            return ObjParallelValidator.RangeResult.empty();
+        }
+        Model chunkModel = new Model();
+        chunkModel.vertices = geometry.vertices;
+        chunkModel.textureVertices = geometry.textureVertices;
+        chunkModel.normals = geometry.normals;
+        chunkModel.polygons = chunkResult.model.polygons;
+        return ObjParallelValidator.checkRange(chunkModel, options, 0, chunkModel.polygons.size(), polygonsBefore, lowestFailure);
+    }
+
+    private static ChunkResult parseChunk(ByteBuffer buffer, int[] chunk, int linesBefore, int verticesBefore, ObjBufferParser counter) {
+        Model model = new Model();
+        model.vertices.ensureCapacity(counter.getVerticesCount());
+        model.textureVertices.ensureCapacity(counter.getTextureVerticesCount());
+        model.normals.ensureCapacity(counter.getNormalsCount());
+        model.polygons.ensureCapacity(counter.getFacesCount());
+        try {
+            new ObjBufferParser(buffer, linesBefore, verticesBefore).parse(chunk[0], chunk[1], new ObjModelListener(model));
+            return new ChunkResult(model, null);
+        } catch (ObjReaderException exception) {
+            return new ChunkResult(null, exception);
+        }
+    }
+
+    // Участки заканчиваются сразу после '\n', поэтому "\r\n" никогда не разрезается
+    private static List<int[]> splitIntoChunks(ByteBuffer buffer, int size, int chunksCount, int minChunkSize) {
+        final int chunkSize = Math.max(minChunkSize, size / Math.max(1, chunksCount));
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < size) {
+            int end = (int) Math.min((long) start + chunkSize, size);
+            while (end < size && buffer.get(end - 1) != '\n') {
+                ++end;
+            }
+            chunks.add(new int[]{start, end});
+            start = end;
+        }
+        if (chunks.isEmpty()) {
+            chunks.add(new int[]{0, 0});
+        }
+        return chunks;
+    }
+
+    private static final class ChunkResult {
+        private final Model model;
+        private final ObjReaderException exception;
+
+        private ChunkResult(Model model, ObjReaderException exception) {
+            this.model = model;
+            this.exception = exception;
+        }
+    }
+}
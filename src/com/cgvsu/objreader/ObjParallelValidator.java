@@ -0,0 +1,128 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Mesh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Параллельная проверка модели после чтения.
+// Полигоны делятся на диапазоны, каждый диапазон проверяется на потоке пула своим MeshValidator.
+// Ошибка та же, что и у последовательной проверки: из всех найденных бросается ошибка полигона с наименьшим номером.
+// Как только где-то найдена ошибка, полигоны с большими номерами уже не проверяются - их ошибки все равно не понадобятся.
+final class ObjParallelValidator {
+
+    private static final int MIN_RANGE_SIZE = 16 * 1024;
+    private static final int RANGES_PER_THREAD = 4;
+
+    private ObjParallelValidator() {
+    }
+
+    static void check(Mesh mesh, ForkJoinPool pool, ObjReaderOptions options) {
+        check(mesh, pool, options, MIN_RANGE_SIZE);
+    }
+
+    static void check(Mesh mesh, ForkJoinPool pool, ObjReaderOptions options, int minRangeSize) {
+        if (options.getValidationLevel() == ObjReaderOptions.ValidationLevel.NONE) {
+            return;
+        }
+        checkCounts(mesh.getVertexCount(), mesh.getPolygonCount());
+
+        final int polygonsCount = mesh.getPolygonCount();
+        final int rangeSize = Math.max(minRangeSize, polygonsCount / (pool.getParallelism() * RANGES_PER_THREAD));
+        final AtomicInteger lowestFailure = new AtomicInteger(Integer.MAX_VALUE);
+        List<ForkJoinTask<RangeResult>> tasks = new ArrayList<>();
+        for (int from = 0; from < polygonsCount; from += rangeSize) {
+            final int rangeFrom = from;
+            final int rangeTo = Math.min(polygonsCount, from + rangeSize);
+            tasks.add(pool.submit(() -> checkRange(mesh, options, rangeFrom, rangeTo, rangeFrom, lowestFailure)));
+        }
+
+        List<RangeResult> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<RangeResult> task : tasks) {
+            results.add(task.join());
+        }
+        throwFirstFailure(results);
+    }
+
+    // Те же проверки, что и в начале ObjReader.checkMeshAfterReading
+    static void checkCounts(int verticesCount, int polygonsCount) {
+        if (verticesCount < 3) {
+            throw new RuntimeException("Model has 2 or fewer vertices."); // в моделе две вершины или меньше
+        } else if (polygonsCount == 0) {
+            throw new RuntimeException("There is not a single polygon in the model."); // в моделе нет ни одного полигона
+        }
+    }
+
+    // Проверяет полигоны mesh с from по to (не включая); indexOffset - номер полигона from во всей модели.
+    // Кол-во текстурных вершин и нормалей сравнивается с первым полигоном диапазона, с остальными диапазонами
+    // оно сравнивается в throwFirstFailure
+    static RangeResult checkRange(Mesh mesh, ObjReaderOptions options, int from, int to, int indexOffset, AtomicInteger lowestFailure) {
+        RangeResult result = new RangeResult(indexOffset, to - from);
+        MeshValidator validator = new MeshValidator(mesh, options);
+        for (int i = from; i < to; i++) {
+            final int polygonIndex = indexOffset + i - from;
+            if (polygonIndex > lowestFailure.get()) {
+                break;
+            }
+            try {
+                final int counter = validator.checkPolygon(i, polygonIndex);
+                if (i == from) {
+                    result.firstCounter = counter;
+                } else if (counter != result.firstCounter) {
+                    throw new RuntimeException("Not all polygons in the model have a texture vertex or normal attached to them.");
+                }
+            } catch (RuntimeException exception) {
+                result.failureIndex = polygonIndex;
+                result.failure = exception;
+                lowestFailure.accumulateAndGet(polygonIndex, Math::min);
+                break;
+            }
+        }
+        return result;
+    }
+
+    // results - по порядку номеров полигонов.
+    // Полигоны до наименьшей найденной ошибки проверены во всех диапазонах, поэтому до непроверенных полигонов дело не доходит
+    static void throwFirstFailure(List<RangeResult> results) {
+        boolean hasBasedCounter = false;
+        int basedCounter = 0;
+        for (RangeResult result : results) {
+            if (result.polygonsCount == 0) {
+                continue;
+            }
+            if (result.failureIndex == result.firstIndex) {
+                throw result.failure;
+            }
+            if (!hasBasedCounter) {
+                hasBasedCounter = true;
+                basedCounter = result.firstCounter;
+            } else if (result.firstCounter != basedCounter) {
+                throw new RuntimeException("Not all polygons in the model have a texture vertex or normal attached to them.");
+            }
+            if (result.failure != null) {
+                throw result.failure;
+            }
+        }
+    }
+
+    static final class RangeResult {
+        private final int firstIndex;
+        private final int polygonsCount;
+        private int firstCounter;
+        private int failureIndex = -1;
+        private RuntimeException failure;
+
+        private RangeResult(int firstIndex, int polygonsCount) {
+            this.firstIndex = firstIndex;
+            this.polygonsCount = polygonsCount;
+        }
+
+        // Для диапазона, который не удалось проверить, потому что при разборе были ошибки
+        static RangeResult empty() {
+            return new RangeResult(0, 0);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.cgvsu.objreader;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Событие JFR для каждого успешного чтения модели: длительность события - все чтение, поля - этапы и счетчики.
+// Включается в настройках записи JFR по имени com.cgvsu.objreader.Read
+@Name("com.cgvsu.objreader.Read")
+@Label("OBJ Read")
+@Category({"CGVSU", "OBJ Reader"})
+@Description("Reading of one OBJ model")
+final class ObjReadEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytesCount;
+
+    @Label("Lines")
+    int linesCount;
+
+    @Label("Vertices")
+    int verticesCount;
+
+    @Label("Texture Vertices")
+    int textureVerticesCount;
+
+    @Label("Normals")
+    int normalsCount;
+
+    @Label("Polygons")
+    int polygonsCount;
+
+    @Label("I/O Time")
+    @Timespan
+    long ioDuration;
+
+    @Label("Parse Time")
+    @Timespan
+    long parseDuration;
+
+    @Label("Validation Time")
+    @Timespan
+    long validationDuration;
+}
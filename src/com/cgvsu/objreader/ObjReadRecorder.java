@@ -0,0 +1,107 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Mesh;
+
+// Сбор статистики одного чтения для ObjReaderMetrics и события JFR.
+// Если ни то, ни другое не нужно, используется DISABLED, все методы которого сразу возвращаются
+final class ObjReadRecorder {
+
+    static final ObjReadRecorder DISABLED = new ObjReadRecorder(null, null, null);
+
+    private final ObjReaderMetrics metrics;
+    private final ObjReadEvent event;
+    private final String source;
+    private final boolean enabled;
+
+    private long phaseStart;
+    private long ioNanos;
+    private long parseNanos;
+    private long validationNanos;
+    private long bytesCount;
+    private int linesCount;
+
+    private ObjReadRecorder(ObjReaderMetrics metrics, ObjReadEvent event, String source) {
+        this.metrics = metrics;
+        this.event = event;
+        this.source = source;
+        this.enabled = metrics != null || event != null;
+    }
+
+    static ObjReadRecorder start(ObjReaderOptions options, String source) {
+        ObjReadEvent event = new ObjReadEvent();
+        if (!event.isEnabled()) {
+            if (options.getMetrics() == null) {
+                return DISABLED;
+            }
+            event = null;
+        }
+        ObjReadRecorder result = new ObjReadRecorder(options.getMetrics(), event, source);
+        if (event != null) {
+            event.begin();
+        }
+        result.phaseStart = System.nanoTime();
+        return result;
+    }
+
+    void ioFinished() {
+        if (enabled) {
+            ioNanos += finishPhase();
+        }
+    }
+
+    // Для чтения через Reader: кол-во строк и символов считается по мере чтения
+    void lineRead(int length) {
+        if (enabled) {
+            ++linesCount;
+            bytesCount += length + 1;
+        }
+    }
+
+    void parseFinished(long bytesCount, int linesCount) {
+        if (enabled) {
+            parseNanos += finishPhase();
+            this.bytesCount = bytesCount;
+            this.linesCount = linesCount;
+        }
+    }
+
+    void parseFinished() {
+        if (enabled) {
+            parseNanos += finishPhase();
+        }
+    }
+
+    void validationFinished(Mesh mesh) {
+        if (!enabled) {
+            return;
+        }
+        validationNanos += finishPhase();
+
+        ObjReadStatistics statistics = new ObjReadStatistics(source, bytesCount, linesCount,
+                mesh.getVertexCount(), mesh.getTextureVertexCount(), mesh.getNormalCount(), mesh.getPolygonCount(),
+                ioNanos, parseNanos, validationNanos);
+        if (event != null) {
+            event.source = source;
+            event.bytesCount = bytesCount;
+            event.linesCount = linesCount;
+            event.verticesCount = statistics.getVerticesCount();
+            event.textureVerticesCount = statistics.getTextureVerticesCount();
+            event.normalsCount = statistics.getNormalsCount();
+            event.polygonsCount = statistics.getPolygonsCount();
+            event.ioDuration = ioNanos;
+            event.parseDuration = parseNanos;
+            event.validationDuration = validationNanos;
+            event.commit();
+        }
+        if (metrics != null) {
+            metrics.onRead(statistics);
+        }
+    }
+
+    private long finishPhase() {
+        final long now = System.nanoTime();
+        final long result = now - phaseStart;
+        phaseStart = now;
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cgvsu.objreader;
+
+// Статистика одного чтения модели.
+// Этапы: открытие и отображение файла в память (при чтении через Reader чтение идет вместе с разбором,
+// и этот этап равен нулю), разбор текста вместе с разбором чисел и проверка модели после чтения
+public final class ObjReadStatistics {
+
+    private final String source;
+    private final long bytesCount;
+    private final int linesCount;
+    private final int verticesCount;
+    private final int textureVerticesCount;
+    private final int normalsCount;
+    private final int polygonsCount;
+    private final long ioNanos;
+    private final long parseNanos;
+    private final long validationNanos;
+
+    ObjReadStatistics(String source, long bytesCount, int linesCount,
+                      int verticesCount, int textureVerticesCount, int normalsCount, int polygonsCount,
+                      long ioNanos, long parseNanos, long validationNanos) {
+        this.source = source;
+        this.bytesCount = bytesCount;
+        this.linesCount = linesCount;
+        this.verticesCount = verticesCount;
+        this.textureVerticesCount = textureVerticesCount;
+        this.normalsCount = normalsCount;
+        this.polygonsCount = polygonsCount;
+        this.ioNanos = ioNanos;
+        this.parseNanos = parseNanos;
+        this.validationNanos = validationNanos;
+    }
+
+    // Путь к файлу или "reader" при чтении из потока
+    public String getSource() {
+        return source;
+    }
+
+    // При чтении через Reader - кол-во символов вместе с переводами строк
+    public long getBytesCount() {
+        return bytesCount;
+    }
+
+    public int getLinesCount() {
+        return linesCount;
+    }
+
+    public int getVerticesCount() {
+        return verticesCount;
+    }
+
+    public int getTextureVerticesCount() {
+        return textureVerticesCount;
+    }
+
+    public int getNormalsCount() {
+        return normalsCount;
+    }
+
+    public int getPolygonsCount() {
+        return polygonsCount;
+    }
+
+    public long getIoNanos() {
+        return ioNanos;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getValidationNanos() {
+        return validationNanos;
+    }
+
+    public long getTotalNanos() {
+        return ioNanos + parseNanos + validationNanos;
+    }
+
+    // Скорость разбора, без открытия файла и проверки
+    public double getLinesPerSecond() {
+        return parseNanos == 0 ? 0 : linesCount * 1e9 / parseNanos;
+    }
+
+    public double getBytesPerSecond() {
+        return parseNanos == 0 ? 0 : bytesCount * 1e9 / parseNanos;
+    }
+
+    @Override
+    public String toString() {
+        return source + ": " + linesCount + " lines, " + bytesCount + " bytes, "
+                + verticesCount + " vertices, " + textureVerticesCount + " texture vertices, "
+                + normalsCount + " normals, " + polygonsCount + " polygons; "
+                + "io " + ioNanos / 1000 + " us, parse " + parseNanos / 1000 + " us, validation " + validationNanos / 1000 + " us";
+    }
+}
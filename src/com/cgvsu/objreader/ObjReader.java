@@ -2,10 +2,24 @@ package com.cgvsu.objreader;
 
 import com.cgvsu.math.Vector2f;
 import com.cgvsu.math.Vector3f;
+import com.cgvsu.model.Mesh;
+import com.cgvsu.model.MeshBuilder;
 import com.cgvsu.model.Model;
+import com.cgvsu.model.OffHeapModel;
+import com.cgvsu.model.OffHeapModelBuilder;
+import com.cgvsu.model.PackedModel;
+import com.cgvsu.model.PackedModelBuilder;
 import com.cgvsu.model.Polygon;
 
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class ObjReader {
 
@@ -14,47 +28,300 @@ public class ObjReader {
     private static final String OBJ_NORMAL_TOKEN = "vn";
     private static final String OBJ_FACE_TOKEN = "f";
 
+    // Размер буфера для потокового чтения: файл разбирается построчно и целиком в памяти не хранится
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
     public static Model read(String fileContent) {
+        try {
+            return read(new StringReader(fileContent));
+        } catch (IOException exception) {
+            // StringReader не бросает IOException
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // Файл отображается в память и разбирается по байтам; если в нем есть не-ASCII символы
+    // (например, кириллица в комментариях), он читается построчно через Reader
+    public static Model read(Path path) throws IOException {
+        return read(path, ObjReaderOptions.DEFAULT);
+    }
+
+    // options задают, насколько подробно проверяется прочитанная модель
+    public static Model read(Path path, ObjReaderOptions options) throws IOException {
+        ObjReadRecorder recorder = ObjReadRecorder.start(options, path.toString());
+        Model result = readMapped(path, options, recorder);
+        if (result != null) {
+            return result;
+        }
+        result = readStream(path, recorder);
+        recorder.parseFinished();
+        checkMeshAfterReading(result, options);
+        recorder.validationFinished(result);
+        return result;
+    }
+
+    // Построчное чтение файла через Reader без проверки модели, для файлов, которые нельзя разобрать по байтам.
+    // Статистика пишется в recorder того же чтения: открытие файла - это ввод-вывод, дальше идет разбор
+    private static Model readStream(Path path, ObjReadRecorder recorder) throws IOException {
         Model result = new Model();
-        Scanner scanner = new Scanner(fileContent);
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            recorder.ioFinished();
+            read(new InputStreamReader(inputStream, StandardCharsets.UTF_8.newDecoder()), new ObjModelListener(result), recorder);
+        }
+        return result;
+    }
 
-        int lineInd = 0;
+    // Параллельное чтение для больших файлов: участки файла разбираются и проверяются на потоках пула,
+    // а модель и ошибки получаются такими же, как при последовательном чтении
+    public static Model readParallel(Path path) throws IOException {
+        return readParallel(path, ForkJoinPool.commonPool());
+    }
 
-        while (scanner.hasNextLine()) {
-            final String line = scanner.nextLine();
-            ArrayList<String> wordsInLine = new ArrayList<String>(Arrays.asList(line.split("\\s+"))); // сплитим по пробелам
-            if (wordsInLine.isEmpty()) {
-                continue;
+    public static Model readParallel(Path path, ForkJoinPool pool) throws IOException {
+        return readParallel(path, pool, ObjReaderOptions.DEFAULT);
+    }
+
+    public static Model readParallel(Path path, ForkJoinPool pool, ObjReaderOptions options) throws IOException {
+        Model result;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel);
+            result = buffer == null ? null : ObjParallelReader.read(buffer, buffer.capacity(), pool, options);
+        }
+        if (result == null) {
+            return read(path, options);
+        }
+        return result;
+    }
+
+    private static Model readMapped(Path path, ObjReaderOptions options, ObjReadRecorder recorder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel);
+            recorder.ioFinished();
+            if (buffer == null) {
+                return null;
             }
+            Model result = new Model();
+            ObjBufferParser parser = new ObjBufferParser(buffer);
+            if (!parser.parse(0, buffer.capacity(), new ObjModelListener(result))) {
+                // время неудачной попытки тоже относится к разбору, а строки посчитает чтение через Reader
+                recorder.parseFinished();
+                return null;
+            }
+            recorder.parseFinished(buffer.capacity(), parser.getLineInd());
+            checkMeshAfterReading(result, options);
+            recorder.validationFinished(result);
+            return result;
+        }
+    }
+
+    // Чтение сразу в PackedModel, без объектов на каждую вершину и полигон.
+    // Файлы, которые нельзя разобрать по байтам, читаются в Model и затем упаковываются
+    public static PackedModel readPacked(Path path) throws IOException {
+        return readPacked(path, ObjReaderOptions.DEFAULT);
+    }
+
+    public static PackedModel readPacked(Path path, ObjReaderOptions options) throws IOException {
+        ObjReadRecorder recorder = ObjReadRecorder.start(options, path.toString());
+        PackedModelBuilder builder = new PackedModelBuilder();
+        final PackedModel result = readMapped(path, builder, recorder)
+                ? builder.build()
+                : PackedModel.fromModel(readStream(path, recorder));
+        // сборка модели - часть разбора
+        recorder.parseFinished();
+        checkMeshAfterReading(result, options);
+        recorder.validationFinished(result);
+        return result;
+    }
+
+    // Чтение в OffHeapModel: и при разборе, и в готовой модели геометрия хранится в прямых буферах вне кучи
+    public static OffHeapModel readOffHeap(Path path) throws IOException {
+        return readOffHeap(path, ObjReaderOptions.DEFAULT);
+    }
+
+    public static OffHeapModel readOffHeap(Path path, ObjReaderOptions options) throws IOException {
+        ObjReadRecorder recorder = ObjReadRecorder.start(options, path.toString());
+        OffHeapModelBuilder builder = new OffHeapModelBuilder();
+        final OffHeapModel result = readMapped(path, builder, recorder)
+                ? builder.build()
+                : OffHeapModel.fromMesh(readStream(path, recorder));
+        // сборка модели - часть разбора
+        recorder.parseFinished();
+        checkMeshAfterReading(result, options);
+        recorder.validationFinished(result);
+        return result;
+    }
+
+    // Чтение через двоичный кэш рядом с файлом (Model.obj.objbin): если кэш свежий, он просто отображается в память,
+    // иначе файл разбирается, а кэш пересобирается. Кэш устаревает при изменении размера или времени изменения файла
+    public static OffHeapModel readCached(Path path) throws IOException {
+        return readCached(path, ObjBinaryCache.getCachePath(path));
+    }
+
+    public static OffHeapModel readCached(Path path, Path cacheFile) throws IOException {
+        return ObjBinaryCache.read(path, cacheFile);
+    }
+
+    // Возвращает false, если файл нельзя разобрать по байтам.
+    // Разбор здесь не заканчивается: время сборки модели из builder вызывающий код тоже относит к разбору
+    private static boolean readMapped(Path path, MeshBuilder builder, ObjReadRecorder recorder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel);
+            recorder.ioFinished();
+            if (buffer == null) {
+                return false;
+            }
+            ObjBufferParser parser = new ObjBufferParser(buffer);
+            if (!parser.parse(0, buffer.capacity(), new MeshBuilderListener(builder))) {
+                // время неудачной попытки тоже относится к разбору, а строки посчитает чтение через Reader
+                recorder.parseFinished();
+                return false;
+            }
+            recorder.parseFinished(buffer.capacity(), parser.getLineInd());
+            return true;
+        }
+    }
+
+    // Файлы больше 2 ГБ не помещаются в один буфер и читаются построчно
+    private static MappedByteBuffer map(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            return null;
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    // Файл читается в UTF-8, некорректные последовательности байт приводят к MalformedInputException, как и в Files.readString
+    public static Model read(InputStream inputStream) throws IOException {
+        return read(inputStream, ObjReaderOptions.DEFAULT);
+    }
+
+    public static Model read(InputStream inputStream, ObjReaderOptions options) throws IOException {
+        return read(new InputStreamReader(inputStream, StandardCharsets.UTF_8.newDecoder()), options);
+    }
+
+    public static Model read(Reader reader) throws IOException {
+        return read(reader, ObjReaderOptions.DEFAULT);
+    }
+
+    public static Model read(Reader reader, ObjReaderOptions options) throws IOException {
+        return read(reader, options, ObjReadRecorder.start(options, "reader"));
+    }
+
+    private static Model read(Reader reader, ObjReaderOptions options, ObjReadRecorder recorder) throws IOException {
+        Model result = new Model();
+        read(reader, new ObjModelListener(result), recorder);
+        recorder.parseFinished();
+        checkMeshAfterReading(result, options);
+        recorder.validationFinished(result);
+        return result;
+    }
+
+    // Потоковое чтение: элементы передаются слушателю по мере разбора, модель не строится и не проверяется.
+    // Разбор тот же, что и при чтении модели, включая ошибки и номера строк
+    public static void read(Path path, ObjReaderListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel);
+            if (buffer != null) {
+                // проверяем заранее, чтобы не переключаться на Reader, когда слушатель уже получил часть элементов
+                ObjBufferParser parser = new ObjBufferParser(buffer);
+                if (parser.isAscii(0, buffer.capacity())) {
+                    parser.parse(0, buffer.capacity(), listener);
+                    return;
+                }
+            }
+        }
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            read(inputStream, listener);
+        }
+    }
 
-            final String token = wordsInLine.get(0);
-            wordsInLine.remove(0);
+    public static void read(InputStream inputStream, ObjReaderListener listener) throws IOException {
+        read(new InputStreamReader(inputStream, StandardCharsets.UTF_8.newDecoder()), listener);
+    }
 
-//            if (wordsInLine.get(0).equals("")) {
-//                throw new ObjReaderException( ,lineInd);
-//            }
+    public static void read(Reader reader, ObjReaderListener listener) throws IOException {
+        read(reader, listener, ObjReadRecorder.DISABLED);
+    }
 
+    private static void read(Reader reader, ObjReaderListener listener, ObjReadRecorder recorder) throws IOException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader, READ_BUFFER_SIZE);
+
+        int lineInd = 0;
+        int verticesCount = 0;
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
             ++lineInd;
-            switch (token) {
-                // Для структур типа вершин методы написаны так, чтобы ничего не знать о внешней среде.
-                // Они принимают только то, что им нужно для работы, а возвращают только то, что могут создать.
-                // Исключение - индекс строки. Он прокидывается, чтобы выводить сообщение об ошибке.
-                // Могло быть иначе. Например, метод parseVertex мог вместо возвращения вершины принимать вектор вершин
-                // модели или сам класс модели, работать с ним.
-                // Но такой подход может привести к большему количеству ошибок в коде. Например, в нем что-то может
-                // тайно сделаться с классом модели.
-                // А еще это портит читаемость
-                // И не стоит забывать про тесты. Чем проще вам задать данные для теста, проверить, что метод рабочий,
-                // тем лучше.
-                case OBJ_VERTEX_TOKEN -> result.vertices.add(parseVertex(wordsInLine, lineInd));
-                case OBJ_TEXTURE_TOKEN -> result.textureVertices.add(parseTextureVertex(wordsInLine, lineInd));
-                case OBJ_NORMAL_TOKEN -> result.normals.add(parseNormal(wordsInLine, lineInd));
-                case OBJ_FACE_TOKEN -> result.polygons.add(parseFace(wordsInLine, lineInd, result.vertices.size()));
-                default -> {
+            recorder.lineRead(line.length());
+            try {
+                if (parseLine(line, lineInd, verticesCount, listener)) {
+                    ++verticesCount;
                 }
+            } catch (ObjReaderException exception) {
+                listener.onError(exception);
             }
         }
-        checkModelAfterReading(result);
+    }
+
+    protected static void parseLine(final String line, int lineInd, Model result) {
+        parseLine(line, lineInd, result.vertices.size(), new ObjModelListener(result));
+    }
+
+    // Возвращает true, если в строке была вершина: от кол-ва вершин отсчитываются отрицательные индексы в гранях
+    private static boolean parseLine(final String line, int lineInd, int verticesAmount, ObjReaderListener listener) {
+        ArrayList<String> wordsInLine = new ArrayList<String>(Arrays.asList(line.split("\\s+"))); // сплитим по пробелам
+        if (wordsInLine.isEmpty()) {
+            if (!line.isEmpty()) {
+                listener.onUnknown(line, lineInd);
+            }
+            return false;
+        }
+
+        final String token = wordsInLine.get(0);
+        wordsInLine.remove(0);
+
+        switch (token) {
+            // Для структур типа вершин методы написаны так, чтобы ничего не знать о внешней среде.
+            // Они принимают только то, что им нужно для работы, а возвращают только то, что могут создать.
+            // Исключение - индекс строки. Он прокидывается, чтобы выводить сообщение об ошибке.
+            // Могло быть иначе. Например, метод parseVertex мог вместо возвращения вершины принимать вектор вершин
+            // модели или сам класс модели, работать с ним.
+            // Но такой подход может привести к большему количеству ошибок в коде. Например, в нем что-то может
+            // тайно сделаться с классом модели.
+            // А еще это портит читаемость
+            // И не стоит забывать про тесты. Чем проще вам задать данные для теста, проверить, что метод рабочий,
+            // тем лучше.
+            case OBJ_VERTEX_TOKEN -> {
+                Vector3f vertex = parseVertex(wordsInLine, lineInd);
+                listener.onVertex(vertex.getX(), vertex.getY(), vertex.getZ());
+                return true;
+            }
+            case OBJ_TEXTURE_TOKEN -> {
+                Vector2f textureVertex = parseTextureVertex(wordsInLine, lineInd);
+                listener.onTexture(textureVertex.getX(), textureVertex.getY());
+            }
+            case OBJ_NORMAL_TOKEN -> {
+                Vector3f normal = parseNormal(wordsInLine, lineInd);
+                listener.onNormal(normal.getX(), normal.getY(), normal.getZ());
+            }
+            case OBJ_FACE_TOKEN -> {
+                Polygon polygon = parseFace(wordsInLine, lineInd, verticesAmount);
+                listener.onFace(
+                        toArray(polygon.getVertexIndices()),
+                        toArray(polygon.getTextureVertexIndices()),
+                        toArray(polygon.getNormalIndices()));
+            }
+            default -> listener.onUnknown(line, lineInd);
+        }
+        return false;
+    }
+
+    private static int[] toArray(ArrayList<Integer> values) {
+        final int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
         return result;
     }
 
@@ -68,9 +335,9 @@ public class ObjReader {
         }
         try {
             return new Vector3f(
-                    Float.parseFloat(wordsInLineWithoutToken.get(0)),
-                    Float.parseFloat(wordsInLineWithoutToken.get(1)),
-                    Float.parseFloat(wordsInLineWithoutToken.get(2)));
+                    parseFloat(wordsInLineWithoutToken.get(0)),
+                    parseFloat(wordsInLineWithoutToken.get(1)),
+                    parseFloat(wordsInLineWithoutToken.get(2)));
         } catch (NumberFormatException e) {
             throw new ObjReaderException("Failed to parse float value.", lineInd);
         } catch (IndexOutOfBoundsException e) {
@@ -87,8 +354,8 @@ public class ObjReader {
         }
         try {
             return new Vector2f(
-                    Float.parseFloat(wordsInLineWithoutToken.get(0)),
-                    Float.parseFloat(wordsInLineWithoutToken.get(1)));
+                    parseFloat(wordsInLineWithoutToken.get(0)),
+                    parseFloat(wordsInLineWithoutToken.get(1)));
         } catch (NumberFormatException e) {
             throw new ObjReaderException("Failed to parse float value.", lineInd);
         } catch (IndexOutOfBoundsException e) {
@@ -105,9 +372,9 @@ public class ObjReader {
         }
         try {
             return new Vector3f(
-                    Float.parseFloat(wordsInLineWithoutToken.get(0)),
-                    Float.parseFloat(wordsInLineWithoutToken.get(1)),
-                    Float.parseFloat(wordsInLineWithoutToken.get(2)));
+                    parseFloat(wordsInLineWithoutToken.get(0)),
+                    parseFloat(wordsInLineWithoutToken.get(1)),
+                    parseFloat(wordsInLineWithoutToken.get(2)));
         } catch (NumberFormatException e) {
             throw new ObjReaderException("Failed to parse float value.", lineInd);
         } catch (IndexOutOfBoundsException e) {
@@ -141,43 +408,53 @@ public class ObjReader {
             ArrayList<Integer> onePolygonNormalIndices,
             int lineInd,
             int verticesAmount) {
+        // концы первых трех частей слова, разделенных '/'; как и в split("/"), пустые части в конце не считаются
+        final int length = wordInLine.length();
+        int firstPartEnd = length;
+        int secondPartEnd = length;
+        int thirdPartEnd = length;
+        int partsCount = 0;
+        int nonEmptyPartsCount = 0;
+        int partStart = 0;
+        for (int position = 0; position <= length; position++) {
+            if (position == length || wordInLine.charAt(position) == '/') {
+                switch (partsCount) {
+                    case 0 -> firstPartEnd = position;
+                    case 1 -> secondPartEnd = position;
+                    case 2 -> thirdPartEnd = position;
+                    default -> {
+                    }
+                }
+                ++partsCount;
+                if (position > partStart) {
+                    nonEmptyPartsCount = partsCount;
+                }
+                partStart = position + 1;
+            }
+        }
+        // пустое слово split("/") не отбрасывает, и оно дает ошибку разбора числа ниже
+        if (nonEmptyPartsCount == 0 && length > 0) {
+            throw new ObjReaderException("Too few arguments.", lineInd);
+        }
+
         try {
-            String[] wordIndices = wordInLine.split("/");
-            // проверяем как у нас указаны вершины: используется обычная адресация или отрицательная, если обычная, то процесс обычный,
+            final int vertexIndex = ObjNumberParser.parseInt(wordInLine, 0, firstPartEnd);
+            // проверяем как у нас указаны вершины: используется обычная адресация или отрицательная, если обычная, то из индекса вычитаем единицу,
             // если отрицательная, то к отрицательному индексу прибавляем кол-во вершин (в obj-файле принято использоваться одинаковый тип индексации,
             // если вершины заданы отрицательной индексацией, то текстурные вершины и нормали, тоже должны быть заданы отрицательной адресацией, поэтому
             // достаточно проверить тип адресации только у вершин)
-            boolean flag = Integer.parseInt(wordIndices[0]) < 0;
-            switch (wordIndices.length) {
-                case 1 -> {
-                    if (flag) {
-                        onePolygonVertexIndices.add(Integer.parseInt(wordIndices[0]) + verticesAmount);
-                    } else {
-                        onePolygonVertexIndices.add(Integer.parseInt(wordIndices[0]) - 1);
-                    }
-                }
+            final int shift = vertexIndex < 0 ? verticesAmount : -1;
+            switch (nonEmptyPartsCount) {
+                case 1 -> onePolygonVertexIndices.add(vertexIndex + shift);
                 case 2 -> {
-                    if (flag) {
-                        onePolygonVertexIndices.add(Integer.parseInt(wordIndices[0]) + verticesAmount);
-                        onePolygonTextureVertexIndices.add(Integer.parseInt(wordIndices[1]) + verticesAmount);
-                    } else {
-                        onePolygonVertexIndices.add(Integer.parseInt(wordIndices[0]) - 1);
-                        onePolygonTextureVertexIndices.add(Integer.parseInt(wordIndices[1]) - 1);
-                    }
+                    onePolygonVertexIndices.add(vertexIndex + shift);
+                    onePolygonTextureVertexIndices.add(ObjNumberParser.parseInt(wordInLine, firstPartEnd + 1, secondPartEnd) + shift);
                 }
                 case 3 -> {
-                    if (flag) {
-                        onePolygonVertexIndices.add(Integer.parseInt(wordIndices[0]) + verticesAmount);
-                        onePolygonNormalIndices.add(Integer.parseInt(wordIndices[2]) + verticesAmount);
-                        if (!wordIndices[1].equals("")) {
-                            onePolygonTextureVertexIndices.add(Integer.parseInt(wordIndices[1]) + verticesAmount);
-                        }
-                    } else {
-                        onePolygonVertexIndices.add(Integer.parseInt(wordIndices[0]) - 1);
-                        onePolygonNormalIndices.add(Integer.parseInt(wordIndices[2]) - 1);
-                        if (!wordIndices[1].equals("")) {
-                            onePolygonTextureVertexIndices.add(Integer.parseInt(wordIndices[1]) - 1);
-                        }
+                    onePolygonVertexIndices.add(vertexIndex + shift);
+                    onePolygonNormalIndices.add(ObjNumberParser.parseInt(wordInLine, secondPartEnd + 1, thirdPartEnd) + shift);
+                    if (secondPartEnd > firstPartEnd + 1) {
+                        onePolygonTextureVertexIndices.add(ObjNumberParser.parseInt(wordInLine, firstPartEnd + 1, secondPartEnd) + shift);
                     }
                 }
                 default -> {
@@ -186,27 +463,34 @@ public class ObjReader {
             }
         } catch (NumberFormatException e) {
             throw new ObjReaderException("Failed to parse int value.", lineInd);
-        } catch (IndexOutOfBoundsException e) {
-            throw new ObjReaderException("Too few arguments.", lineInd);
         }
     }
 
+    private static float parseFloat(String word) {
+        return ObjNumberParser.parseFloat(word, 0, word.length());
+    }
+
     // номера вершин, текстурных вершин и нормалей начинаются с единицы
     protected static void checkModelAfterReading(Model model) {
-        ArrayList<Vector3f> modelVertices = model.vertices;
-        ArrayList<Vector2f> modelTextureVertices = model.textureVertices;
-        ArrayList<Vector3f> modelNormals = model.normals;
-        ArrayList<Polygon> modelPolygons = model.polygons;
-        int basedCounter = 0;
+        checkMeshAfterReading(model);
+    }
+
+    // Проверка работает через Mesh, поэтому одинакова для всех представлений модели
+    protected static void checkMeshAfterReading(Mesh mesh) {
+        checkMeshAfterReading(mesh, ObjReaderOptions.DEFAULT);
+    }
 
-        if (modelVertices.size() < 3) {
-            throw new RuntimeException("Model has 2 or fewer vertices."); // в моделе две вершины или меньше
-        } else if (modelPolygons.size() == 0) {
-            throw new RuntimeException("There is not a single polygon in the model."); // в моделе нет ни одного полигона
+    protected static void checkMeshAfterReading(Mesh mesh, ObjReaderOptions options) {
+        if (options.getValidationLevel() == ObjReaderOptions.ValidationLevel.NONE) {
+            return;
         }
+        MeshValidator validator = new MeshValidator(mesh, options);
+        int basedCounter = 0;
 
-        for (int i = 0; i < modelPolygons.size(); i++) {
-            int counter = checkPolygon(model.polygons.get(i), i, modelVertices, modelTextureVertices, modelNormals);
+        ObjParallelValidator.checkCounts(mesh.getVertexCount(), mesh.getPolygonCount());
+
+        for (int i = 0; i < mesh.getPolygonCount(); i++) {
+            int counter = validator.checkPolygon(i, i);
             if (i == 0) {
                 basedCounter = counter;
             } else {
@@ -217,98 +501,49 @@ public class ObjReader {
         }
     }
 
+    // Параллельная проверка: диапазоны полигонов проверяются на потоках пула, ошибка та же, что и при последовательной
+    protected static void checkMeshAfterReading(Mesh mesh, ForkJoinPool pool) {
+        checkMeshAfterReading(mesh, pool, ObjReaderOptions.DEFAULT);
+    }
+
+    protected static void checkMeshAfterReading(Mesh mesh, ForkJoinPool pool, ObjReaderOptions options) {
+        ObjParallelValidator.check(mesh, pool, options);
+    }
+
     protected static int checkPolygon(Polygon polygon, int polygonIndex, ArrayList<Vector3f> modelVertices, ArrayList<Vector2f> modelTextureVertices, ArrayList<Vector3f> modelNormals) {
-        int counter = 0;
-        float[][] matrix3f = new float[3][3];
-        matrix3f[0][0] = 1; matrix3f[0][1] = 1; matrix3f[0][2] = 1;
+        Model model = new Model();
+        model.vertices = modelVertices;
+        model.textureVertices = modelTextureVertices;
+        model.normals = modelNormals;
+        model.polygons.add(polygon);
+        return new MeshValidator(model).checkPolygon(0, polygonIndex);
+    }
 
-        ArrayList<Integer> polygonVertices = polygon.getVertexIndices();
-        if (polygonVertices.size() < 3) {
-            throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": it consists only of 2 or fewer vertices.");
-        }
+    private static final class MeshBuilderListener implements ObjReaderListener {
+        private final MeshBuilder builder;
 
-        ArrayList<Integer> polygonTextureVertices = polygon.getTextureVertexIndices();
-        ArrayList<Integer> polygonNormals = polygon.getNormalIndices();
-        if (polygonVertices.size() != polygonTextureVertices.size() && (polygonTextureVertices.size() != 0)) {
-            throw new RuntimeException("Not all vertices of polygon number " + (polygonIndex + 1) + " have a texture vertex attached to them."); // не ко всем вершинам полигона номер i привязана текстурная вершина
-        } else if (polygonVertices.size() != polygonNormals.size() && (polygonNormals.size() != 0)) {
-            throw new RuntimeException("Not all vertices of polygon number " + (polygonIndex + 1) + " have a normals attached to them."); // не ко всем вершинам полигона номер i привяза нормаль
+        private MeshBuilderListener(MeshBuilder builder) {
+            this.builder = builder;
         }
 
-        if (polygonTextureVertices.size() != 0) {
-            counter+=2;
-        }
-        if (polygonNormals.size() != 0) {
-            counter+=3;
+        @Override
+        public void onVertex(float x, float y, float z) {
+            builder.addVertex(x, y, z);
         }
 
-        for (int j = 0; j < polygonVertices.size() - 2; j++) {
-
-            for (int k = j + 1; k < polygonVertices.size() - 1; k++) {
-                Vector3f firstPoint3D;
-                try {
-                    firstPoint3D = modelVertices.get(polygonVertices.get(k));
-                } catch (IndexOutOfBoundsException exception) {
-                    throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no vertex with number " + (polygonVertices.get(k) + 1) + " in the file.");
-                }
-
-                Vector3f firstVector3f;
-                try {
-                    firstVector3f = new Vector3f(firstPoint3D.getX() - modelVertices.get(polygonVertices.get(0)).getX(), firstPoint3D.getY() - modelVertices.get(polygonVertices.get(0)).getY(), firstPoint3D.getZ() - modelVertices.get(polygonVertices.get(0)).getZ());
-                } catch (IndexOutOfBoundsException exception) {
-                    throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no vertex with number " + (polygonVertices.get(0) + 1) + " in the file.");
-                }
-                matrix3f[1][0] = firstVector3f.getX(); matrix3f[1][1] = firstVector3f.getY(); matrix3f[1][2] = firstVector3f.getZ();
-
-                for (int l = k + 1; l < polygonVertices.size(); l++) {
-                    Vector3f secondPoint3D;
-                    try {
-                        secondPoint3D = modelVertices.get(polygonVertices.get(l));
-                    } catch (IndexOutOfBoundsException exception) {
-                        throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no vertex with number " + (polygonVertices.get(l) + 1) + " in the file.");
-                    }
-
-                    Vector3f secondVector3f = new Vector3f(secondPoint3D.getX() - modelVertices.get(polygonVertices.get(0)).getX(), secondPoint3D.getY() - modelVertices.get(polygonVertices.get(0)).getY(), secondPoint3D.getZ() - modelVertices.get(polygonVertices.get(0)).getZ());
-                    matrix3f[2][0] = secondVector3f.getX(); matrix3f[2][1] = secondVector3f.getY(); matrix3f[2][2] = secondVector3f.getZ();
-                    Vector3f vectorProduct = new Vector3f(matrix3f[1][1] * matrix3f[2][2] - matrix3f[1][2] * matrix3f[2][1],
-                            matrix3f[1][2] * matrix3f[2][0] - matrix3f[1][0] * matrix3f[2][2],
-                            matrix3f[1][0] * matrix3f[2][1] - matrix3f[1][1] * matrix3f[2][0]);
-                    if (vectorProduct.getX() == 0 && vectorProduct.getY() == 0 && vectorProduct.getZ() == 0) {
-                        throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": some of its points lie on the same line or are identical.");
-                    }
-
-//                    if (l < polygonVertices.size() - 1) {
-//                        for (int m = l + 1; m < polygonVertices.size(); m++) {
-//                            Vector3f thirdPoint3D;
-//                            try {
-//                                thirdPoint3D = modelVertices.get(polygonVertices.get(m));
-//                            } catch (IndexOutOfBoundsException exception) {
-//                                throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no vertex with number " + (polygonVertices.get(m) + 1) + " in the file.");
-//                            }
-//
-//                            Vector3f forthVector3f = new Vector3f(thirdPoint3D.getX() - modelVertices.get(polygonVertices.get(0)).getX(), thirdPoint3D.getY() - modelVertices.get(polygonVertices.get(0)).getY(), thirdPoint3D.getZ() - modelVertices.get(polygonVertices.get(0)).getZ());
-//                            // для вещественных использовать эпсилон либо целое число большее нуля, так как точки могут лежать в одной плоскости с некоторым отклонением, из-за чего
-//                            //значение скалярного произведения может быть даже > 1
-//                            if (Math.abs(vectorProduct.dotProduct(forthVector3f)) != 0/*3 1e-6*/) { //если ноль, то лежит в одной плоскости
-//                                throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": its points do not lie in the same plane.");
-//                            }
-//                        }
-//                    }
-                }
-            }
+        @Override
+        public void onTexture(float u, float v) {
+            builder.addTextureVertex(u, v);
+        }
 
-            for (int k = 0; k < polygonTextureVertices.size(); k++) {
-                if (polygonTextureVertices.get(k) >= modelTextureVertices.size() || polygonTextureVertices.get(k) == -1) {
-                    throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no texture vertex with number " + (polygonTextureVertices.get(k) + 1) + " in the file."); // в файле нет текстурной вершины с номером k
-                }
-            }
+        @Override
+        public void onNormal(float x, float y, float z) {
+            builder.addNormal(x, y, z);
+        }
 
-            for (int l = 0; l < polygonNormals.size(); l++) {
-                if (polygonNormals.get(l) >= modelNormals.size() || polygonNormals.get(l) == -1) {
-                    throw new RuntimeException("For polygon #" + (polygonIndex + 1) + ": there is no normal with number " + (polygonNormals.get(l) + 1) + " in the file."); // в файле нет нормали с номером l
-                }
-            }
+        @Override
+        public void onFace(int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices) {
+            builder.addPolygon(vertexIndices, textureVertexIndices, normalIndices);
         }
-        return counter;
     }
 }
\ No newline at end of file
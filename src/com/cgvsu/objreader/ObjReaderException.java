@@ -1,7 +1,14 @@
 package com.cgvsu.objreader;
 
 public class ObjReaderException extends RuntimeException {
+    private final int lineInd;
+
     public ObjReaderException(String errorMessage, int lineInd) {
         super("Error parsing OBJ file on line: " + lineInd + ". " + errorMessage);
+        this.lineInd = lineInd;
+    }
+
+    public int getLineInd() {
+        return lineInd;
     }
-}
\ No newline at end of file
+}
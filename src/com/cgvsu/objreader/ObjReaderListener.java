@@ -0,0 +1,32 @@
+package com.cgvsu.objreader;
+
+// Получает элементы OBJ по мере разбора (ObjReader.read(..., listener)), без промежуточной модели,
+// так что файл любого размера обрабатывается в постоянной памяти.
+// Индексы в onFace уже приведены к нумерации с нуля (с учетом отрицательной адресации).
+// Массивы граней и строка в onUnknown переиспользуются разборщиком: хранить их после вызова нельзя.
+// Модель при таком чтении не строится, поэтому и не проверяется (см. ObjReader.checkModelAfterReading).
+public interface ObjReaderListener {
+
+    default void onVertex(float x, float y, float z) {
+    }
+
+    default void onTexture(float u, float v) {
+    }
+
+    default void onNormal(float x, float y, float z) {
+    }
+
+    default void onFace(int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices) {
+    }
+
+    // Непустая строка, которая не является вершиной, текстурной вершиной, нормалью или гранью:
+    // комментарии, группы, материалы и т.д.
+    default void onUnknown(CharSequence line, int lineInd) {
+    }
+
+    // Строка с ошибкой. По умолчанию ошибка пробрасывается и чтение прекращается;
+    // если не бросать исключение, строка пропускается и чтение продолжается
+    default void onError(ObjReaderException exception) {
+        throw exception;
+    }
+}
@@ -0,0 +1,10 @@
+package com.cgvsu.objreader;
+
+// Получатель статистики чтения моделей: задается в ObjReaderOptions.withMetrics и вызывается после каждого
+// успешного чтения модели с этими настройками в том потоке, который читал модель.
+// Если получатель не задан и событие JFR не включено, время и счетчики не собираются вообще
+@FunctionalInterface
+public interface ObjReaderMetrics {
+
+    void onRead(ObjReadStatistics statistics);
+}
@@ -0,0 +1,74 @@
+package com.cgvsu.objreader;
+
+// Настройки чтения модели: насколько подробно модель проверяется после разбора.
+// Ошибки разбора (неверные числа, лишние координаты и т.п.) бросаются при любом уровне проверки
+public final class ObjReaderOptions {
+
+    public enum ValidationLevel {
+        // модель не проверяется - для заведомо корректных файлов, которые уже проверялись раньше
+        NONE,
+        // проверяются кол-ва вершин и полигонов и то, что все индексы ссылаются на существующие элементы,
+        // но не геометрия полигонов
+        INDICES_ONLY,
+        // еще и полигоны, у которых вершины лежат на одной прямой или совпадают, - как было всегда
+        FULL_GEOMETRY
+    }
+
+    // Как при чтении без настроек
+    public static final ObjReaderOptions DEFAULT = new ObjReaderOptions(ValidationLevel.FULL_GEOMETRY);
+
+    private final ValidationLevel validationLevel;
+    private final boolean planarityChecked;
+    private final float planarityEpsilon;
+    private final ObjReaderMetrics metrics;
+
+    public ObjReaderOptions(ValidationLevel validationLevel) {
+        if (validationLevel == null) {
+            throw new IllegalArgumentException("Validation level is not specified.");
+        }
+        this.validationLevel = validationLevel;
+        this.planarityChecked = false;
+        this.planarityEpsilon = 0;
+        this.metrics = null;
+    }
+
+    // Полная проверка и проверка, что полигоны плоские: каждая вершина полигона должна быть не дальше planarityEpsilon
+    // от плоскости его первых трех вершин
+    public ObjReaderOptions(float planarityEpsilon) {
+        if (!(planarityEpsilon >= 0) || Float.isInfinite(planarityEpsilon)) {
+            throw new IllegalArgumentException("Planarity epsilon must be a non-negative finite number.");
+        }
+        this.validationLevel = ValidationLevel.FULL_GEOMETRY;
+        this.planarityChecked = true;
+        this.planarityEpsilon = planarityEpsilon;
+        this.metrics = null;
+    }
+
+    private ObjReaderOptions(ObjReaderOptions options, ObjReaderMetrics metrics) {
+        this.validationLevel = options.validationLevel;
+        this.planarityChecked = options.planarityChecked;
+        this.planarityEpsilon = options.planarityEpsilon;
+        this.metrics = metrics;
+    }
+
+    // Те же настройки, но после каждого чтения статистика передается metrics (null - не передается)
+    public ObjReaderOptions withMetrics(ObjReaderMetrics metrics) {
+        return new ObjReaderOptions(this, metrics);
+    }
+
+    public ValidationLevel getValidationLevel() {
+        return validationLevel;
+    }
+
+    public boolean isPlanarityChecked() {
+        return planarityChecked;
+    }
+
+    public float getPlanarityEpsilon() {
+        return planarityEpsilon;
+    }
+
+    public ObjReaderMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,104 @@
+package com.cgvsu.math;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class Matrix4fTest {
+
+    private static final float[][] A = {
+            {1.5f, 0.1f, 0.2f, 3},
+            {0.3f, 1.2f, 0.4f, -2},
+            {0.5f, 0.6f, 0.9f, 1},
+            {0.01f, 0.02f, 0.03f, 1}};
+    private static final float[][] B = {
+            {0.9f, -0.1f, 0, 1},
+            {0.1f, 0.9f, 0, 2},
+            {0, 0, 1, 3},
+            {0, 0, 0, 1}};
+
+    @Test
+    public void testMatrix01() {
+        float[][] cells = new float[][]{{1, 2, 3, 4}, {5, 6, 7, 8}, {9, 10, 11, 12}, {13, 14, 15, 16}};
+        Matrix4f matrix = new Matrix4f(cells);
+        Assertions.assertEquals(7, matrix.getCell(1, 2));
+        Assertions.assertEquals(7, matrix.getCells()[6]);
+        Assertions.assertArrayEquals(cells[3], matrix.getMatrix()[3]);
+
+        matrix.setCell(3, 0, -1);
+        Assertions.assertEquals(-1, matrix.getMatrix()[3][0]);
+        Assertions.assertTrue(new Matrix4f(true).equalsAns(new Matrix4f().setIdentity()));
+        try {
+            new Matrix4f(new float[][]{{1, 2, 3, 4}, {5, 6, 7, 8}, {9, 10, 11}, {13, 14, 15, 16}});
+            Assertions.fail();
+        } catch (IllegalArgumentException exception) {
+            Assertions.assertEquals("Предоставленная матрица должна быть матрицей 4 на 4", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testMul01() {
+        Matrix4f a = new Matrix4f(A);
+        Matrix4f b = new Matrix4f(B);
+        Matrix4f expected = a.multiplyMatrix(b);
+        Assertions.assertEquals(1.5f * 0.9f + 0.1f * 0.1f, expected.getCell(0, 0), 1e-6f);
+
+        Assertions.assertTrue(Matrix4f.mul(a, b, new Matrix4f()).equalsAns(expected));
+        // результат в одном из множителей
+        Matrix4f right = new Matrix4f(b);
+        Assertions.assertTrue(Matrix4f.mul(a, right, right).equalsAns(expected));
+        Matrix4f left = new Matrix4f(a);
+        Assertions.assertSame(left, left.mulInPlace(b));
+        Assertions.assertTrue(left.equalsAns(expected));
+        Assertions.assertTrue(new Matrix4f(A).equalsAns(a));
+        Assertions.assertTrue(new Matrix4f().set(a).equalsAns(a));
+    }
+
+    @Test
+    public void testInPlace01() {
+        Matrix4f a = new Matrix4f(A);
+        Matrix4f b = new Matrix4f(B);
+        Assertions.assertTrue(new Matrix4f(a).sumInPlace(b).equalsAns(a.sum(b)));
+        Assertions.assertTrue(new Matrix4f(a).subInPlace(b).equalsAns(a.sub(b)));
+        Assertions.assertTrue(new Matrix4f(a).transposeInPlace().equalsAns(a.transpose()));
+        Assertions.assertEquals(0.1f, a.transpose().getCell(1, 0));
+    }
+
+    @Test
+    public void testTransform01() {
+        Matrix4f matrix = new Matrix4f(A);
+        Vector3f point = new Vector3f(1.1f, 2.2f, 3.3f);
+        Vector3f expected = matrix.multiplyVectorDivW(point);
+        Assertions.assertEquals(expected, Vector3f.multiplyMatrix4ByVector3(matrix, point));
+
+        Vector3f dest = new Vector3f();
+        Assertions.assertSame(dest, matrix.transform(point, dest));
+        Assertions.assertEquals(expected, dest);
+        matrix.transform(point, point);
+        Assertions.assertEquals(expected, point);
+
+        Vector4f vector = new Vector4f(1.1f, 2.2f, 3.3f, 1);
+        Vector4f expected4 = matrix.multiplyVector(vector);
+        Assertions.assertEquals(expected4, matrix.transform(vector, new Vector4f(0, 0, 0, 0)));
+        Assertions.assertEquals(expected.getX(), expected4.getX() / expected4.getW(), 1e-6f);
+    }
+
+    @Test
+    public void testMatrix3f01() {
+        Matrix3f a = new Matrix3f(new float[][]{{1.5f, 0.1f, 0.2f}, {0.3f, 1.2f, 0.4f}, {0.5f, 0.6f, 0.9f}});
+        Matrix3f b = new Matrix3f(new float[][]{{0.9f, -0.1f, 0}, {0.1f, 0.9f, 0}, {0, 0, 1}});
+        Matrix3f expected = a.multiplyMatrix(b);
+        Assertions.assertTrue(new Matrix3f(a).mulInPlace(b).equalsAns(expected));
+        Matrix3f right = new Matrix3f(b);
+        Assertions.assertTrue(Matrix3f.mul(a, right, right).equalsAns(expected));
+        Assertions.assertTrue(new Matrix3f(a).addInPlace(b).equalsAns(a.add(b)));
+        Assertions.assertTrue(new Matrix3f(a).transposeInPlace().equalsAns(a.transpose()));
+
+        Vector3f result = a.multiplyVector(new Vector3f(1, 2, 3));
+        Assertions.assertEquals(2.3f, result.getX(), 1e-6f);
+        Assertions.assertEquals(3.9f, result.getY(), 1e-6f);
+        Assertions.assertEquals(4.4f, result.getZ(), 1e-6f);
+        Vector3f vector = new Vector3f(1, 2, 3);
+        Assertions.assertEquals(result, a.transform(vector, vector));
+        Assertions.assertTrue(new Matrix3f(true).equalsAns(new Matrix3f().setIdentity()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.cgvsu.math;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class VertexTransformTest {
+
+    private static final Matrix4f MATRIX = new Matrix4f(new float[][]{
+            {1.5f, 0.1f, 0.2f, 3},
+            {0.3f, 1.2f, 0.4f, -2},
+            {0.5f, 0.6f, 0.9f, 1},
+            {0.01f, 0.02f, 0.03f, 1}});
+
+    private static float[] randomCoordinates(int verticesCount) {
+        Random random = new Random(1);
+        float[] result = new float[verticesCount * 3];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = random.nextFloat() * 10 - 5;
+        }
+        return result;
+    }
+
+    @Test
+    public void testTransform01() {
+        float[] coordinates = randomCoordinates(1000);
+        float[] transformed = new float[coordinates.length];
+        VertexTransform.transform(MATRIX, coordinates, transformed, true);
+        for (int i = 0; i < 1000; i++) {
+            Vector3f expected = MATRIX.multiplyVectorDivW(
+                    new Vector3f(coordinates[i * 3], coordinates[i * 3 + 1], coordinates[i * 3 + 2]));
+            Assertions.assertEquals(expected.getX(), transformed[i * 3]);
+            Assertions.assertEquals(expected.getY(), transformed[i * 3 + 1]);
+            Assertions.assertEquals(expected.getZ(), transformed[i * 3 + 2]);
+        }
+
+        // без деления на w четвертая строка не используется
+        VertexTransform.transform(MATRIX, new float[]{1, 2, 3}, 0, transformed, 1, 1, false);
+        Assertions.assertEquals(1.5f + 0.2f + 0.6f + 3, transformed[3], 1e-5f);
+        Assertions.assertEquals(0.3f + 2.4f + 1.2f - 2, transformed[4], 1e-5f);
+        Assertions.assertEquals(0.5f + 1.2f + 2.7f + 1, transformed[5], 1e-5f);
+    }
+
+    @Test
+    public void testTransform02() {
+        float[] coordinates = randomCoordinates(10_001);
+        float[] expected = new float[coordinates.length];
+        VertexTransform.transform(MATRIX, coordinates, expected, true);
+
+        float[] transformed = new float[coordinates.length];
+        VertexTransform.transform(MATRIX, coordinates, transformed, true, new ForkJoinPool(4), 1000);
+        Assertions.assertArrayEquals(expected, transformed);
+        // на месте
+        VertexTransform.transform(MATRIX, coordinates, coordinates, true, new ForkJoinPool(4), 1000);
+        Assertions.assertArrayEquals(expected, coordinates);
+    }
+
+    @Test
+    public void testTransform03() {
+        float[] coordinates = randomCoordinates(10);
+        List<Vector3f> vertices = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            vertices.add(new Vector3f(coordinates[i * 3], coordinates[i * 3 + 1], coordinates[i * 3 + 2]));
+        }
+        VertexTransform.transform(MATRIX, coordinates, coordinates, false);
+        VertexTransform.transform(MATRIX, vertices, false);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(coordinates[i * 3], vertices.get(i).getX());
+            Assertions.assertEquals(coordinates[i * 3 + 2], vertices.get(i).getZ());
+        }
+
+        try {
+            VertexTransform.transform(MATRIX, coordinates, 9, coordinates, 9, 2, true);
+            Assertions.fail();
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Matrix4f;
+import com.cgvsu.math.Vector3f;
+import com.cgvsu.objreader.ObjReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+class BoundsTest {
+
+    // Все вершины внутри AABB и сферы (с запасом на округление)
+    private static void assertContains(Bounds bounds, Model model) {
+        for (Vector3f vertex : model.vertices) {
+            Assertions.assertTrue(vertex.getX() >= bounds.getMinX() - 1e-5f && vertex.getX() <= bounds.getMaxX() + 1e-5f);
+            Assertions.assertTrue(vertex.getY() >= bounds.getMinY() - 1e-5f && vertex.getY() <= bounds.getMaxY() + 1e-5f);
+            Assertions.assertTrue(vertex.getZ() >= bounds.getMinZ() - 1e-5f && vertex.getZ() <= bounds.getMaxZ() + 1e-5f);
+            final float dx = vertex.getX() - bounds.getCenterX();
+            final float dy = vertex.getY() - bounds.getCenterY();
+            final float dz = vertex.getZ() - bounds.getCenterZ();
+            Assertions.assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz) <= bounds.getRadius() + 1e-5f);
+        }
+    }
+
+    @Test
+    public void testOf01() {
+        Bounds bounds = Bounds.of(TestModels.cube());
+        Assertions.assertFalse(bounds.isEmpty());
+        Assertions.assertEquals(0, bounds.getMinX());
+        Assertions.assertEquals(1, bounds.getMaxZ());
+        Assertions.assertEquals(0.5f, bounds.getCenterY());
+        Assertions.assertEquals((float) Math.sqrt(0.75), bounds.getRadius(), 1e-6f);
+
+        Assertions.assertTrue(Bounds.of(new Model()).isEmpty());
+    }
+
+    @Test
+    public void testOfParallel01() throws IOException {
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj"));
+        Assertions.assertEquals(Bounds.of(model).toString(), Bounds.of(model, new ForkJoinPool(4), 64).toString());
+    }
+
+    @Test
+    public void testGetBounds01() {
+        Model model = TestModels.cube();
+        Bounds bounds = model.getBounds();
+        Assertions.assertSame(bounds, model.getBounds());
+
+        // новые вершины в конце списка учитываются без пересчета
+        model.vertices.add(new Vector3f(3, -1, 0.5f));
+        model.vertices.add(new Vector3f(0.5f, 0.5f, 0.5f));
+        bounds = model.getBounds();
+        Assertions.assertEquals(-1, bounds.getMinY());
+        Assertions.assertEquals(3, bounds.getMaxX());
+        assertContains(bounds, model);
+
+        model.vertices.remove(model.vertices.size() - 1);
+        model.vertices.remove(model.vertices.size() - 1);
+        Assertions.assertEquals(Bounds.of(TestModels.cube()).toString(), model.getBounds().toString());
+    }
+
+    @Test
+    public void testTransform01() throws IOException {
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj"));
+        model.getBounds();
+        final float cos = (float) Math.cos(0.7);
+        final float sin = (float) Math.sin(0.7);
+        Matrix4f matrix = new Matrix4f(new float[][]{
+                {2 * cos, -2 * sin, 0, 5},
+                {sin, cos, 0.5f, -1},
+                {0, 0, 3, 2},
+                {0, 0, 0, 1}});
+        model.transform(matrix);
+        Bounds bounds = model.getBounds();
+        Bounds exact = Bounds.of(model);
+        assertContains(bounds, model);
+        Assertions.assertTrue(bounds.getMinX() <= exact.getMinX() && bounds.getMaxX() >= exact.getMaxX());
+        // преобразованные габариты не должны быть намного больше точных
+        Assertions.assertTrue(bounds.getRadius() < exact.getRadius() * 2);
+
+        Matrix4f projection = new Matrix4f(true);
+        projection.setCell(3, 2, 0.1f);
+        model.transform(projection);
+        Assertions.assertEquals(Bounds.of(model).toString(), model.getBounds().toString());
+    }
+
+    @Test
+    public void testTransform03() {
+        // восемь поворотов на 45 градусов - полный оборот: габариты возвращаются к исходным, запас не накапливается
+        Model model = TestModels.cube();
+        model.getBounds();
+        final float cos = (float) Math.cos(Math.PI / 4);
+        final float sin = (float) Math.sin(Math.PI / 4);
+        Matrix4f rotation = new Matrix4f(new float[][]{
+                {cos, -sin, 0, 0},
+                {sin, cos, 0, 0},
+                {0, 0, 1, 0},
+                {0, 0, 0, 1}});
+        for (int i = 0; i < 8; i++) {
+            model.transform(rotation);
+            Bounds bounds = model.getBounds();
+            Bounds exact = Bounds.of(model);
+            assertContains(bounds, model);
+            // от одного преобразования точных габаритов AABB больше не более чем в sqrt(2) раз
+            Assertions.assertTrue(bounds.getMaxX() - bounds.getMinX() <= (exact.getMaxX() - exact.getMinX()) * 1.5f);
+            Assertions.assertEquals(exact.getRadius(), bounds.getRadius(), 1e-4f);
+        }
+        Bounds bounds = model.getBounds();
+        Bounds exact = Bounds.of(model);
+        Assertions.assertEquals(exact.getMinX(), bounds.getMinX(), 1e-4f);
+        Assertions.assertEquals(exact.getMaxX(), bounds.getMaxX(), 1e-4f);
+        Assertions.assertEquals(exact.getMinY(), bounds.getMinY(), 1e-4f);
+        Assertions.assertEquals(exact.getMaxY(), bounds.getMaxY(), 1e-4f);
+
+        // после добавления вершин к преобразованной модели габариты снова точные
+        model.vertices.add(new Vector3f(5, 5, 5));
+        Assertions.assertEquals(Bounds.of(model).toString(), model.getBounds().toString());
+    }
+
+    @Test
+    public void testTransform02() {
+        Bounds bounds = Bounds.of(TestModels.cube());
+        Matrix4f projection = new Matrix4f(true);
+        projection.setCell(3, 2, 0.1f);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> bounds.transform(projection));
+
+        // у поворота растяжение 1, и радиус не растет
+        final float cos = (float) Math.cos(1.1);
+        final float sin = (float) Math.sin(1.1);
+        Matrix4f rotation = new Matrix4f(new float[][]{
+                {cos, 0, sin, 0},
+                {0, 1, 0, 0},
+                {-sin, 0, cos, 0},
+                {0, 0, 0, 1}});
+        Assertions.assertEquals(bounds.getRadius(), bounds.transform(rotation).getRadius(), 1e-5f);
+    }
+}
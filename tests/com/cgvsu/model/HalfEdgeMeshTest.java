@@ -0,0 +1,136 @@
+package com.cgvsu.model;
+
+import com.cgvsu.objreader.ObjReader;
+import com.cgvsu.objreader.ObjReaderOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+class HalfEdgeMeshTest {
+
+    // Пары вершин ребер из списка
+    private static Set<String> edgeVertices(HalfEdgeMesh mesh, int[] edges) {
+        Set<String> result = new HashSet<>();
+        for (int edge : edges) {
+            final int halfEdge = mesh.getEdgeHalfEdge(edge, 0);
+            final int origin = mesh.getOrigin(halfEdge);
+            final int target = mesh.getTarget(halfEdge);
+            result.add(Math.min(origin, target) + "-" + Math.max(origin, target));
+        }
+        return result;
+    }
+
+    @Test
+    public void testBuild01() {
+        HalfEdgeMesh mesh = HalfEdgeMesh.build(TestModels.cube());
+        Assertions.assertEquals(24, mesh.getHalfEdgeCount());
+        Assertions.assertEquals(12, mesh.getEdgeCount());
+        Assertions.assertTrue(mesh.isManifold());
+        Assertions.assertTrue(mesh.isConsistentlyOriented());
+        Assertions.assertTrue(mesh.isClosed());
+        for (int halfEdge = 0; halfEdge < mesh.getHalfEdgeCount(); halfEdge++) {
+            final int twin = mesh.getTwin(halfEdge);
+            Assertions.assertEquals(halfEdge, mesh.getTwin(twin));
+            Assertions.assertEquals(mesh.getTarget(halfEdge), mesh.getOrigin(twin));
+            Assertions.assertEquals(mesh.getEdge(halfEdge), mesh.getEdge(twin));
+            Assertions.assertEquals(halfEdge, mesh.getNext(mesh.getPrevious(halfEdge)));
+            Assertions.assertEquals(mesh.getPolygon(halfEdge), mesh.getPolygon(mesh.getNext(halfEdge)));
+        }
+
+        int[] neighbors = new int[mesh.getNeighborCount(0)];
+        for (int i = 0; i < neighbors.length; i++) {
+            neighbors[i] = mesh.getNeighbor(0, i);
+        }
+        Arrays.sort(neighbors);
+        Assertions.assertArrayEquals(new int[]{1, 2, 4}, neighbors);
+
+        // обход вокруг вершины 0 проходит три ее грани и возвращается в начало
+        final int start = mesh.getVertexHalfEdge(0);
+        Set<Integer> polygons = new HashSet<>();
+        int halfEdge = start;
+        do {
+            Assertions.assertEquals(0, mesh.getOrigin(halfEdge));
+            polygons.add(mesh.getPolygon(halfEdge));
+            halfEdge = mesh.getTwin(mesh.getPrevious(halfEdge));
+        } while (halfEdge != start);
+        Assertions.assertEquals(Set.of(0, 2, 4), polygons);
+    }
+
+    @Test
+    public void testBuild02() {
+        HalfEdgeMesh mesh = HalfEdgeMesh.build(TestModels.model(5, new int[][]{{0, 1, 3, 2}, {1, 4, 3}}));
+        Assertions.assertEquals(6, mesh.getEdgeCount());
+        Assertions.assertFalse(mesh.isClosed());
+        Assertions.assertEquals(1, mesh.getBoundaryLoops().size());
+        Assertions.assertArrayEquals(new int[]{0, 1, 4, 3, 2}, mesh.getBoundaryLoops().get(0));
+        // у граничной вершины исходящее полуребро - граничное
+        Assertions.assertTrue(mesh.isBoundary(mesh.getVertexHalfEdge(3)));
+        Assertions.assertEquals(3, mesh.getNeighborCount(3));
+    }
+
+    @Test
+    public void testBuild03() throws IOException {
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/NonManifold.obj"));
+        HalfEdgeMesh mesh = HalfEdgeMesh.build(model);
+        Assertions.assertFalse(mesh.isManifold());
+        Assertions.assertEquals(Set.of("2-7"), edgeVertices(mesh, mesh.getNonManifoldEdges()));
+        Assertions.assertEquals(3, mesh.getEdgeHalfEdgeCount(mesh.getNonManifoldEdges()[0]));
+        // полигоны 0 и 1 обходят общее ребро 8-1 в одну сторону
+        Assertions.assertEquals(Set.of("1-8"), edgeVertices(mesh, mesh.getInconsistentEdges()));
+        for (int halfEdge = 0; halfEdge < mesh.getHalfEdgeCount(); halfEdge++) {
+            final int edge = mesh.getEdge(halfEdge);
+            if (mesh.getEdgeHalfEdgeCount(edge) != 2 || edge == mesh.getInconsistentEdges()[0]) {
+                Assertions.assertEquals(-1, mesh.getTwin(halfEdge));
+            }
+        }
+    }
+
+    @Test
+    public void testBuild04() throws IOException {
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/NonManifold2.obj"),
+                new ObjReaderOptions(ObjReaderOptions.ValidationLevel.INDICES_ONLY));
+        HalfEdgeMesh mesh = HalfEdgeMesh.build(model);
+        // в первом полигоне вершина 0 повторяется подряд
+        Assertions.assertEquals(-1, mesh.getEdge(0));
+        Assertions.assertFalse(mesh.isBoundary(0));
+        Assertions.assertEquals(Set.of("0-2"), edgeVertices(mesh, mesh.getNonManifoldEdges()));
+        Assertions.assertEquals(Set.of("4-6"), edgeVertices(mesh, mesh.getInconsistentEdges()));
+    }
+
+    @Test
+    public void testBuild05() throws IOException {
+        HalfEdgeMesh torus = HalfEdgeMesh.build(ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Torus.obj")));
+        Assertions.assertTrue(torus.isClosed());
+        Assertions.assertTrue(torus.isManifold());
+        Assertions.assertTrue(torus.isConsistentlyOriented());
+
+        HalfEdgeMesh teapot = HalfEdgeMesh.build(ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj")));
+        Assertions.assertTrue(teapot.isManifold());
+        Assertions.assertFalse(teapot.isClosed());
+        int boundaryCount = 0;
+        for (int halfEdge = 0; halfEdge < teapot.getHalfEdgeCount(); halfEdge++) {
+            if (teapot.isBoundary(halfEdge)) {
+                ++boundaryCount;
+            }
+        }
+        int loopsLength = 0;
+        for (int[] loop : teapot.getBoundaryLoops()) {
+            loopsLength += loop.length;
+            // соседние вершины границы соединены ребром
+            for (int i = 0; i < loop.length; i++) {
+                final int next = loop[(i + 1) % loop.length];
+                boolean found = false;
+                for (int j = 0; j < teapot.getNeighborCount(loop[i]); j++) {
+                    found |= teapot.getNeighbor(loop[i], j) == next;
+                }
+                Assertions.assertTrue(found);
+            }
+        }
+        Assertions.assertEquals(boundaryCount, loopsLength);
+    }
+}
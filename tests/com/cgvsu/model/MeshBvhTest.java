@@ -0,0 +1,189 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+import com.cgvsu.objreader.ObjReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class MeshBvhTest {
+
+    // Ближайшее пересечение перебором всех треугольников: {расстояние, номер полигона} или null
+    private static float[] intersectBruteForce(Mesh mesh, TriangleMesh triangleMesh, Vector3f origin, Vector3f direction) {
+        final int[] vertexIndices = triangleMesh.getVertexIndices();
+        float[] triangle = new float[9];
+        float[] hit = new float[3];
+        float[] result = null;
+        float nearest = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < triangleMesh.getTriangleCount(); i++) {
+            for (int corner = 0; corner < 3; corner++) {
+                final int vertex = vertexIndices[i * 3 + corner];
+                triangle[corner * 3] = mesh.getVertexX(vertex);
+                triangle[corner * 3 + 1] = mesh.getVertexY(vertex);
+                triangle[corner * 3 + 2] = mesh.getVertexZ(vertex);
+            }
+            if (MeshBvh.intersectTriangle(triangle, 0, origin.getX(), origin.getY(), origin.getZ(),
+                    direction.getX(), direction.getY(), direction.getZ(), nearest, hit)) {
+                nearest = hit[0];
+                result = new float[]{nearest, triangleMesh.getPolygonIndex(i)};
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testIntersect01() {
+        MeshBvh bvh = MeshBvh.build(TestModels.cube());
+        RayHit hit = bvh.intersect(new Vector3f(0.25f, 0.5f, -1), new Vector3f(0, 0, 1));
+        Assertions.assertNotNull(hit);
+        Assertions.assertEquals(1, hit.getDistance(), 1e-6f);
+        Assertions.assertEquals(0, hit.getPolygonIndex());
+
+        hit = bvh.intersect(new Vector3f(0.25f, 0.5f, 3), new Vector3f(0, 0, -2));
+        Assertions.assertNotNull(hit);
+        Assertions.assertEquals(1, hit.getDistance(), 1e-6f);
+        Assertions.assertEquals(1, hit.getPolygonIndex());
+    }
+
+    @Test
+    public void testIntersect02() {
+        MeshBvh bvh = MeshBvh.build(TestModels.cube());
+        Assertions.assertNull(bvh.intersect(new Vector3f(2, 0.5f, -1), new Vector3f(0, 0, 1)));
+        Assertions.assertNull(bvh.intersect(new Vector3f(0.5f, 0.5f, -1), new Vector3f(0, 0, -1)));
+        // изнутри луч попадает в грань с обратной стороны
+        RayHit hit = bvh.intersect(new Vector3f(0.5f, 0.25f, 0.5f), new Vector3f(1, 0, 0));
+        Assertions.assertNotNull(hit);
+        Assertions.assertEquals(0.5f, hit.getDistance(), 1e-6f);
+        Assertions.assertEquals(5, hit.getPolygonIndex());
+
+        RayHit result = new RayHit();
+        Assertions.assertFalse(bvh.intersect(new Vector3f(0.5f, 0.5f, -1), new Vector3f(0, 0, 1), 0.5f, result));
+        Assertions.assertEquals(-1, result.getPolygonIndex());
+    }
+
+    @Test
+    public void testIntersectsAny01() {
+        MeshBvh bvh = MeshBvh.build(TestModels.cube());
+        Assertions.assertTrue(bvh.intersectsAny(new Vector3f(0.5f, 0.5f, -1), new Vector3f(0, 0, 1), 10));
+        Assertions.assertFalse(bvh.intersectsAny(new Vector3f(0.5f, 0.5f, -1), new Vector3f(0, 0, 1), 0.5f));
+        Assertions.assertFalse(bvh.intersectsAny(new Vector3f(2, 0.5f, -1), new Vector3f(0, 0, 1), 10));
+    }
+
+    @Test
+    public void testIntersect03() {
+        MeshBvh bvh = MeshBvh.build(new Model());
+        Assertions.assertNull(bvh.intersect(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1)));
+        Assertions.assertFalse(bvh.intersectsAny(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1), 10));
+    }
+
+    @Test
+    public void testIntersect04() throws IOException {
+        // на случайных лучах ответы совпадают с перебором всех треугольников
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj"));
+        MeshBvh bvh = MeshBvh.build(model);
+        TriangleMesh triangleMesh = bvh.getTriangleMesh();
+        Random random = new Random(7);
+        RayHit hit = new RayHit();
+        int hitsCount = 0;
+        for (int i = 0; i < 500; i++) {
+            // чайник помещается в куб [-1, 1] по x и z и [0, 1] по y
+            Vector3f origin = new Vector3f(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+            Vector3f target = new Vector3f(random.nextFloat() * 1.4f - 0.7f, random.nextFloat() * 0.8f, random.nextFloat() - 0.5f);
+            Vector3f direction = new Vector3f(target.getX() - origin.getX(), target.getY() - origin.getY(), target.getZ() - origin.getZ());
+
+            float[] expected = intersectBruteForce(model, triangleMesh, origin, direction);
+            boolean found = bvh.intersect(origin, direction, Float.POSITIVE_INFINITY, hit);
+            Assertions.assertEquals(expected != null, found);
+            Assertions.assertEquals(expected != null, bvh.intersectsAny(origin, direction, Float.POSITIVE_INFINITY));
+            if (found) {
+                ++hitsCount;
+                Assertions.assertEquals(expected[0], hit.getDistance());
+                Assertions.assertEquals(triangleMesh.getPolygonIndex(hit.getTriangleIndex()), hit.getPolygonIndex());
+            }
+        }
+        Assertions.assertTrue(hitsCount > 100);
+    }
+
+    @Test
+    public void testIntersect05() {
+        // сетка квадратов с целыми координатами в плоскости z = 0: лучи вдоль осей с началом на координатах вершин
+        // лежат в граничных плоскостях узлов
+        final int size = 40;
+        Model model = new Model();
+        for (int y = 0; y <= size; y++) {
+            for (int x = 0; x <= size; x++) {
+                model.vertices.add(new Vector3f(x, y, 0));
+            }
+        }
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                final int vertex = y * (size + 1) + x;
+                Polygon polygon = new Polygon();
+                polygon.setVertexIndices(new ArrayList<>(Arrays.asList(vertex, vertex + 1, vertex + size + 2, vertex + size + 1)));
+                model.polygons.add(polygon);
+            }
+        }
+        MeshBvh bvh = MeshBvh.build(model);
+        TriangleMesh triangleMesh = bvh.getTriangleMesh();
+        float[][] rays = {
+                {0, 0, 5, 0, 0, -1}, {0, 0.5f, 5, 0, 0, -1}, {3, 3, 5, 0, 0, -1}, {3, 0.5f, 5, 0, 0, -1},
+                {40, 40, -5, 0, 0, 1}, {20, 7, 5, 0, 0, -2},
+                // луч в плоскости сетки
+                {-1, 3, 0, 1, 0, 0}, {3.5f, -1, 0, 0, 1, 0}};
+        RayHit hit = new RayHit();
+        for (float[] ray : rays) {
+            Vector3f origin = new Vector3f(ray[0], ray[1], ray[2]);
+            Vector3f direction = new Vector3f(ray[3], ray[4], ray[5]);
+            float[] expected = intersectBruteForce(model, triangleMesh, origin, direction);
+            Assertions.assertEquals(expected != null, bvh.intersect(origin, direction, Float.POSITIVE_INFINITY, hit), Arrays.toString(ray));
+            Assertions.assertEquals(expected != null, bvh.intersectsAny(origin, direction, Float.POSITIVE_INFINITY), Arrays.toString(ray));
+            if (expected != null) {
+                Assertions.assertEquals(expected[0], hit.getDistance());
+            }
+        }
+        Assertions.assertNotNull(bvh.intersect(new Vector3f(3, 3, 5), new Vector3f(0, 0, -1)));
+    }
+
+    @Test
+    public void testIntersect06() {
+        // попадание не зависит от размера треугольника
+        for (float size : new float[]{1e-4f, 1e-3f, 1, 1e3f}) {
+            Model model = new Model();
+            model.vertices.add(new Vector3f(0, 0, 0));
+            model.vertices.add(new Vector3f(size, 0, 0));
+            model.vertices.add(new Vector3f(0, size, 0));
+            Polygon polygon = new Polygon();
+            polygon.setVertexIndices(new ArrayList<>(Arrays.asList(0, 1, 2)));
+            model.polygons.add(polygon);
+            RayHit hit = MeshBvh.build(model).intersect(new Vector3f(size / 4, size / 4, 1), new Vector3f(0, 0, -1));
+            Assertions.assertNotNull(hit, "size " + size);
+            Assertions.assertEquals(1, hit.getDistance(), 1e-6f);
+        }
+    }
+
+    @Test
+    public void testBuildParallel01() throws IOException {
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj"));
+        TriangleMesh triangleMesh = Triangulator.triangulate(model);
+        MeshBvh expected = MeshBvh.build(model, triangleMesh, null, Integer.MAX_VALUE);
+        MeshBvh result = MeshBvh.build(model, triangleMesh, new ForkJoinPool(4), 64);
+        Assertions.assertEquals(expected.getNodeCount(), result.getNodeCount());
+
+        Random random = new Random(11);
+        RayHit expectedHit = new RayHit();
+        RayHit hit = new RayHit();
+        for (int i = 0; i < 200; i++) {
+            Vector3f origin = new Vector3f(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+            Vector3f direction = new Vector3f(-origin.getX(), 0.4f - origin.getY(), -origin.getZ());
+            Assertions.assertEquals(expected.intersect(origin, direction, Float.POSITIVE_INFINITY, expectedHit),
+                    result.intersect(origin, direction, Float.POSITIVE_INFINITY, hit));
+            Assertions.assertEquals(expectedHit.toString(), hit.toString());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+import com.cgvsu.objreader.ObjReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+class NormalGeneratorTest {
+
+    @Test
+    public void testComputeFaceNormals01() {
+        float[] result = NormalGenerator.computeFaceNormals(TestModels.cube());
+        Assertions.assertArrayEquals(new float[]{0, 0, -1, 0, 0, 1, 0, -1, 0, 0, 1, 0, -1, 0, 0, 1, 0, 0}, result);
+    }
+
+    @Test
+    public void testComputeVertexNormals01() {
+        final float component = (float) (1 / Math.sqrt(3));
+        for (NormalGenerator.Weighting weighting : NormalGenerator.Weighting.values()) {
+            float[] result = NormalGenerator.computeVertexNormals(TestModels.cube(), weighting);
+            // вершина 0 в начале координат, вершина 7 - в противоположном углу
+            Assertions.assertEquals(-component, result[0], 1e-6f);
+            Assertions.assertEquals(-component, result[1], 1e-6f);
+            Assertions.assertEquals(-component, result[2], 1e-6f);
+            Assertions.assertEquals(component, result[21], 1e-6f);
+            Assertions.assertEquals(component, result[22], 1e-6f);
+            Assertions.assertEquals(component, result[23], 1e-6f);
+        }
+    }
+
+    @Test
+    public void testComputeVertexNormals02() {
+        // веер из большого и маленького треугольника: при AREA большой весит больше, при ANGLE углы у вершины 0 равны
+        Model model = new Model();
+        model.vertices.add(new Vector3f(0, 0, 0));
+        model.vertices.add(new Vector3f(10, 0, 0));
+        model.vertices.add(new Vector3f(0, 10, 0));
+        model.vertices.add(new Vector3f(0, 0, 1));
+        Polygon big = new Polygon();
+        big.setVertexIndices(new ArrayList<>(Arrays.asList(0, 1, 2)));
+        Polygon small = new Polygon();
+        small.setVertexIndices(new ArrayList<>(Arrays.asList(0, 3, 1)));
+        model.polygons.add(big);
+        model.polygons.add(small);
+
+        float[] area = NormalGenerator.computeVertexNormals(model, NormalGenerator.Weighting.AREA);
+        float[] angle = NormalGenerator.computeVertexNormals(model, NormalGenerator.Weighting.ANGLE);
+        Assertions.assertTrue(area[2] > 0.99f);
+        Assertions.assertEquals((float) Math.sqrt(0.5), angle[2], 1e-6f);
+        Assertions.assertEquals((float) Math.sqrt(0.5), angle[1], 1e-6f);
+        // у вершины 2 только большой треугольник
+        Assertions.assertEquals(1, angle[8]);
+    }
+
+    @Test
+    public void testGenerateNormals01() {
+        Model model = TestModels.cube();
+        NormalGenerator.generateNormals(model, NormalGenerator.Weighting.ANGLE, 30);
+        // у каждого угла куба три разные нормали - по одной на грань
+        Assertions.assertEquals(24, model.normals.size());
+        float[] faceNormals = NormalGenerator.computeFaceNormals(model);
+        for (int i = 0; i < model.polygons.size(); i++) {
+            for (int normalIndex : model.polygons.get(i).getNormalIndices()) {
+                Vector3f normal = model.normals.get(normalIndex);
+                Assertions.assertEquals(new Vector3f(faceNormals[i * 3], faceNormals[i * 3 + 1], faceNormals[i * 3 + 2]), normal);
+            }
+        }
+
+        NormalGenerator.generateNormals(model, NormalGenerator.Weighting.ANGLE, 180);
+        Assertions.assertEquals(8, model.normals.size());
+        for (Polygon polygon : model.polygons) {
+            Assertions.assertEquals(polygon.getVertexIndices(), polygon.getNormalIndices());
+        }
+    }
+
+    @Test
+    public void testGenerateNormals02() throws IOException {
+        Model expected = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/TeapotNoUV.obj"));
+        Assertions.assertEquals(0, expected.normals.size());
+        NormalGenerator.generateNormals(expected, NormalGenerator.Weighting.AREA, 45);
+        Assertions.assertTrue(expected.normals.size() >= expected.vertices.size());
+        for (Vector3f normal : expected.normals) {
+            Assertions.assertEquals(1, normal.getLength(), 1e-5f);
+        }
+
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/TeapotNoUV.obj"));
+        NormalGenerator.generateNormals(model, NormalGenerator.Weighting.AREA, 45, new ForkJoinPool(4), 64);
+        Assertions.assertEquals(expected.normals.size(), model.normals.size());
+        for (int i = 0; i < model.normals.size(); i++) {
+            Assertions.assertEquals(expected.normals.get(i).toString(), model.normals.get(i).toString());
+        }
+        for (int i = 0; i < model.polygons.size(); i++) {
+            Assertions.assertEquals(expected.polygons.get(i).getNormalIndices(), model.polygons.get(i).getNormalIndices());
+        }
+        Assertions.assertArrayEquals(NormalGenerator.computeVertexNormals(model, NormalGenerator.Weighting.ANGLE),
+                NormalGenerator.computeVertexNormals(model, NormalGenerator.Weighting.ANGLE, new ForkJoinPool(4), 64));
+    }
+
+    @Test
+    public void testGenerateNormals03() {
+        // конус из 20000 боковых треугольников и дна-веера: у вершины конуса и центра дна по 20000 полигонов
+        final int segments = 20_000;
+        Model model = new Model();
+        model.vertices.add(new Vector3f(0, 0, 1));
+        model.vertices.add(new Vector3f(0, 0, 0));
+        for (int i = 0; i < segments; i++) {
+            final double angle = 2 * Math.PI * i / segments;
+            model.vertices.add(new Vector3f((float) Math.cos(angle), (float) Math.sin(angle), 0));
+        }
+        for (int i = 0; i < segments; i++) {
+            final int vertex = 2 + i;
+            final int nextVertex = 2 + (i + 1) % segments;
+            Polygon side = new Polygon();
+            side.setVertexIndices(new ArrayList<>(Arrays.asList(0, vertex, nextVertex)));
+            model.polygons.add(side);
+            Polygon bottom = new Polygon();
+            bottom.setVertexIndices(new ArrayList<>(Arrays.asList(1, nextVertex, vertex)));
+            model.polygons.add(bottom);
+        }
+        NormalGenerator.generateNormals(model, NormalGenerator.Weighting.ANGLE, 30);
+
+        // соседние боковые грани почти параллельны, поэтому сглаживается вся боковая поверхность, хотя противоположные
+        // грани отличаются на 90 градусов; ребро дна резкое: у вершин окружности по две нормали
+        Assertions.assertEquals(2 + 2 * segments, model.normals.size());
+        Vector3f apex = model.normals.get(model.polygons.get(0).getNormalIndices().get(0));
+        Assertions.assertEquals(1, apex.getZ(), 1e-5f);
+        for (int i = 0; i < model.polygons.size(); i += 2) {
+            Assertions.assertEquals(apex, model.normals.get(model.polygons.get(i).getNormalIndices().get(0)));
+            Assertions.assertEquals(-1, model.normals.get(model.polygons.get(i + 1).getNormalIndices().get(0)).getZ());
+        }
+    }
+}
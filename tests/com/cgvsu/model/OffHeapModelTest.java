@@ -0,0 +1,82 @@
+package com.cgvsu.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+class OffHeapModelTest {
+
+    @Test
+    public void testBuild01() {
+        OffHeapModelBuilder builder = new OffHeapModelBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.addVertex(i, -i, 0.5f * i);
+        }
+        builder.addNormal(0, 0, 1);
+        builder.addPolygon(new int[]{0, 1, 2, 3}, new int[]{}, new int[]{0, 0, 0, 0});
+        builder.addPolygon(new int[]{9999, 5000, 1}, new int[]{}, new int[]{0, 0, 0});
+        OffHeapModel result = builder.build();
+
+        Assertions.assertEquals(10_000, result.getVertexCount());
+        Assertions.assertEquals(-1234f, result.getVertexY(1234));
+        Assertions.assertEquals(4999.5f, result.getVertexZ(9999));
+        Assertions.assertEquals(1, result.getNormalCount());
+        Assertions.assertEquals(0, result.getTextureVertexCount());
+        Assertions.assertEquals(2, result.getPolygonCount());
+        Assertions.assertEquals(3, result.getPolygonVertexCount(1));
+        Assertions.assertEquals(5000, result.getPolygonVertexIndex(1, 1));
+        Assertions.assertEquals(0, result.getPolygonTextureVertexCount(0));
+        Assertions.assertEquals(3, result.getPolygonNormalCount(1));
+        Assertions.assertTrue(result.getStorage().isDirect());
+    }
+
+    @Test
+    public void testFromMesh01() {
+        PackedModelBuilder builder = new PackedModelBuilder();
+        builder.addVertex(1, 2, 3);
+        builder.addVertex(4, 5, 6);
+        builder.addVertex(7, 8, 9);
+        builder.addTextureVertex(0.25f, 0.75f);
+        builder.addPolygon(new int[]{0, 1, 2}, new int[]{0, 0, 0}, new int[]{});
+        OffHeapModel result = OffHeapModel.fromMesh(builder.build());
+
+        // блоки идут подряд в little-endian: 9 float вершин, 2 float текстурной вершины, затем смещения полигонов
+        ByteBuffer storage = result.getStorage();
+        Assertions.assertEquals(ByteOrder.LITTLE_ENDIAN, storage.order());
+        Assertions.assertEquals(OffHeapModel.getStorageSize(3, 1, 0, 1, 3, 3, 0), storage.capacity());
+        Assertions.assertEquals(8f, storage.getFloat(7 * Float.BYTES));
+        Assertions.assertEquals(0.75f, storage.getFloat(10 * Float.BYTES));
+        Assertions.assertEquals(3, storage.getInt(12 * Integer.BYTES));
+        Assertions.assertEquals(0.25f, result.getTextureVertices().get(0));
+        Assertions.assertEquals(2, result.getVertexIndices().get(2));
+    }
+
+    @Test
+    public void testClose01() {
+        PackedModelBuilder builder = new PackedModelBuilder();
+        builder.addVertex(1, 2, 3);
+        OffHeapModel result = OffHeapModel.fromMesh(builder.build());
+        result.close();
+        Assertions.assertTrue(result.isClosed());
+        Assertions.assertThrows(IllegalStateException.class, () -> result.getVertexX(0));
+        Assertions.assertThrows(IllegalStateException.class, result::getVertices);
+    }
+
+    @Test
+    public void testClose02() {
+        // представление, полученное до close(), по-прежнему читает данные модели
+        OffHeapModelBuilder builder = new OffHeapModelBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.addVertex(i, -i, 0.5f * i);
+        }
+        OffHeapModel result = builder.build();
+        FloatBuffer vertices = result.getVertices();
+        result.close();
+        System.gc();
+        Assertions.assertEquals(-999f, vertices.get(999 * 3 + 1));
+        Assertions.assertEquals(249.5f, vertices.get(499 * 3 + 2));
+    }
+}
@@ -0,0 +1,71 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector2f;
+import com.cgvsu.math.Vector3f;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+class PackedModelTest {
+
+    @Test
+    public void testBuild01() {
+        PackedModelBuilder builder = new PackedModelBuilder();
+        builder.addVertex(0, 0, 0);
+        builder.addVertex(1, 0, 0);
+        builder.addVertex(1, 1, 0);
+        builder.addVertex(0, 1, 0);
+        builder.addTextureVertex(0.5f, 0.25f);
+        builder.addPolygon(new int[]{0, 1, 2, 3}, new int[]{}, new int[]{});
+        builder.addPolygon(new int[]{0, 2, 3}, new int[]{0, 0, 0}, new int[]{});
+        PackedModel result = builder.build();
+
+        Assertions.assertArrayEquals(new float[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0}, result.getVertices());
+        Assertions.assertArrayEquals(new float[]{0.5f, 0.25f}, result.getTextureVertices());
+        Assertions.assertArrayEquals(new int[]{0, 4, 7}, result.getPolygonVertexOffsets());
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 3, 0, 2, 3}, result.getVertexIndices());
+        Assertions.assertArrayEquals(new int[]{0, 0, 3}, result.getPolygonTextureVertexOffsets());
+        Assertions.assertArrayEquals(new int[]{0, 0, 0}, result.getPolygonNormalOffsets());
+        Assertions.assertEquals(2, result.getPolygonCount());
+        Assertions.assertEquals(3, result.getPolygonVertexCount(1));
+        Assertions.assertEquals(3, result.getPolygonVertexIndex(1, 2));
+        Assertions.assertEquals(0, result.getPolygonNormalCount(1));
+        Assertions.assertEquals(1f, result.getVertexY(2));
+    }
+
+    @Test
+    public void testConvert01() {
+        Model model = new Model();
+        model.vertices.add(new Vector3f(1.5f, -2, 3));
+        model.vertices.add(new Vector3f(4, 5, 6));
+        model.vertices.add(new Vector3f(7, 8, -9.25f));
+        model.textureVertices.add(new Vector2f(0.1f, 0.2f));
+        model.normals.add(new Vector3f(0, 0, 1));
+        Polygon polygon = new Polygon();
+        polygon.setVertexIndices(new ArrayList<>(Arrays.asList(0, 1, 2)));
+        polygon.setTextureVertexIndices(new ArrayList<>(Arrays.asList(0, 0, 0)));
+        polygon.setNormalIndices(new ArrayList<>(Arrays.asList(0, 0, 0)));
+        model.polygons.add(polygon);
+
+        PackedModel packed = PackedModel.fromModel(model);
+        Assertions.assertArrayEquals(new float[]{1.5f, -2, 3, 4, 5, 6, 7, 8, -9.25f}, packed.getVertices());
+        Assertions.assertArrayEquals(new int[]{0, 0, 0}, packed.getNormalIndices());
+
+        Model result = packed.toModel();
+        Assertions.assertEquals(model.vertices.toString(), result.vertices.toString());
+        Assertions.assertEquals(model.textureVertices.toString(), result.textureVertices.toString());
+        Assertions.assertEquals(model.normals.toString(), result.normals.toString());
+        Assertions.assertEquals(model.polygons.toString(), result.polygons.toString());
+    }
+
+    @Test
+    public void testConstructor01() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PackedModel(
+                new float[9], new float[0], new float[0],
+                new int[]{0, 3}, new int[]{0, 1},
+                new int[]{0, 0}, new int[0],
+                new int[]{0, 0}, new int[0]));
+    }
+}
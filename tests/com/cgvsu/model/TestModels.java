@@ -0,0 +1,37 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+
+import java.util.ArrayList;
+
+// Небольшие модели для тестов пакета
+final class TestModels {
+
+    // Грани единичного куба: против часовой стрелки, если смотреть снаружи; грань 0 - z = 0, грань 1 - z = 1
+    static final int[][] CUBE_FACES = {{0, 2, 3, 1}, {4, 5, 7, 6}, {0, 1, 5, 4}, {2, 6, 7, 3}, {0, 4, 6, 2}, {1, 3, 7, 5}};
+
+    private TestModels() {
+    }
+
+    // Вершина i - угол единичного куба (i & 1, (i >> 1) & 1, (i >> 2) & 1), индексы граней - из faces
+    static Model model(int verticesCount, int[][] faces) {
+        Model result = new Model();
+        for (int i = 0; i < verticesCount; i++) {
+            result.vertices.add(new Vector3f(i & 1, (i >> 1) & 1, (i >> 2) & 1));
+        }
+        for (int[] face : faces) {
+            ArrayList<Integer> indices = new ArrayList<>();
+            for (int index : face) {
+                indices.add(index);
+            }
+            Polygon polygon = new Polygon();
+            polygon.setVertexIndices(indices);
+            result.polygons.add(polygon);
+        }
+        return result;
+    }
+
+    static Model cube() {
+        return model(8, CUBE_FACES);
+    }
+}
@@ -0,0 +1,110 @@
+package com.cgvsu.model;
+
+import com.cgvsu.objreader.ObjReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+class TriangulatorTest {
+
+    private static PackedModel polygon(float[][] vertices, int[] textureVertexIndices, int[] normalIndices) {
+        PackedModelBuilder builder = new PackedModelBuilder();
+        int[] vertexIndices = new int[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            builder.addVertex(vertices[i][0], vertices[i][1], vertices[i][2]);
+            vertexIndices[i] = i;
+        }
+        builder.addNormal(0, 0, 1);
+        builder.addPolygon(vertexIndices, textureVertexIndices, normalIndices);
+        return builder.build();
+    }
+
+    // Удвоенная площадь треугольника в плоскости xy, > 0 при обходе против часовой стрелки
+    private static float signedArea(Mesh mesh, TriangleMesh triangles, int triangle) {
+        final int a = triangles.getVertexIndex(triangle, 0);
+        final int b = triangles.getVertexIndex(triangle, 1);
+        final int c = triangles.getVertexIndex(triangle, 2);
+        return (mesh.getVertexX(b) - mesh.getVertexX(a)) * (mesh.getVertexY(c) - mesh.getVertexY(a))
+                - (mesh.getVertexY(b) - mesh.getVertexY(a)) * (mesh.getVertexX(c) - mesh.getVertexX(a));
+    }
+
+    @Test
+    public void testTriangulate01() {
+        PackedModel quad = polygon(new float[][]{{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}}, new int[]{}, new int[]{0, 0, 0, 0});
+        TriangleMesh result = Triangulator.triangulate(quad);
+
+        Assertions.assertEquals(2, result.getTriangleCount());
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 0, 2, 3}, result.getVertexIndices());
+        Assertions.assertArrayEquals(new int[]{-1, -1, -1, -1, -1, -1}, result.getTextureVertexIndices());
+        Assertions.assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0}, result.getNormalIndices());
+        Assertions.assertArrayEquals(new int[]{0, 0}, result.getPolygonIndices());
+    }
+
+    @Test
+    public void testTriangulate02() {
+        // стрелка: вершина 0 невыпуклая, и веер из нее вышел бы за пределы полигона
+        float[][] vertices = {{1, 1, 0}, {0, 3, 0}, {0, 0, 0}, {3, 0, 0}};
+        for (int shift = 0; shift < vertices.length; shift++) {
+            float[][] shifted = new float[vertices.length][];
+            for (int i = 0; i < vertices.length; i++) {
+                shifted[i] = vertices[(i + shift) % vertices.length];
+            }
+            PackedModel arrow = polygon(shifted, new int[]{}, new int[]{});
+            TriangleMesh result = Triangulator.triangulate(arrow);
+            Assertions.assertEquals(2, result.getTriangleCount());
+            float area = 0;
+            for (int i = 0; i < 2; i++) {
+                // обход полигона против часовой стрелки сохраняется в треугольниках
+                Assertions.assertTrue(signedArea(arrow, result, i) > 0);
+                area += signedArea(arrow, result, i);
+            }
+            Assertions.assertEquals(2 * 3, area, 1e-5f);
+        }
+    }
+
+    @Test
+    public void testTriangulate03() {
+        // буква П в плоскости xz, текстурные вершины и нормали переходят в треугольники вместе с вершинами
+        float[][] vertices = {{0, 0, 0}, {3, 0, 0}, {3, 0, 3}, {2, 0, 3}, {2, 0, 1}, {1, 0, 1}, {1, 0, 3}, {0, 0, 3}};
+        PackedModel shape = polygon(vertices, new int[]{10, 11, 12, 13, 14, 15, 16, 17}, new int[]{20, 21, 22, 23, 24, 25, 26, 27});
+        TriangleMesh result = Triangulator.triangulate(shape);
+
+        Assertions.assertEquals(6, result.getTriangleCount());
+        float area = 0;
+        for (int i = 0; i < result.getTriangleCount(); i++) {
+            final int a = result.getVertexIndex(i, 0);
+            final int b = result.getVertexIndex(i, 1);
+            final int c = result.getVertexIndex(i, 2);
+            final float triangleArea = (shape.getVertexX(b) - shape.getVertexX(a)) * (shape.getVertexZ(c) - shape.getVertexZ(a))
+                    - (shape.getVertexZ(b) - shape.getVertexZ(a)) * (shape.getVertexX(c) - shape.getVertexX(a));
+            Assertions.assertTrue(triangleArea > 0);
+            area += triangleArea;
+            for (int j = 0; j < 3; j++) {
+                Assertions.assertEquals(10 + result.getVertexIndex(i, j), result.getTextureVertexIndex(i, j));
+                Assertions.assertEquals(20 + result.getVertexIndex(i, j), result.getNormalIndex(i, j));
+            }
+        }
+        // удвоенная площадь П - 14: треугольники ее покрывают и не перекрываются
+        Assertions.assertEquals(14, area, 1e-5f);
+    }
+
+    @Test
+    public void testTriangulate04() throws IOException {
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj"));
+        TriangleMesh expected = Triangulator.triangulate(model);
+        int trianglesCount = 0;
+        for (Polygon polygon : model.polygons) {
+            trianglesCount += polygon.getVertexIndices().size() - 2;
+        }
+        Assertions.assertEquals(trianglesCount, expected.getTriangleCount());
+
+        TriangleMesh result = Triangulator.triangulate(PackedModel.fromModel(model), new ForkJoinPool(4), 16);
+        Assertions.assertArrayEquals(expected.getVertexIndices(), result.getVertexIndices());
+        Assertions.assertArrayEquals(expected.getTextureVertexIndices(), result.getTextureVertexIndices());
+        Assertions.assertArrayEquals(expected.getNormalIndices(), result.getNormalIndices());
+        Assertions.assertArrayEquals(expected.getPolygonIndices(), result.getPolygonIndices());
+    }
+}
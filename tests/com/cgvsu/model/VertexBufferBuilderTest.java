@@ -0,0 +1,81 @@
+package com.cgvsu.model;
+
+import com.cgvsu.objreader.ObjReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+class VertexBufferBuilderTest {
+
+    @Test
+    public void testBuild01() {
+        PackedModelBuilder builder = new PackedModelBuilder();
+        builder.addVertex(0, 0, 0);
+        builder.addVertex(1, 0, 0);
+        builder.addVertex(1, 1, 0);
+        builder.addVertex(0, 1, 0);
+        builder.addTextureVertex(0.25f, 0.75f);
+        builder.addTextureVertex(0.5f, 0.5f);
+        builder.addNormal(0, 0, 1);
+        // у вершины 2 в двух треугольниках разные текстурные вершины - в буфере это две разные вершины
+        builder.addPolygon(new int[]{0, 1, 2}, new int[]{0, 0, 0}, new int[]{0, 0, 0});
+        builder.addPolygon(new int[]{0, 2, 3}, new int[]{0, 1, 1}, new int[]{0, 0, 0});
+        VertexBuffer result = VertexBufferBuilder.build(builder.build());
+
+        Assertions.assertEquals(5, result.getVertexCount());
+        Assertions.assertEquals(2, result.getTriangleCount());
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 0, 3, 4}, result.getIndices());
+        Assertions.assertArrayEquals(new float[]{1, 1, 0, 0.25f, 0.75f, 0, 0, 1},
+                Arrays.copyOfRange(result.getVertices(), 2 * VertexBuffer.STRIDE, 3 * VertexBuffer.STRIDE));
+        Assertions.assertArrayEquals(new float[]{1, 1, 0, 0.5f, 0.5f, 0, 0, 1},
+                Arrays.copyOfRange(result.getVertices(), 3 * VertexBuffer.STRIDE, 4 * VertexBuffer.STRIDE));
+    }
+
+    @Test
+    public void testBuild02() {
+        // квадрат без текстурных вершин и нормалей разбивается на два треугольника с общими вершинами
+        PackedModelBuilder builder = new PackedModelBuilder();
+        builder.addVertex(0, 0, 0);
+        builder.addVertex(1, 0, 0);
+        builder.addVertex(1, 1, 0);
+        builder.addVertex(0, 1, 0);
+        builder.addPolygon(new int[]{0, 1, 2, 3}, new int[]{}, new int[]{});
+        VertexBuffer result = VertexBufferBuilder.build(builder.build());
+
+        Assertions.assertEquals(4, result.getVertexCount());
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 0, 2, 3}, result.getIndices());
+        for (int i = 0; i < result.getVertexCount(); i++) {
+            for (int j = VertexBuffer.TEXTURE_VERTEX_OFFSET; j < VertexBuffer.STRIDE; j++) {
+                Assertions.assertEquals(0, result.getVertices()[i * VertexBuffer.STRIDE + j]);
+            }
+        }
+    }
+
+    @Test
+    public void testBuild03() throws IOException {
+        Model model = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj"));
+        TriangleMesh triangles = Triangulator.triangulate(model);
+        VertexBuffer expected = VertexBufferBuilder.build(model, triangles);
+
+        // каждый угол указывает на вершину буфера с его положением, текстурной вершиной и нормалью
+        final float[] vertices = expected.getVertices();
+        for (int i = 0; i < triangles.getTriangleCount() * 3; i++) {
+            final int offset = expected.getIndices()[i] * VertexBuffer.STRIDE;
+            final int vertex = triangles.getVertexIndices()[i];
+            final int textureVertex = triangles.getTextureVertexIndices()[i];
+            final int normal = triangles.getNormalIndices()[i];
+            Assertions.assertEquals(model.getVertexZ(vertex), vertices[offset + VertexBuffer.POSITION_OFFSET + 2]);
+            Assertions.assertEquals(model.getTextureVertexY(textureVertex), vertices[offset + VertexBuffer.TEXTURE_VERTEX_OFFSET + 1]);
+            Assertions.assertEquals(model.getNormalX(normal), vertices[offset + VertexBuffer.NORMAL_OFFSET]);
+        }
+        Assertions.assertTrue(expected.getVertexCount() < triangles.getTriangleCount() * 3);
+
+        VertexBuffer result = VertexBufferBuilder.build(model, triangles, new ForkJoinPool(4), 64);
+        Assertions.assertArrayEquals(expected.getVertices(), result.getVertices());
+        Assertions.assertArrayEquals(expected.getIndices(), result.getIndices());
+    }
+}
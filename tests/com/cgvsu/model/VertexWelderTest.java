@@ -0,0 +1,101 @@
+package com.cgvsu.model;
+
+import com.cgvsu.math.Vector3f;
+import com.cgvsu.objreader.ObjReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class VertexWelderTest {
+
+    private static Polygon polygon(Integer... vertexIndices) {
+        Polygon result = new Polygon();
+        result.setVertexIndices(new ArrayList<>(Arrays.asList(vertexIndices)));
+        return result;
+    }
+
+    @Test
+    public void testWeld01() {
+        // два квадрата с общей стороной, у каждого свои вершины
+        Model model = new Model();
+        model.vertices.add(new Vector3f(0, 0, 0));
+        model.vertices.add(new Vector3f(1, 0, 0));
+        model.vertices.add(new Vector3f(1, 1, 0));
+        model.vertices.add(new Vector3f(0, 1, 0));
+        model.vertices.add(new Vector3f(1.001f, 0, 0));
+        model.vertices.add(new Vector3f(2, 0, 0));
+        model.vertices.add(new Vector3f(2, 1, 0));
+        model.vertices.add(new Vector3f(1, 0.999f, 0));
+        model.polygons.add(polygon(0, 1, 2, 3));
+        model.polygons.add(polygon(4, 5, 6, 7));
+
+        Assertions.assertEquals(0, VertexWelder.weld(model, 0.0001f));
+        Assertions.assertEquals(8, model.vertices.size());
+
+        Assertions.assertEquals(2, VertexWelder.weld(model, 0.01f));
+        Assertions.assertEquals(6, model.vertices.size());
+        Assertions.assertEquals(new Vector3f(2, 0, 0), model.vertices.get(4));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3), model.polygons.get(0).getVertexIndices());
+        Assertions.assertEquals(Arrays.asList(1, 4, 5, 2), model.polygons.get(1).getVertexIndices());
+    }
+
+    @Test
+    public void testWeld02() {
+        // вершины в соседних ячейках сетки и отрицательные координаты
+        Model model = new Model();
+        model.vertices.add(new Vector3f(-0.0999f, 0.2999f, -0.5f));
+        model.vertices.add(new Vector3f(-0.1001f, 0.3001f, -0.5f));
+        model.vertices.add(new Vector3f(-0.1001f, 0.3001f, -0.3f));
+        model.vertices.add(new Vector3f(-0.0999f, 0.2999f, -0.5f));
+        int[] result = VertexWelder.findDuplicates(model, 0.001f);
+        Assertions.assertArrayEquals(new int[]{0, 0, 2, 0}, result);
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 0}, VertexWelder.findDuplicates(model, 0));
+
+        try {
+            VertexWelder.findDuplicates(model, -1);
+            Assertions.fail();
+        } catch (IllegalArgumentException exception) {
+            Assertions.assertEquals("Weld tolerance must be a non-negative finite number.", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testWeld03() throws IOException {
+        // у каждого полигона свои копии вершин; после слияния остается по одной вершине на каждое положение
+        Model expected = ObjReader.read(Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj"));
+        Model model = new Model();
+        for (Polygon polygon : expected.polygons) {
+            ArrayList<Integer> vertexIndices = new ArrayList<>();
+            for (int vertexIndex : polygon.getVertexIndices()) {
+                vertexIndices.add(model.vertices.size());
+                Vector3f vertex = expected.vertices.get(vertexIndex);
+                model.vertices.add(new Vector3f(vertex.getX(), vertex.getY(), vertex.getZ()));
+            }
+            Polygon copy = new Polygon();
+            copy.setVertexIndices(vertexIndices);
+            model.polygons.add(copy);
+        }
+        final int verticesCount = model.vertices.size();
+        Set<List<Float>> positions = new HashSet<>();
+        for (Vector3f vertex : model.vertices) {
+            positions.add(Arrays.asList(vertex.getX(), vertex.getY(), vertex.getZ()));
+        }
+
+        Assertions.assertEquals(verticesCount - positions.size(), VertexWelder.weld(model, 0));
+        Assertions.assertEquals(positions.size(), model.vertices.size());
+        for (int i = 0; i < expected.polygons.size(); i++) {
+            ArrayList<Integer> expectedIndices = expected.polygons.get(i).getVertexIndices();
+            ArrayList<Integer> vertexIndices = model.polygons.get(i).getVertexIndices();
+            for (int j = 0; j < expectedIndices.size(); j++) {
+                Assertions.assertEquals(expected.vertices.get(expectedIndices.get(j)), model.vertices.get(vertexIndices.get(j)));
+            }
+        }
+    }
+}
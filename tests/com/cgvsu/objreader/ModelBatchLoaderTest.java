@@ -0,0 +1,54 @@
+package com.cgvsu.objreader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+class ModelBatchLoaderTest {
+
+    @Test
+    public void testLoad01() throws IOException, InterruptedException {
+        ModelBatchLoader.BatchResult batch = new ModelBatchLoader(4).load(Path.of("3DModels/SimpleModelsForReaderTests"));
+
+        ModelBatchLoader.FileResult teapot = findResult(batch, "Teapot.obj");
+        Assertions.assertTrue(teapot.isLoaded());
+        Assertions.assertEquals(ObjReader.read(teapot.getPath()).polygons.size(), teapot.getModel().polygons.size());
+
+        ModelBatchLoader.FileResult invalid = findResult(batch, "TeapotInvalidVertexCount.obj");
+        Assertions.assertFalse(invalid.isLoaded());
+        Assertions.assertNull(invalid.getModel());
+        Assertions.assertNotNull(invalid.getError());
+
+        Assertions.assertEquals(batch.getResults().size(), batch.getLoadedCount() + batch.getFailedCount());
+        Assertions.assertTrue(batch.getTotalSize() > 0);
+    }
+
+    @Test
+    public void testLoad02() throws InterruptedException {
+        Path teapot = Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj");
+        Path missing = Path.of("3DModels/SimpleModelsForReaderTests/Missing.obj");
+        List<ModelBatchLoader.FileResult> results = new ModelBatchLoader(1).load(List.of(missing, teapot, missing)).getResults();
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(missing, results.get(0).getPath());
+        Assertions.assertTrue(results.get(0).getError() instanceof NoSuchFileException);
+        Assertions.assertTrue(results.get(1).isLoaded());
+        Assertions.assertFalse(results.get(2).isLoaded());
+    }
+
+    @Test
+    public void testConstructor01() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ModelBatchLoader(0));
+    }
+
+    private static ModelBatchLoader.FileResult findResult(ModelBatchLoader.BatchResult batch, String fileName) {
+        return batch.getResults().stream()
+                .filter(result -> result.getPath().getFileName().toString().equals(fileName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
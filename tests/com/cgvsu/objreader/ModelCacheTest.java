@@ -0,0 +1,98 @@
+package com.cgvsu.objreader;
+
+import com.cgvsu.model.Model;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class ModelCacheTest {
+
+    private static final Path TEAPOT = Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj");
+    private static final Path TORUS = Path.of("3DModels/SimpleModelsForReaderTests/Torus.obj");
+
+    @Test
+    public void testGet01() throws IOException {
+        ModelCache cache = new ModelCache(64L * 1024 * 1024);
+        Model first = cache.get(TEAPOT);
+        Model second = cache.get(TEAPOT.toAbsolutePath());
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getLoadCount());
+        Assertions.assertEquals(ModelCache.estimateSize(first), cache.getSize());
+    }
+
+    @Test
+    public void testGet02() throws IOException {
+        // изменившийся файл читается заново
+        Path file = Files.createTempFile("cache", ".obj");
+        try {
+            Files.writeString(file, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+            ModelCache cache = new ModelCache(1024 * 1024);
+            Assertions.assertEquals(3, cache.get(file).vertices.size());
+
+            Files.writeString(file, "v 0 0 0\nv 1 0 0\nv 0 1 0\nv 1 1 0\nf 1 2 3\nf 2 4 3\n");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+            Assertions.assertEquals(4, cache.get(file).vertices.size());
+            Assertions.assertEquals(2, cache.getLoadCount());
+            Assertions.assertEquals(1, cache.getEntryCount());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEviction01() throws IOException {
+        final long teapotSize = ModelCache.estimateSize(ObjReader.read(TEAPOT));
+        final long torusSize = ModelCache.estimateSize(ObjReader.read(TORUS));
+        ModelCache cache = new ModelCache(teapotSize + torusSize);
+        Model teapot = cache.get(TEAPOT);
+        cache.get(TORUS);
+        Assertions.assertSame(teapot, cache.get(TEAPOT));
+        Assertions.assertEquals(0, cache.getEvictionCount());
+
+        // места для третьей модели нет, вытесняется давно не запрошенный тор
+        cache.get(TORUS.resolveSibling("Torus01.obj"));
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertSame(teapot, cache.get(TEAPOT));
+        Assertions.assertTrue(cache.getSize() <= cache.getMaxSize());
+    }
+
+    @Test
+    public void testConcurrentGet01() throws Exception {
+        ModelCache cache = new ModelCache(64L * 1024 * 1024);
+        final int threadsCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        try {
+            List<Future<Model>> futures = new ArrayList<>();
+            for (int i = 0; i < threadsCount; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(TEAPOT);
+                }));
+            }
+            start.countDown();
+            Model expected = futures.get(0).get();
+            for (Future<Model> future : futures) {
+                Assertions.assertSame(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(1, cache.getLoadCount());
+        Assertions.assertEquals(threadsCount, cache.getHitCount() + cache.getMissCount());
+    }
+}
@@ -0,0 +1,167 @@
+package com.cgvsu.objreader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+class ObjNumberParserTest {
+
+    private static final String[] FLOAT_WORDS = {
+            "0", "-0", "+0", "0.0", "-0.0", "1", "-1", "+1", "1.", ".5", "-.5", "+.5", "1.5", "-1.5",
+            "0.000001", "123456.789", "1e3", "1E3", "1e+3", "1e-3", "-1.5e-7", ".5e2", "1.e2", "00001.2500",
+            "0.1", "0.2", "0.3", "0.30000001192092896", "3.4028235e38", "3.4028236e38", "1.4e-45", "1e-46",
+            "1.17549435E-38", "16777216", "16777217", "16777218", "16777219", "33554434", "33554435",
+            "9007199254740993", "123456789012345678", "1234567890123456789", "0.1234567890123456789",
+            "1.000000000000000000000000001", "1e22", "1e23", "1e-22", "1e-23", "4.5e15", "-0e10",
+            "NaN", "-NaN", "Infinity", "-Infinity", "0x1p3", "1.0f", "2d", "3F", "1e", "1e+", "e5", ".", "-", "+",
+            "", "1.2.3", "1..2", "--1", "+-1", "1-", "abc", "1 ", "1\u0001", " 1", "1e5x", "12e1000", "1e-1000"
+    };
+
+    private static final String[] INT_WORDS = {
+            "0", "-0", "+0", "1", "-1", "+1", "42", "000123", "999999999", "-999999999", "1000000000",
+            "2147483647", "-2147483648", "2147483648", "-2147483649", "99999999999", "", "-", "+", "1a", "a1",
+            "1.0", "--1", " 1", "1 ", "٣", "-١٢"
+    };
+
+    @Test
+    public void testParseFloat01() {
+        for (String word : FLOAT_WORDS) {
+            assertSameAsJdkFloat(word);
+        }
+    }
+
+    @Test
+    public void testParseFloat02() {
+        Random random = new Random(20240531);
+        for (int i = 0; i < 100_000; i++) {
+            float value = Float.intBitsToFloat(random.nextInt());
+            if (Float.isNaN(value) || Float.isInfinite(value)) {
+                continue;
+            }
+            assertSameAsJdkFloat(Float.toString(value));
+            assertSameAsJdkFloat(Double.toString(value));
+            assertSameAsJdkFloat(String.format(Locale.ROOT, "%." + random.nextInt(10) + "f", value));
+            assertSameAsJdkFloat(String.format(Locale.ROOT, "%." + random.nextInt(10) + "e", value));
+        }
+    }
+
+    @Test
+    public void testParseFloat03() {
+        // случайные десятичные записи разной длины, в том числе с точками ровно посередине между float
+        Random random = new Random(7);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.setLength(0);
+            if (random.nextBoolean()) {
+                builder.append('-');
+            }
+            int integerDigits = random.nextInt(12);
+            for (int j = 0; j < integerDigits; j++) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            builder.append('.');
+            int fractionDigits = random.nextInt(12);
+            for (int j = 0; j < fractionDigits; j++) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextInt(4) == 0) {
+                builder.append('e').append(random.nextInt(61) - 30);
+            }
+            assertSameAsJdkFloat(builder.toString());
+        }
+        for (int i = 0; i < 100_000; i++) {
+            // середина между соседними float, записанная точно
+            float value = Float.intBitsToFloat(random.nextInt(0x7F000000));
+            double midpoint = ((double) value + (double) Math.nextUp(value)) / 2;
+            assertSameAsJdkFloat(new BigDecimal(midpoint).toPlainString());
+            assertSameAsJdkFloat(Double.toString(midpoint));
+        }
+    }
+
+    @Test
+    public void testParseFloat04() {
+        String line = "v 1.25 -0.5 3e2";
+        Assertions.assertEquals(1.25f, ObjNumberParser.parseFloat(line, 2, 6));
+        Assertions.assertEquals(-0.5f, ObjNumberParser.parseFloat(line, 7, 11));
+        Assertions.assertEquals(300f, ObjNumberParser.parseFloat(line, 12, 15));
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+        Assertions.assertEquals(-0.5f, ObjNumberParser.parseFloat(buffer, 7, 11));
+    }
+
+    @Test
+    public void testParseInt01() {
+        for (String word : INT_WORDS) {
+            assertSameAsJdkInt(word);
+        }
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            assertSameAsJdkInt(Integer.toString(random.nextInt()));
+            assertSameAsJdkInt(Integer.toString(random.nextInt(1000) - 500));
+        }
+    }
+
+    @Test
+    public void testParseInt02() {
+        String word = "12/-3/45";
+        Assertions.assertEquals(12, ObjNumberParser.parseInt(word, 0, 2));
+        Assertions.assertEquals(-3, ObjNumberParser.parseInt(word, 3, 5));
+        Assertions.assertEquals(45, ObjNumberParser.parseInt(word, 6, 8));
+    }
+
+    private static void assertSameAsJdkFloat(String word) {
+        Float expected = null;
+        try {
+            expected = Float.parseFloat(word);
+        } catch (NumberFormatException ignored) {
+        }
+        Float fromChars = null;
+        try {
+            fromChars = ObjNumberParser.parseFloat("#" + word + "#", 1, word.length() + 1);
+        } catch (NumberFormatException ignored) {
+        }
+        Assertions.assertEquals(bits(expected), bits(fromChars), "chars: \"" + word + "\"");
+
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(word)) {
+            ByteBuffer buffer = ByteBuffer.wrap(("#" + word + "#").getBytes(StandardCharsets.US_ASCII));
+            Float fromBytes = null;
+            try {
+                fromBytes = ObjNumberParser.parseFloat(buffer, 1, word.length() + 1);
+            } catch (NumberFormatException ignored) {
+            }
+            Assertions.assertEquals(bits(expected), bits(fromBytes), "bytes: \"" + word + "\"");
+        }
+    }
+
+    private static void assertSameAsJdkInt(String word) {
+        Integer expected = null;
+        try {
+            expected = Integer.parseInt(word);
+        } catch (NumberFormatException ignored) {
+        }
+        Integer fromChars = null;
+        try {
+            fromChars = ObjNumberParser.parseInt("#" + word + "#", 1, word.length() + 1);
+        } catch (NumberFormatException ignored) {
+        }
+        Assertions.assertEquals(expected, fromChars, "chars: \"" + word + "\"");
+
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(word)) {
+            ByteBuffer buffer = ByteBuffer.wrap(("#" + word + "#").getBytes(StandardCharsets.US_ASCII));
+            Integer fromBytes = null;
+            try {
+                fromBytes = ObjNumberParser.parseInt(buffer, 1, word.length() + 1);
+            } catch (NumberFormatException ignored) {
+            }
+            Assertions.assertEquals(expected, fromBytes, "bytes: \"" + word + "\"");
+        }
+    }
+
+    private static Integer bits(Float value) {
+        return value == null ? null : Float.floatToRawIntBits(value);
+    }
+}
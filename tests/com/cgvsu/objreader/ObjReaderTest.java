@@ -3,13 +3,26 @@ package com.cgvsu.objreader;
 import com.cgvsu.math.Vector2f;
 import com.cgvsu.math.Vector3f;
 import com.cgvsu.model.Model;
+import com.cgvsu.model.OffHeapModel;
+import com.cgvsu.model.PackedModel;
 import com.cgvsu.model.Polygon;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
 
 class ObjReaderTest {
 
@@ -283,6 +296,54 @@ class ObjReaderTest {
         }
     }
 
+    @Test
+    public void testCheckPolygon12() {
+        // третья и пятая вершины - разные вершины файла с одинаковыми координатами
+        Polygon polygon = new Polygon();
+        polygon.setVertexIndices(new ArrayList<Integer>(List.of(0,1,2,3,4)));
+        ArrayList<Vector3f> modelVertices = new ArrayList<Vector3f>(List.of(new Vector3f(0,0,0), new Vector3f(1,0,0), new Vector3f(1,1,0), new Vector3f(0,1,0), new Vector3f(1,1,0)));
+        try {
+            ObjReader.checkPolygon(polygon, 0, modelVertices, null, null);
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #1: some of its points lie on the same line or are identical.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testCheckPolygon13() {
+        // первые три вершины на одной прямой, последней вершины нет: как и раньше, сообщается о первой найденной ошибке
+        Polygon polygon = new Polygon();
+        polygon.setVertexIndices(new ArrayList<Integer>(List.of(0,1,2,3,9)));
+        ArrayList<Vector3f> modelVertices = new ArrayList<Vector3f>(List.of(new Vector3f(0,0,0), new Vector3f(1,0,0), new Vector3f(2,0,0), new Vector3f(0,1,0)));
+        try {
+            ObjReader.checkPolygon(polygon, 0, modelVertices, null, null);
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #1: some of its points lie on the same line or are identical.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testCheckPolygon14() {
+        // третья и пятая вершины лежат на одной прямой с первой, но не соседние и вторую вершину не включают
+        Polygon polygon = new Polygon();
+        polygon.setVertexIndices(new ArrayList<Integer>(List.of(0,1,2,3,4)));
+        ArrayList<Vector3f> modelVertices = new ArrayList<Vector3f>(List.of(new Vector3f(0,0,0), new Vector3f(4,0,0), new Vector3f(2,2,0), new Vector3f(0,4,0), new Vector3f(1,1,0)));
+        try {
+            ObjReader.checkPolygon(polygon, 0, modelVertices, null, null);
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #1: some of its points lie on the same line or are identical.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
     @Test
     public void testCheckModelAfterReading01() {
         Polygon polygon = new Polygon();
@@ -470,4 +531,447 @@ class ObjReaderTest {
             Assertions.assertEquals(expectedError, exception.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCheckModelAfterReading07() {
+        // каждый полигон - отдельный диапазон: у второго полигона нет нормалей, у четвертого нет вершины
+        Model model = new Model();
+        model.vertices = new ArrayList<Vector3f>(List.of(new Vector3f(0,0,0), new Vector3f(1,0,0), new Vector3f(0,1,0)));
+        model.normals = new ArrayList<Vector3f>(List.of(new Vector3f(0,0,1)));
+        for (int i = 0; i < 5; i++) {
+            Polygon polygon = new Polygon();
+            polygon.setVertexIndices(new ArrayList<Integer>(List.of(0,1,i == 3 ? 7 : 2)));
+            if (i != 1) {
+                polygon.setNormalIndices(new ArrayList<Integer>(List.of(0,0,0)));
+            }
+            model.polygons.add(polygon);
+        }
+        try {
+            ObjParallelValidator.check(model, new ForkJoinPool(4), ObjReaderOptions.DEFAULT, 1);
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "Not all polygons in the model have a texture vertex or normal attached to them.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadFromPath01() throws IOException {
+        Path teapot = Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj");
+        Model expected = ObjReader.read(Files.readString(teapot));
+        Model result = ObjReader.read(teapot);
+        assertModelsEqual(expected, result);
+    }
+
+    @Test
+    public void testReadFromInputStream01() throws IOException {
+        Path torus = Path.of("3DModels/SimpleModelsForReaderTests/Torus.obj");
+        Model expected = ObjReader.read(Files.readString(torus));
+        Model result;
+        try (InputStream inputStream = Files.newInputStream(torus)) {
+            result = ObjReader.read(inputStream);
+        }
+        assertModelsEqual(expected, result);
+    }
+
+    @Test
+    public void testReadFromReader01() throws IOException {
+        String fileContent = "v 0 0 0\r\nv 1 0 0\r\n\r\nv 0 1 0\r\nv 1 1\r\nf 1 2 3\r\n";
+        try {
+            ObjReader.read(new StringReader(fileContent));
+            Assertions.fail();
+
+        } catch (ObjReaderException exception) {
+            String expectedError = "Error parsing OBJ file on line: 5. Too few vertex arguments.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadMapped01() throws IOException {
+        Path file = Files.createTempFile("mapped", ".obj");
+        try {
+            Files.writeString(file, "v 0 0 0\nv 1 0 0\n\tv 2 2 2\nv 0 1 0\r\nf 1/x 2 3\n");
+            ObjReader.read(file);
+            Assertions.fail();
+
+        } catch (ObjReaderException exception) {
+            String expectedError = "Error parsing OBJ file on line: 5. Failed to parse int value.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadMapped02() throws IOException {
+        String fileContent = "# модель с комментарием на русском\nv 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n";
+        Path file = Files.createTempFile("mapped", ".obj");
+        try {
+            Files.writeString(file, fileContent);
+            assertModelsEqual(ObjReader.read(fileContent), ObjReader.read(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadParallel01() throws IOException {
+        Path model = Path.of("3DModels/SimpleModelsForReaderTests/TeapotWithUniqueUVs.obj");
+        assertModelsEqual(ObjReader.read(model), ObjReader.readParallel(model, new ForkJoinPool(4)));
+    }
+
+    @Test
+    public void testReadParallel02() {
+        // каждая строка - отдельный участок, отрицательные индексы должны учитывать вершины предыдущих участков
+        String fileContent = "v 0 0 0\nv 1 0 0\nv 0 1 0\nf -3 -2 -1\r\nv 1 1 0\nf -3/1 -2/2 -1/3\n";
+        byte[] bytes = fileContent.getBytes(StandardCharsets.US_ASCII);
+        Model result = ObjParallelReader.read(ByteBuffer.wrap(bytes), bytes.length, new ForkJoinPool(4), 1);
+        Model expected = new Model();
+        for (String line : fileContent.split("\r?\n")) {
+            ObjReader.parseLine(line, 0, expected);
+        }
+        assertModelsEqual(expected, result);
+    }
+
+    @Test
+    public void testReadParallel03() {
+        String fileContent = "v 0 0 0\nv 1 0 0\n\nv 0 1 0\r\nv 1 x 0\nf 1 2 3\nf 1 2 y\n";
+        byte[] bytes = fileContent.getBytes(StandardCharsets.US_ASCII);
+        try {
+            ObjParallelReader.read(ByteBuffer.wrap(bytes), bytes.length, new ForkJoinPool(4), 1);
+            Assertions.fail();
+
+        } catch (ObjReaderException exception) {
+            String expectedError = "Error parsing OBJ file on line: 5. Failed to parse float value.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadParallel04() {
+        // вершина 4 объявлена после граней, ошибки в третьем и четвертом полигонах - сообщается о третьем
+        String fileContent = "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\nf 1 2 4\nf 1 1 2\nf 1 2 9\nv 1 1 0\n";
+        byte[] bytes = fileContent.getBytes(StandardCharsets.US_ASCII);
+        try {
+            ObjParallelReader.read(ByteBuffer.wrap(bytes), bytes.length, new ForkJoinPool(4), 1, ObjReaderOptions.DEFAULT);
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #3: some of its points lie on the same line or are identical.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadPacked01() throws IOException {
+        Path model = Path.of("3DModels/SimpleModelsForReaderTests/TeapotWithUniqueUVs.obj");
+        assertModelsEqual(ObjReader.read(model), ObjReader.readPacked(model).toModel());
+    }
+
+    @Test
+    public void testReadPacked02() throws IOException {
+        Path file = Files.createTempFile("packed", ".obj");
+        try {
+            Files.writeString(file, "v 0 0 0\nv 1 0 0\nv 2 0 0\nv 0 1 0\nf 1 2 4\nf -4 -3 -2\n");
+            ObjReader.readPacked(file);
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #2: some of its points lie on the same line or are identical.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadOffHeap01() throws IOException {
+        Path model = Path.of("3DModels/SimpleModelsForReaderTests/Torus.obj");
+        PackedModel expected = ObjReader.readPacked(model);
+        try (OffHeapModel result = ObjReader.readOffHeap(model)) {
+            float[] vertices = new float[expected.getVertices().length];
+            result.getVertices().get(vertices);
+            Assertions.assertArrayEquals(expected.getVertices(), vertices);
+            int[] vertexIndices = new int[expected.getVertexIndices().length];
+            result.getVertexIndices().get(vertexIndices);
+            Assertions.assertArrayEquals(expected.getVertexIndices(), vertexIndices);
+            Assertions.assertEquals(expected.getPolygonCount(), result.getPolygonCount());
+            Assertions.assertEquals(expected.getNormalCount(), result.getNormalCount());
+            Assertions.assertEquals(expected.getTextureVertexCount(), result.getTextureVertexCount());
+        }
+    }
+
+    @Test
+    public void testReadCached01() throws IOException {
+        Path directory = Files.createTempDirectory("cached");
+        Path source = directory.resolve("Torus.obj");
+        Files.copy(Path.of("3DModels/SimpleModelsForReaderTests/Torus.obj"), source);
+        Path cacheFile = directory.resolve("Torus.obj" + ObjBinaryCache.FILE_SUFFIX);
+        try {
+            OffHeapModel parsed = ObjReader.readCached(source);
+            Assertions.assertTrue(Files.exists(cacheFile));
+            OffHeapModel cached = ObjReader.readCached(source);
+            Assertions.assertEquals(parsed.getStorage(), cached.getStorage());
+            Assertions.assertEquals(parsed.getPolygonCount(), cached.getPolygonCount());
+        } finally {
+            Files.deleteIfExists(cacheFile);
+            Files.delete(source);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testReadCached02() throws IOException {
+        Path source = Files.createTempFile("cached", ".obj");
+        Path cacheFile = Files.createTempFile("cached", ObjBinaryCache.FILE_SUFFIX);
+        try {
+            Files.writeString(source, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+            ObjReader.readCached(source, cacheFile);
+
+            // испорченный кэш пересобирается
+            byte[] bytes = Files.readAllBytes(cacheFile);
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(cacheFile, bytes);
+            Assertions.assertNull(ObjBinaryCache.load(cacheFile, Files.size(source), Files.getLastModifiedTime(source).toMillis()));
+            Assertions.assertEquals(0, ObjReader.readCached(source, cacheFile).getPolygonVertexIndex(0, 0));
+            Assertions.assertNotNull(ObjBinaryCache.load(cacheFile, Files.size(source), Files.getLastModifiedTime(source).toMillis()));
+
+            // после изменения файла кэш устаревает
+            Files.writeString(source, "v 0 0 0\nv 1 0 0\nv 0 1 0\nv 1 1 0\nf 1 2 4\n");
+            Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 2000));
+            Assertions.assertEquals(3, ObjReader.readCached(source, cacheFile).getPolygonVertexIndex(0, 2));
+            Assertions.assertEquals(4, ObjReader.readCached(source, cacheFile).getVertexCount());
+        } finally {
+            Files.delete(source);
+            Files.deleteIfExists(cacheFile);
+        }
+    }
+
+    @Test
+    public void testReadCached03() throws IOException {
+        Path source = Files.createTempFile("cached", ".obj");
+        Path cacheFile = Files.createTempFile("cached", ObjBinaryCache.FILE_SUFFIX);
+        try {
+            Files.writeString(source, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+            ObjReader.readCached(source, cacheFile);
+
+            // кол-во вершин в заголовке такое, что 3 * vertexCount в int переполняется до 2:
+            // размер файла и CRC32 при этом сходятся с данными
+            ByteBuffer bytes = ByteBuffer.wrap(Arrays.copyOf(Files.readAllBytes(cacheFile), 64 + 5 * Integer.BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            bytes.putInt(24, 0x55555556);
+            for (int offset = 28; offset < 52; offset += Integer.BYTES) {
+                bytes.putInt(offset, 0);
+            }
+            Arrays.fill(bytes.array(), 64, bytes.capacity(), (byte) 0);
+            CRC32 crc = new CRC32();
+            crc.update(bytes.array(), 64, 5 * Integer.BYTES);
+            bytes.putInt(52, (int) crc.getValue());
+            Files.write(cacheFile, bytes.array());
+
+            Assertions.assertNull(ObjBinaryCache.load(cacheFile, Files.size(source), Files.getLastModifiedTime(source).toMillis()));
+            OffHeapModel result = ObjReader.readCached(source, cacheFile);
+            Assertions.assertEquals(3, result.getVertexCount());
+            Assertions.assertEquals(1, result.getPolygonCount());
+        } finally {
+            Files.delete(source);
+            Files.deleteIfExists(cacheFile);
+        }
+    }
+
+    @Test
+    public void testReadWithOptions01() throws IOException {
+        // вершины полигона на одной прямой: это ошибка только при полной проверке
+        String fileContent = "v 0 0 0\nv 1 0 0\nv 2 0 0\nf 1 2 3\n";
+        Assertions.assertEquals(1, ObjReader.read(new StringReader(fileContent), new ObjReaderOptions(ObjReaderOptions.ValidationLevel.NONE)).polygons.size());
+        Assertions.assertEquals(1, ObjReader.read(new StringReader(fileContent), new ObjReaderOptions(ObjReaderOptions.ValidationLevel.INDICES_ONLY)).polygons.size());
+        try {
+            ObjReader.read(new StringReader(fileContent), ObjReaderOptions.DEFAULT);
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #1: some of its points lie on the same line or are identical.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadWithOptions02() throws IOException {
+        String fileContent = "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n";
+        Assertions.assertEquals(1, ObjReader.read(new StringReader(fileContent), new ObjReaderOptions(ObjReaderOptions.ValidationLevel.NONE)).polygons.size());
+        try {
+            ObjReader.read(new StringReader(fileContent), new ObjReaderOptions(ObjReaderOptions.ValidationLevel.INDICES_ONLY));
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #1: there is no vertex with number 4 in the file.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadWithOptions03() throws IOException {
+        // четвертая вершина на 0.01 выше плоскости первых трех
+        String fileContent = "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0.01\nf 1 2 3 4\n";
+        Assertions.assertEquals(1, ObjReader.read(new StringReader(fileContent), ObjReaderOptions.DEFAULT).polygons.size());
+        Assertions.assertEquals(1, ObjReader.read(new StringReader(fileContent), new ObjReaderOptions(0.1f)).polygons.size());
+        try {
+            ObjReader.read(new StringReader(fileContent), new ObjReaderOptions(0.001f));
+            Assertions.fail();
+
+        } catch (RuntimeException exception) {
+            String expectedError = "For polygon #1: its points do not lie in the same plane.";
+            Assertions.assertEquals(expectedError, exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadWithMetrics01() throws IOException {
+        Path teapot = Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj");
+        List<ObjReadStatistics> statistics = new ArrayList<>();
+        Model model = ObjReader.read(teapot, ObjReaderOptions.DEFAULT.withMetrics(statistics::add));
+
+        Assertions.assertEquals(1, statistics.size());
+        ObjReadStatistics result = statistics.get(0);
+        Assertions.assertEquals(teapot.toString(), result.getSource());
+        Assertions.assertEquals(Files.size(teapot), result.getBytesCount());
+        Assertions.assertEquals(Files.readAllLines(teapot).size(), result.getLinesCount());
+        Assertions.assertEquals(model.vertices.size(), result.getVerticesCount());
+        Assertions.assertEquals(model.textureVertices.size(), result.getTextureVerticesCount());
+        Assertions.assertEquals(model.normals.size(), result.getNormalsCount());
+        Assertions.assertEquals(model.polygons.size(), result.getPolygonsCount());
+        Assertions.assertTrue(result.getParseNanos() > 0);
+        Assertions.assertEquals(result.getIoNanos() + result.getParseNanos() + result.getValidationNanos(), result.getTotalNanos());
+    }
+
+    @Test
+    public void testReadWithMetrics02() throws IOException {
+        String fileContent = "v 0 0 0\nv 1 0 0\nv 1 1 0\n\nf 1 2 3\n";
+        List<ObjReadStatistics> statistics = new ArrayList<>();
+        ObjReaderOptions options = new ObjReaderOptions(ObjReaderOptions.ValidationLevel.INDICES_ONLY).withMetrics(statistics::add);
+        Assertions.assertEquals(ObjReaderOptions.ValidationLevel.INDICES_ONLY, options.getValidationLevel());
+        ObjReader.read(new StringReader(fileContent), options);
+        ObjReader.read(new StringReader(fileContent), options);
+
+        Assertions.assertEquals(2, statistics.size());
+        Assertions.assertEquals(5, statistics.get(1).getLinesCount());
+        Assertions.assertEquals(3, statistics.get(1).getVerticesCount());
+        Assertions.assertEquals(1, statistics.get(1).getPolygonsCount());
+    }
+
+    @Test
+    public void testReadWithMetrics03() throws IOException {
+        // в файле есть не-ASCII символы: после неудачного разбора по байтам он читается через Reader,
+        // но это все равно одно чтение с одной записью статистики
+        Path path = Files.createTempFile("metrics", ".obj");
+        try {
+            Files.writeString(path, "# треугольник\nv 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+            List<ObjReadStatistics> statistics = new ArrayList<>();
+            ObjReaderOptions options = ObjReaderOptions.DEFAULT.withMetrics(statistics::add);
+            PackedModel packed = ObjReader.readPacked(path, options);
+            OffHeapModel offHeap = ObjReader.readOffHeap(path, options);
+
+            Assertions.assertEquals(2, statistics.size());
+            Assertions.assertEquals(packed.getVertexCount(), statistics.get(0).getVerticesCount());
+            Assertions.assertEquals(offHeap.getPolygonCount(), statistics.get(1).getPolygonsCount());
+            for (ObjReadStatistics result : statistics) {
+                Assertions.assertEquals(path.toString(), result.getSource());
+                Assertions.assertEquals(5, result.getLinesCount());
+                Assertions.assertTrue(result.getParseNanos() > 0);
+                Assertions.assertEquals(result.getIoNanos() + result.getParseNanos() + result.getValidationNanos(), result.getTotalNanos());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testReadWithListener01() throws IOException {
+        Path teapot = Path.of("3DModels/SimpleModelsForReaderTests/Teapot.obj");
+        Model expected = ObjReader.read(teapot);
+        final int[] counts = new int[3];
+        ObjReader.read(teapot, new ObjReaderListener() {
+            @Override
+            public void onVertex(float x, float y, float z) {
+                ++counts[0];
+            }
+
+            @Override
+            public void onFace(int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices) {
+                ++counts[1];
+                counts[2] += vertexIndices.length;
+            }
+        });
+        Assertions.assertEquals(expected.vertices.size(), counts[0]);
+        Assertions.assertEquals(expected.polygons.size(), counts[1]);
+        Assertions.assertEquals(expected.polygons.stream().mapToInt(polygon -> polygon.getVertexIndices().size()).sum(), counts[2]);
+    }
+
+    @Test
+    public void testReadWithListener02() throws IOException {
+        // ошибочные строки пропускаются, отрицательные индексы считаются только по прочитанным вершинам
+        String fileContent = "# comment\nv 0 0 0\nv 1 x 0\nv 1 0 0\ng group\nf -2 -1 1/x\nf 1 2 -1\n";
+        Path file = Files.createTempFile("listener", ".obj");
+        try {
+            Files.writeString(file, fileContent);
+            String fromPath = collectEvents(listener -> ObjReader.read(file, listener));
+            String fromReader = collectEvents(listener -> ObjReader.read(new StringReader(fileContent), listener));
+            String expected = "unknown 1 # comment;vertex 0.0;error 3;vertex 1.0;unknown 5 g group;error 6;face [0, 1, 1];";
+            Assertions.assertEquals(expected, fromPath);
+            Assertions.assertEquals(expected, fromReader);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private interface ListenerReader {
+        void read(ObjReaderListener listener) throws IOException;
+    }
+
+    private static String collectEvents(ListenerReader reader) throws IOException {
+        final StringBuilder events = new StringBuilder();
+        reader.read(new ObjReaderListener() {
+            @Override
+            public void onVertex(float x, float y, float z) {
+                events.append("vertex ").append(x).append(';');
+            }
+
+            @Override
+            public void onFace(int[] vertexIndices, int[] textureVertexIndices, int[] normalIndices) {
+                events.append("face ").append(Arrays.toString(vertexIndices)).append(';');
+            }
+
+            @Override
+            public void onUnknown(CharSequence line, int lineInd) {
+                events.append("unknown ").append(lineInd).append(' ').append(line).append(';');
+            }
+
+            @Override
+            public void onError(ObjReaderException exception) {
+                events.append("error ").append(exception.getLineInd()).append(';');
+            }
+        });
+        return events.toString();
+    }
+
+    static void assertModelsEqual(Model expected, Model result) {
+        Assertions.assertEquals(expected.vertices.size(), result.vertices.size());
+        for (int i = 0; i < expected.vertices.size(); i++) {
+            Assertions.assertEquals(expected.vertices.get(i).toString(), result.vertices.get(i).toString());
+        }
+        Assertions.assertEquals(expected.textureVertices.size(), result.textureVertices.size());
+        for (int i = 0; i < expected.textureVertices.size(); i++) {
+            Assertions.assertEquals(expected.textureVertices.get(i).toString(), result.textureVertices.get(i).toString());
+        }
+        Assertions.assertEquals(expected.normals.size(), result.normals.size());
+        for (int i = 0; i < expected.normals.size(); i++) {
+            Assertions.assertEquals(expected.normals.get(i).toString(), result.normals.get(i).toString());
+        }
+        Assertions.assertEquals(expected.polygons.size(), result.polygons.size());
+        for (int i = 0; i < expected.polygons.size(); i++) {
+            Assertions.assertEquals(expected.polygons.get(i).toString(), result.polygons.get(i).toString());
+        }
+    }
+}